@@ -0,0 +1,66 @@
+package com.banking.api.model;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The balance arithmetic of one transfer - funds check, debit, credit - on
+ * BigDecimal and on Money. Run with {@code -Djmh.args="-prof gc"} to see the
+ * bytes allocated per transfer next to the time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    private BigDecimal decimalSource;
+    private BigDecimal decimalTarget;
+    private BigDecimal decimalAmount;
+    private Money moneySource;
+    private Money moneyTarget;
+    private Money moneyAmount;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        decimalSource = new BigDecimal("1000000000.00");
+        decimalTarget = new BigDecimal("250.00");
+        decimalAmount = new BigDecimal("12.34");
+        moneySource = Money.of(decimalSource, "USD");
+        moneyTarget = Money.of(decimalTarget, "USD");
+        moneyAmount = Money.of(decimalAmount, "USD");
+    }
+
+    @Benchmark
+    public void bigDecimalTransfer(Blackhole blackhole) {
+        if (decimalSource.compareTo(decimalAmount) >= 0) {
+            decimalSource = decimalSource.subtract(decimalAmount);
+            decimalTarget = decimalTarget.add(decimalAmount);
+        }
+        blackhole.consume(decimalSource);
+        blackhole.consume(decimalTarget);
+    }
+
+    @Benchmark
+    public void moneyTransfer(Blackhole blackhole) {
+        if (moneySource.compareTo(moneyAmount) >= 0) {
+            moneySource = moneySource.minus(moneyAmount);
+            moneyTarget = moneyTarget.plus(moneyAmount);
+        }
+        blackhole.consume(moneySource);
+        blackhole.consume(moneyTarget);
+    }
+
+    /**
+     * What the request path pays on top: parsing the JSON amount into minor units
+     */
+    @Benchmark
+    public Money parseAmount() {
+        return Money.of(decimalAmount, "USD");
+    }
+}
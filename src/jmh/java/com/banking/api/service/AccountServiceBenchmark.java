@@ -0,0 +1,42 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccountService.createAccount against H2, including account number allocation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountServiceBenchmark {
+
+    private static final AccountDTO.CreateAccountRequest REQUEST =
+        new AccountDTO.CreateAccountRequest("Benchmark Holder", new BigDecimal("100.00"), "USD");
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start("accountbench");
+        accountService = context.getBean(AccountService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountDTO.AccountResponse createAccount() {
+        return accountService.createAccount(REQUEST);
+    }
+}
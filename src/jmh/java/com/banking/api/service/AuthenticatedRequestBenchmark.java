@@ -0,0 +1,73 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GET /api/v1/accounts/{accountNumber}/balance over HTTP with Basic credentials,
+ * one request in flight, so the score is authenticated requests per second per
+ * core on the server.
+ *
+ * credentialCacheTtlMs=0 is a BCrypt check on every request, as before the
+ * credential cache; 60000 is the default, where only the first request of
+ * each minute pays for it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class AuthenticatedRequestBenchmark {
+
+    @Param({"0", "60000"})
+    long credentialCacheTtlMs;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.startWebServer("authbench" + credentialCacheTtlMs,
+            "banking.security.credential-cache.ttl-ms=" + credentialCacheTtlMs);
+        String accountNumber = context.getBean(AccountService.class).createAccount(
+            new AccountDTO.CreateAccountRequest("Benchmark Holder", new BigDecimal("100.00"), "USD"))
+            .getAccountNumber();
+        String port = context.getEnvironment().getProperty("local.server.port");
+        String credentials = Base64.getEncoder().encodeToString("user:password".getBytes(StandardCharsets.UTF_8));
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/api/v1/accounts/" + accountNumber + "/balance"))
+            .header("Authorization", "Basic " + credentials)
+            .GET()
+            .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public String balance() throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Balance request failed with " + response.statusCode());
+        }
+        return response.body();
+    }
+}
@@ -0,0 +1,54 @@
+package com.banking.api.service;
+
+import com.banking.api.BankingApiApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against a private H2 database, without a web server
+ * unless the benchmark goes through HTTP. Settings are passed as command line
+ * arguments so they win over application.properties; benchmarks can add their
+ * own as extra name=value settings.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String databaseName, String... settings) {
+        return start(WebApplicationType.NONE, databaseName, settings);
+    }
+
+    /**
+     * Boots with Tomcat on a random port, read back from the local.server.port property
+     */
+    static ConfigurableApplicationContext startWebServer(String databaseName, String... settings) {
+        List<String> withPort = new ArrayList<>(List.of(settings));
+        withPort.add("server.port=0");
+        return start(WebApplicationType.SERVLET, databaseName, withPort.toArray(String[]::new));
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, String databaseName,
+                                                        String... settings) {
+        List<String> args = new ArrayList<>(List.of(
+            "--spring.datasource.url=jdbc:h2:mem:" + databaseName,
+            "--spring.jpa.show-sql=false",
+            "--logging.level.root=WARN",
+            // Failed transfers are counted by the benchmarks; logging each one would dominate the run
+            "--logging.level.com.banking.api=OFF",
+            "--logging.level.org.hibernate=OFF",
+            "--logging.level.org.hibernate.SQL=OFF"
+        ));
+        for (String setting : settings) {
+            args.add("--" + setting);
+        }
+        return new SpringApplicationBuilder(BankingApiApplication.class)
+            .web(type)
+            .logStartupInfo(false)
+            .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,104 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.TransferConflictException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pessimistic vs optimistic transfers as contention varies.
+ *
+ * Every operation moves money between two random accounts out of a pool of
+ * {@code accounts}; with 2 accounts every transfer collides, with 256 almost
+ * none do. Outcomes split the score: succeeded, conflicted (optimistic retries
+ * exhausted) and failed (anything else, e.g. H2 SERIALIZABLE deadlocks in the
+ * pessimistic mode). The optimistic retry count is on the
+ * banking.transfer.optimistic.retries meter and is printed at tear-down.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ConcurrencyModeBenchmark {
+
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @State(Scope.Benchmark)
+    public static class Application {
+        @Param({"2", "16", "256"})
+        int accounts;
+
+        @Param({"PESSIMISTIC", "OPTIMISTIC"})
+        TransferDTO.ConcurrencyMode mode;
+
+        ConfigurableApplicationContext context;
+        IdempotentTransferService transferService;
+        String[] accountNumbers;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = BenchmarkApplication.start("concurrencybench");
+            transferService = context.getBean(IdempotentTransferService.class);
+            AccountService accountService = context.getBean(AccountService.class);
+            accountNumbers = new String[accounts];
+            for (int i = 0; i < accounts; i++) {
+                accountNumbers[i] = accountService.createAccount(
+                    new AccountDTO.CreateAccountRequest("Benchmark Holder", OPENING_BALANCE, "USD")
+                ).getAccountNumber();
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            System.out.printf("%n%s/%d accounts: %.0f optimistic retries%n", mode, accounts,
+                registry.counter("banking.transfer.optimistic.retries").count());
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long succeeded;
+        public long conflicted;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            succeeded = 0;
+            conflicted = 0;
+            failed = 0;
+        }
+    }
+
+    @Benchmark
+    public TransferDTO.TransferResponse transfer(Application application, Outcomes outcomes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(application.accounts);
+        int to = (from + 1 + random.nextInt(application.accounts - 1)) % application.accounts;
+        try {
+            TransferDTO.TransferResponse response = application.transferService.executeTransfer(
+                new TransferDTO.TransferRequest(application.accountNumbers[from], application.accountNumbers[to],
+                    AMOUNT, "Benchmark"),
+                null, application.mode);
+            outcomes.succeeded++;
+            return response;
+        } catch (TransferConflictException ex) {
+            outcomes.conflicted++;
+            return null;
+        } catch (RuntimeException ex) {
+            outcomes.failed++;
+            return null;
+        }
+    }
+}
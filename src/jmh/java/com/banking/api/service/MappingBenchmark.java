@@ -0,0 +1,133 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.model.Account;
+import com.banking.api.model.Money;
+import com.banking.api.model.Transaction;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request mapping costs with no database involved: entity to DTO, and
+ * DTO to JSON with the same ObjectMapper configuration Spring MVC uses.
+ *
+ * The write* benchmarks stream a response the way the HTTP message converter
+ * does, into a sink instead of a byte array; the *Reflective variants ignore
+ * the hand-written serializers and use Jackson's bean serializer. Run with
+ * {@code -Djmh.args="-prof gc"} for bytes allocated per response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private AccountService accountService;
+    private ObjectMapper objectMapper;
+    private ObjectWriter transferWriter;
+    private ObjectWriter transferReflectiveWriter;
+    private ObjectWriter balanceWriter;
+    private ObjectWriter balanceReflectiveWriter;
+    // Discards bytes and, unlike OutputStream.nullOutputStream(), survives the writer closing it
+    private final OutputStream sink = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+    private Account account;
+    private Transaction transaction;
+    private TransferDTO.TransferResponse transferResponse;
+    private AccountDTO.BalanceResponse balanceResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // mapToResponse only reaches the slot repository for hot accounts
+        accountService = new AccountService(null, null, new HotAccountService(null, null), null, null,
+            new AccountMetrics(new SimpleMeterRegistry()), null, null, Optional.empty(), Optional.empty());
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ObjectMapper reflectiveMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(MapperFeature.USE_ANNOTATIONS)
+            .build();
+        transferWriter = objectMapper.writerFor(TransferDTO.TransferResponse.class);
+        transferReflectiveWriter = reflectiveMapper.writerFor(TransferDTO.TransferResponse.class);
+        balanceWriter = objectMapper.writerFor(AccountDTO.BalanceResponse.class);
+        balanceReflectiveWriter = reflectiveMapper.writerFor(AccountDTO.BalanceResponse.class);
+
+        account = new Account();
+        account.setId(42L);
+        account.setAccountNumber("1234-5678-9012");
+        account.setAccountHolderName("John Doe");
+        account.setBalance(Money.of(new BigDecimal("1000.00")));
+        account.setCurrency("USD");
+        account.setStatus(Account.AccountStatus.ACTIVE);
+        account.setCreatedAt(LocalDateTime.now());
+
+        transaction = new Transaction();
+        transaction.setTransactionId("TXN-1A2B3C4D");
+        transaction.setFromAccountNumber("1234-5678-9012");
+        transaction.setToAccountNumber("9876-5432-1098");
+        transaction.setAmount(new BigDecimal("250.00"));
+        transaction.setCurrency("USD");
+        transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+        transaction.setType(Transaction.TransactionType.TRANSFER);
+        transaction.setDescription("Rent payment");
+        transaction.setTimestamp(LocalDateTime.now());
+
+        transferResponse = TransferService.buildTransferResponse(transaction);
+        balanceResponse = new AccountDTO.BalanceResponse("1234-5678-9012", new BigDecimal("1000.00"), "USD");
+    }
+
+    @Benchmark
+    public AccountDTO.AccountResponse mapToResponse() {
+        return accountService.mapToResponse(account);
+    }
+
+    @Benchmark
+    public TransferDTO.TransferResponse buildTransferResponse() {
+        return TransferService.buildTransferResponse(transaction);
+    }
+
+    @Benchmark
+    public byte[] serializeTransferResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transferResponse);
+    }
+
+    @Benchmark
+    public void writeTransferResponse() throws IOException {
+        transferWriter.writeValue(sink, transferResponse);
+    }
+
+    @Benchmark
+    public void writeTransferResponseReflective() throws IOException {
+        transferReflectiveWriter.writeValue(sink, transferResponse);
+    }
+
+    @Benchmark
+    public void writeBalanceResponse() throws IOException {
+        balanceWriter.writeValue(sink, balanceResponse);
+    }
+
+    @Benchmark
+    public void writeBalanceResponseReflective() throws IOException {
+        balanceReflectiveWriter.writeValue(sink, balanceResponse);
+    }
+}
@@ -0,0 +1,86 @@
+package com.banking.api.service;
+
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.TransactionBatchWriter;
+import com.banking.api.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction row inserts per second, 500 rows per database transaction.
+ *
+ * batchSize=1 is the statement pattern Transaction had with IDENTITY ids: one
+ * INSERT round trip per row. batchSize=50 is the default now that ids come
+ * from a pooled sequence. jdbcBatchInserts is TransactionBatchWriter, which
+ * skips the entity manager altogether, for reference.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionInsertBenchmark {
+
+    private static final int ROWS = 500;
+
+    @Param({"1", "50"})
+    int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository transactionRepository;
+    private TransactionBatchWriter transactionBatchWriter;
+    private TransactionTemplate transactionTemplate;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start("insertbench" + batchSize,
+            "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        transactionBatchWriter = context.getBean(TransactionBatchWriter.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void entityInserts() {
+        List<Transaction> rows = rows();
+        transactionTemplate.executeWithoutResult(status -> transactionRepository.saveAll(rows));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void jdbcBatchInserts() {
+        List<Transaction> rows = rows();
+        transactionTemplate.executeWithoutResult(status -> transactionBatchWriter.insertAll(rows));
+    }
+
+    private List<Transaction> rows() {
+        List<Transaction> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Transaction transaction = new Transaction();
+            transaction.setTransactionId("TXN-" + Long.toHexString(sequence++).toUpperCase());
+            transaction.setFromAccountNumber("1000-0000-0008");
+            transaction.setToAccountNumber("1000-0000-0016");
+            transaction.setAmount(new BigDecimal("12.34"));
+            transaction.setCurrency("USD");
+            transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+            transaction.setType(Transaction.TransactionType.TRANSFER);
+            rows.add(transaction);
+        }
+        return rows;
+    }
+}
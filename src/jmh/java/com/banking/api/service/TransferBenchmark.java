@@ -0,0 +1,109 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransferService.executeTransfer against H2.
+ * contended: every thread moves money between the same pair of accounts, so
+ * each transfer waits on the previous one's row locks.
+ * uncontended: each thread owns its own pair, so only the database is shared.
+ *
+ * Transfers rejected by the database (H2 reports SERIALIZABLE conflicts as
+ * deadlocks) are counted in the failed secondary result rather than aborting
+ * the run, so the score is attempts per second and failed/succeeded shows how
+ * much of that was useful work.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TransferBenchmark {
+
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000000000000.00");
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @State(Scope.Benchmark)
+    public static class Application {
+        ConfigurableApplicationContext context;
+        TransferEngine transferEngine;
+        AccountService accountService;
+        String sharedFrom;
+        String sharedTo;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = BenchmarkApplication.start("transferbench");
+            transferEngine = context.getBean(TransferEngine.class);
+            accountService = context.getBean(AccountService.class);
+            sharedFrom = openAccount();
+            sharedTo = openAccount();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+
+        String openAccount() {
+            return accountService.createAccount(
+                new AccountDTO.CreateAccountRequest("Benchmark Holder", OPENING_BALANCE, "USD")
+            ).getAccountNumber();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OwnPair {
+        String from;
+        String to;
+
+        @Setup(Level.Trial)
+        public void open(Application application) {
+            from = application.openAccount();
+            to = application.openAccount();
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long succeeded;
+        public long failed;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            succeeded = 0;
+            failed = 0;
+        }
+    }
+
+    @Benchmark
+    public TransferDTO.TransferResponse contended(Application application, Outcomes outcomes) {
+        return transfer(application, application.sharedFrom, application.sharedTo, outcomes);
+    }
+
+    @Benchmark
+    public TransferDTO.TransferResponse uncontended(Application application, OwnPair pair, Outcomes outcomes) {
+        return transfer(application, pair.from, pair.to, outcomes);
+    }
+
+    private static TransferDTO.TransferResponse transfer(Application application, String from, String to,
+                                                         Outcomes outcomes) {
+        try {
+            TransferDTO.TransferResponse response = application.transferEngine.executeTransfer(
+                new TransferDTO.TransferRequest(from, to, AMOUNT, "Benchmark"));
+            outcomes.succeeded++;
+            return response;
+        } catch (RuntimeException ex) {
+            outcomes.failed++;
+            return null;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.banking.api.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers successful username/password checks for a short TTL so HTTP Basic
+ * clients pay for BCrypt once per TTL rather than on every request.
+ *
+ * Entries are keyed by an HMAC-SHA256 of the username and password under a key
+ * generated at startup, so the cache never holds a password or anything that
+ * can be checked against one offline. Failed checks are not cached and always
+ * reach the delegate at full cost. A changed password takes effect at once for
+ * the new password; the old one keeps working until its entry expires.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final SecretKeySpec key;
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, MeterRegistry registry,
+                                         long ttlMs, int maxEntries) {
+        this.delegate = delegate;
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.maxEntries = maxEntries;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+        this.hits = Counter.builder("banking.auth.cache")
+            .description("Credential checks by cache outcome")
+            .tag("result", "hit")
+            .register(registry);
+        this.misses = Counter.builder("banking.auth.cache")
+            .description("Credential checks by cache outcome")
+            .tag("result", "miss")
+            .register(registry);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (ttlNanos <= 0 || !(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+        String cacheKey = digest(authentication.getName(), password);
+        long now = System.nanoTime();
+        Entry cached = cache.get(cacheKey);
+        if (cached != null && now - cached.expiresAt() < 0) {
+            hits.increment();
+            // A fresh token per request; the cached one is never handed out
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                cached.principal(), null, cached.authorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        misses.increment();
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            // The TTL runs from the end of the check; BCrypt alone can take a good part of it
+            long checked = System.nanoTime();
+            if (cache.size() >= maxEntries) {
+                evictExpired(checked);
+            }
+            if (cache.size() < maxEntries) {
+                cache.put(cacheKey, new Entry(result.getPrincipal(), List.copyOf(result.getAuthorities()),
+                    checked + ttlNanos));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    private void evictExpired(long now) {
+        cache.values().removeIf(entry -> now - entry.expiresAt() >= 0);
+    }
+
+    private String digest(String username, String password) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            mac.update(username.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 unavailable", ex);
+        }
+    }
+
+    private record Entry(Object principal, Collection<? extends GrantedAuthority> authorities, long expiresAt) {
+    }
+}
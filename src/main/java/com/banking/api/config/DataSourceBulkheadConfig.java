@@ -0,0 +1,49 @@
+package com.banking.api.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a BulkheadDataSource.
+ * On by default whenever spring.threads.virtual.enabled is (see application.properties).
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.datasource.bulkhead.enabled", havingValue = "true")
+public class DataSourceBulkheadConfig {
+    
+    @Bean
+    public static BeanPostProcessor dataSourceBulkheadPostProcessor(
+            @Value("${banking.datasource.bulkhead.max-concurrent:10}") int maxConcurrent,
+            @Value("${banking.datasource.bulkhead.acquire-timeout-ms:5000}") long acquireTimeoutMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(dataSource, maxConcurrent, acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+    
+    @Bean
+    public MeterBinder dataSourceBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof BulkheadDataSource bulkhead) {
+                Gauge.builder("banking.datasource.bulkhead.available", bulkhead, BulkheadDataSource::availablePermits)
+                    .description("Connection permits not currently held")
+                    .register(registry);
+                Gauge.builder("banking.datasource.bulkhead.waiting", bulkhead, BulkheadDataSource::waitingThreads)
+                    .description("Threads queued for a connection permit")
+                    .register(registry);
+            }
+        };
+    }
+}
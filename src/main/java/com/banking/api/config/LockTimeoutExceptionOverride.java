@@ -0,0 +1,25 @@
+package com.banking.api.config;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+
+import java.sql.SQLException;
+
+/**
+ * Keeps a connection in the pool after a row lock wait times out.
+ *
+ * Hikari treats every SQLTimeoutException as a broken connection and closes
+ * it, which H2 also raises when a statement waits too long for a row lock.
+ * The connection is healthy, but closing it makes the rollback that follows
+ * fail, so the caller sees that failure instead of the lock conflict.
+ */
+public class LockTimeoutExceptionOverride implements SQLExceptionOverride {
+    
+    // H2's LOCK_TIMEOUT_1
+    private static final int H2_LOCK_TIMEOUT = 50200;
+    
+    // Qualified because the interface's Override enum shadows the annotation here
+    @java.lang.Override
+    public Override adjudicate(SQLException ex) {
+        return ex.getErrorCode() == H2_LOCK_TIMEOUT ? Override.DO_NOT_EVICT : Override.CONTINUE_EVICT;
+    }
+}
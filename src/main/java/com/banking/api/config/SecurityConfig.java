@@ -1,7 +1,11 @@
 package com.banking.api.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.User;
@@ -24,12 +28,16 @@ public class SecurityConfig {
     }
     
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   CachingAuthenticationProvider authenticationProvider) throws Exception {
         http
+            // No parent manager, so a rejected password is hashed once, not twice
+            .authenticationManager(new ProviderManager(authenticationProvider))
             .cors(cors -> cors.configurationSource(corsConfigurationSource))
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api-docs/**", "/swagger-ui/**", "/swagger-ui.html", "/h2-console/**").permitAll()
+                .requestMatchers("/api/v1/health").permitAll()
                 .anyRequest().authenticated()
             )
             .httpBasic(httpBasic -> {})
@@ -38,6 +46,20 @@ public class SecurityConfig {
         return http.build();
     }
     
+    /**
+     * BCrypt checks for HTTP Basic, with successful checks cached for a short TTL (0 disables the cache)
+     */
+    @Bean
+    public CachingAuthenticationProvider cachingAuthenticationProvider(
+            UserDetailsService userDetailsService,
+            MeterRegistry meterRegistry,
+            @Value("${banking.security.credential-cache.ttl-ms:60000}") long ttlMs,
+            @Value("${banking.security.credential-cache.max-entries:10000}") int maxEntries) {
+        DaoAuthenticationProvider delegate = new DaoAuthenticationProvider(passwordEncoder());
+        delegate.setUserDetailsService(userDetailsService);
+        return new CachingAuthenticationProvider(delegate, meterRegistry, ttlMs, maxEntries);
+    }
+    
     @Bean
     public UserDetailsService userDetailsService() {
         UserDetails user = User.builder()
@@ -1,13 +1,21 @@
 package com.banking.api.controller;
 
 import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
 import com.banking.api.service.AccountService;
+import com.banking.api.service.TransactionHistoryService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -15,7 +23,11 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AccountController {
     
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+    
     private final AccountService accountService;
+    private final TransactionHistoryService transactionHistoryService;
     
     /**
      * Create a new bank account
@@ -27,6 +39,16 @@ public class AccountController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
+    /**
+     * Create a batch of accounts (up to 1000) in one transaction
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<AccountDTO.AccountResponse>> createAccounts(
+            @Valid @RequestBody AccountDTO.BulkCreateAccountsRequest request) {
+        List<AccountDTO.AccountResponse> response = accountService.createAccounts(request.getAccounts());
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
     /**
      * Get account details by account number
      */
@@ -48,11 +70,69 @@ public class AccountController {
     }
     
     /**
-     * List all accounts
+     * Get the balances of up to 1000 accounts in one request
+     * Unknown account numbers come back with found=false instead of failing the request
+     */
+    @PostMapping("/balances")
+    public ResponseEntity<AccountDTO.BulkBalanceResponse> getBalances(
+            @Valid @RequestBody AccountDTO.BulkBalanceRequest request) {
+        AccountDTO.BulkBalanceResponse response = accountService.getBalances(request.getAccountNumbers());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Get an account's transactions, newest first, optionally within [from, to)
+     * Pass the returned nextCursor back as cursor to read the following page
+     */
+    @GetMapping("/{accountNumber}/transactions")
+    public ResponseEntity<TransferDTO.TransactionHistoryResponse> getTransactionHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        TransferDTO.TransactionHistoryResponse response =
+            transactionHistoryService.getHistory(accountNumber, from, to, cursor, pageSize);
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * List accounts one keyset page at a time
+     * A full page carries a Link header (rel="next") pointing at the following page
      */
     @GetMapping
-    public ResponseEntity<List<AccountDTO.AccountResponse>> getAllAccounts() {
-        List<AccountDTO.AccountResponse> accounts = accountService.getAllAccounts();
-        return ResponseEntity.ok(accounts);
+    public ResponseEntity<List<AccountDTO.AccountResponse>> getAllAccounts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<AccountDTO.AccountResponse> accounts = accountService.getAllAccounts(after, pageSize);
+        
+        if (accounts.size() < pageSize) {
+            return ResponseEntity.ok(accounts);
+        }
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+            .replaceQueryParam("after", accounts.get(accounts.size() - 1).getId())
+            .replaceQueryParam("limit", pageSize)
+            .toUriString();
+        return ResponseEntity.ok()
+            .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+            .body(accounts);
+    }
+    
+    /**
+     * Export every account as JSON or CSV, streamed straight from the database
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAccounts(
+            @RequestParam(defaultValue = "JSON") AccountDTO.ExportFormat format) {
+        MediaType contentType = format == AccountDTO.ExportFormat.CSV
+            ? MediaType.parseMediaType("text/csv")
+            : MediaType.APPLICATION_JSON;
+        return ResponseEntity.ok()
+            .contentType(contentType)
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"accounts." + format.name().toLowerCase() + "\"")
+            .body(output -> accountService.exportAccounts(format, output));
     }
 }
@@ -0,0 +1,47 @@
+package com.banking.api.controller;
+
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.service.AsyncTransferService;
+import com.banking.api.service.TransferWebhookNotifier;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/transfers/async")
+@ConditionalOnProperty(name = "banking.transfer.engine", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+public class AsyncTransferController {
+    
+    private final AsyncTransferService asyncTransferService;
+    private final TransferWebhookNotifier webhookNotifier;
+    
+    /**
+     * Accept a transfer for background execution
+     * Returns 202 with the PENDING transaction; poll GET /api/v1/transfers/{transactionId}
+     * or pass X-Callback-Url to have the final result delivered to the webhook inbox
+     */
+    @PostMapping
+    public ResponseEntity<TransferDTO.TransferResponse> submitTransfer(
+            @Valid @RequestBody TransferDTO.TransferRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "X-Callback-Url", required = false) String callbackUrl) {
+        TransferDTO.TransferResponse response = asyncTransferService.submit(request, idempotencyKey, callbackUrl);
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/v1/transfers/" + response.getTransactionId()))
+            .body(response);
+    }
+    
+    /**
+     * Webhook deliveries made to a callback URL (local stand-in for the receiving endpoint)
+     */
+    @GetMapping("/callbacks")
+    public ResponseEntity<List<TransferDTO.WebhookDelivery>> getCallbacks(@RequestParam String callbackUrl) {
+        return ResponseEntity.ok(webhookNotifier.deliveriesTo(callbackUrl));
+    }
+}
@@ -0,0 +1,80 @@
+package com.banking.api.controller;
+
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.TransferConflictException;
+import com.banking.api.service.BatchTransferService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Batch transfers update balance columns directly, so they are only mapped for
+ * the engines that keep balances there (database and lanes)
+ */
+@RestController
+@RequestMapping("/api/v1/transfers/batch")
+@ConditionalOnExpression(BatchTransferService.SUPPORTED_ENGINES)
+@RequiredArgsConstructor
+public class BatchTransferController {
+    
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    
+    private final BatchTransferService batchTransferService;
+    private final ObjectMapper objectMapper;
+    
+    /**
+     * Execute a batch of transfers supplied as a JSON array
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TransferDTO.BatchTransferResponse> executeBatch(
+            @RequestBody List<TransferDTO.TransferRequest> requests,
+            @RequestParam(defaultValue = "ALL_OR_NOTHING") TransferDTO.BatchMode mode) {
+        return toBatchResponse(execute(() -> batchTransferService.executeBatch(requests, mode)));
+    }
+    
+    /**
+     * Execute a batch of transfers streamed as newline-delimited JSON, without reading the whole body first
+     */
+    @PostMapping(consumes = APPLICATION_NDJSON)
+    public ResponseEntity<TransferDTO.BatchTransferResponse> executeBatchStream(
+            InputStream body,
+            @RequestParam(defaultValue = "ALL_OR_NOTHING") TransferDTO.BatchMode mode) throws IOException {
+        // Lines are parsed as the service consumes them, one chunk at a time
+        try (MappingIterator<TransferDTO.TransferRequest> lines =
+                 objectMapper.readerFor(TransferDTO.TransferRequest.class).readValues(body)) {
+            return toBatchResponse(execute(() -> batchTransferService.executeBatch(lines, mode)));
+        }
+    }
+    
+    /**
+     * A streamed batch locks accounts chunk by chunk, so it can deadlock with a
+     * concurrent writer, and any batch can time out waiting for a lock. The
+     * database then aborted the whole transaction, so the batch is safe to retry.
+     */
+    private TransferDTO.BatchTransferResponse execute(Supplier<TransferDTO.BatchTransferResponse> batch) {
+        try {
+            return batch.get();
+        } catch (PessimisticLockingFailureException ex) {
+            throw new TransferConflictException("Batch was aborted by a lock conflict; nothing was applied, retry it");
+        }
+    }
+    
+    private ResponseEntity<TransferDTO.BatchTransferResponse> toBatchResponse(
+            TransferDTO.BatchTransferResponse response) {
+        // An all-or-nothing batch that was rejected is reported like any other failed transfer
+        HttpStatus status = response.getSucceeded() == 0 && response.getFailed() > 0
+            ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(response);
+    }
+}
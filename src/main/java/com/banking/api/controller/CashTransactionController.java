@@ -0,0 +1,42 @@
+package com.banking.api.controller;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.service.CashTransactionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/accounts/{accountNumber}")
+@ConditionalOnProperty(name = "banking.transfer.engine", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+public class CashTransactionController {
+    
+    private final CashTransactionService cashTransactionService;
+    
+    /**
+     * Deposit cash into an account
+     */
+    @PostMapping("/deposits")
+    public ResponseEntity<TransferDTO.TransferResponse> deposit(
+            @PathVariable String accountNumber,
+            @Valid @RequestBody AccountDTO.CashRequest request) {
+        TransferDTO.TransferResponse response = cashTransactionService.deposit(accountNumber, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    /**
+     * Withdraw cash from an account; fails without a change if the balance does not cover it
+     */
+    @PostMapping("/withdrawals")
+    public ResponseEntity<TransferDTO.TransferResponse> withdraw(
+            @PathVariable String accountNumber,
+            @Valid @RequestBody AccountDTO.CashRequest request) {
+        TransferDTO.TransferResponse response = cashTransactionService.withdraw(accountNumber, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+}
@@ -0,0 +1,39 @@
+package com.banking.api.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/health")
+@RequiredArgsConstructor
+public class HealthController {
+    
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+    
+    private final DataSource dataSource;
+    
+    /**
+     * Cheap liveness/readiness probe for container health checks
+     * Only validates a pooled connection; never touches account data
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, String>> health() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                return ResponseEntity.ok(Map.of("status", "UP"));
+            }
+        } catch (SQLException ex) {
+            // Reported as DOWN below
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("status", "DOWN"));
+    }
+}
@@ -0,0 +1,34 @@
+package com.banking.api.controller;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.service.AccountService;
+import com.banking.api.service.BatchTransferService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Hot-account slots are swept into the balance column, so, like batch transfers,
+ * they are only mapped for the database and lanes engines
+ */
+@RestController
+@RequestMapping("/api/v1/accounts/{accountNumber}")
+@ConditionalOnExpression(BatchTransferService.SUPPORTED_ENGINES)
+@RequiredArgsConstructor
+public class HotAccountController {
+    
+    private final AccountService accountService;
+    
+    /**
+     * Configure sub-ledger slots for a hot (merchant/settlement) account
+     */
+    @PutMapping("/slots")
+    public ResponseEntity<AccountDTO.AccountResponse> configureHotSlots(
+            @PathVariable String accountNumber,
+            @Valid @RequestBody AccountDTO.HotSlotsRequest request) {
+        AccountDTO.AccountResponse response = accountService.configureHotSlots(accountNumber, request.getSlots());
+        return ResponseEntity.ok(response);
+    }
+}
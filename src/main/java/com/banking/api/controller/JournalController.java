@@ -0,0 +1,29 @@
+package com.banking.api.controller;
+
+import com.banking.api.dto.JournalDTO;
+import com.banking.api.service.JournalBalanceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/journal")
+@ConditionalOnProperty(name = "banking.transfer.engine", havingValue = "event-sourced")
+@RequiredArgsConstructor
+public class JournalController {
+    
+    private static final int MAX_PARALLELISM = 64;
+    
+    private final JournalBalanceService journalBalanceService;
+    
+    /**
+     * Recompute every balance from the journal and replace all snapshots
+     * Reports how many existing snapshots disagreed with the replayed journal
+     */
+    @PostMapping("/rebuild")
+    public ResponseEntity<JournalDTO.RebuildResponse> rebuild(@RequestParam(defaultValue = "4") int parallelism) {
+        int threads = Math.max(1, Math.min(parallelism, MAX_PARALLELISM));
+        return ResponseEntity.ok(journalBalanceService.rebuild(threads));
+    }
+}
@@ -0,0 +1,47 @@
+package com.banking.api.controller;
+
+import com.banking.api.dto.ScheduledTransferDTO;
+import com.banking.api.service.ScheduledTransferService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/v1/transfers/scheduled")
+@ConditionalOnProperty(name = "banking.transfer.engine", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ScheduledTransferController {
+    
+    private final ScheduledTransferService scheduledTransferService;
+    
+    /**
+     * Schedule a one-off future-dated or recurring transfer (ONCE, DAILY, WEEKLY, MONTHLY or CRON)
+     */
+    @PostMapping
+    public ResponseEntity<ScheduledTransferDTO.ScheduledTransferResponse> createScheduledTransfer(
+            @Valid @RequestBody ScheduledTransferDTO.CreateRequest request) {
+        ScheduledTransferDTO.ScheduledTransferResponse response = scheduledTransferService.create(request);
+        return ResponseEntity.created(URI.create("/api/v1/transfers/scheduled/" + response.getId()))
+            .body(response);
+    }
+    
+    /**
+     * Get a schedule with its next run time and the outcome of its last run
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ScheduledTransferDTO.ScheduledTransferResponse> getScheduledTransfer(@PathVariable Long id) {
+        return ResponseEntity.ok(scheduledTransferService.get(id));
+    }
+    
+    /**
+     * Cancel a schedule; transfers it already made are not affected
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ScheduledTransferDTO.ScheduledTransferResponse> cancelScheduledTransfer(@PathVariable Long id) {
+        return ResponseEntity.ok(scheduledTransferService.cancel(id));
+    }
+}
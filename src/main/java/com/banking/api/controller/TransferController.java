@@ -1,7 +1,8 @@
 package com.banking.api.controller;
 
 import com.banking.api.dto.TransferDTO;
-import com.banking.api.service.TransferService;
+import com.banking.api.service.IdempotentTransferService;
+import com.banking.api.service.TransferEngine;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -13,15 +14,20 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class TransferController {
     
-    private final TransferService transferService;
+    private final TransferEngine transferService;
+    private final IdempotentTransferService idempotentTransferService;
     
     /**
      * Execute a fund transfer between accounts
+     * A repeated Idempotency-Key returns the original result instead of transferring again;
+     * X-Concurrency-Mode overrides the configured PESSIMISTIC/OPTIMISTIC default
      */
     @PostMapping
     public ResponseEntity<TransferDTO.TransferResponse> executeTransfer(
-            @Valid @RequestBody TransferDTO.TransferRequest request) {
-        TransferDTO.TransferResponse response = transferService.executeTransfer(request);
+            @Valid @RequestBody TransferDTO.TransferRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @RequestHeader(value = "X-Concurrency-Mode", required = false) TransferDTO.ConcurrencyMode mode) {
+        TransferDTO.TransferResponse response = idempotentTransferService.executeTransfer(request, idempotencyKey, mode);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
@@ -1,13 +1,20 @@
 package com.banking.api.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 public class AccountDTO {
     
@@ -25,6 +32,15 @@ public class AccountDTO {
         private String currency = "USD";
     }
     
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkCreateAccountsRequest {
+        @NotEmpty(message = "At least one account is required")
+        @Size(max = 1000, message = "At most 1000 accounts per request")
+        private List<@Valid CreateAccountRequest> accounts;
+    }
+    
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -41,9 +57,65 @@ public class AccountDTO {
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonSerialize(using = ResponseSerializers.BalanceResponseSerializer.class)
     public static class BalanceResponse {
         private String accountNumber;
         private BigDecimal balance;
         private String currency;
     }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CashRequest {
+        @NotNull(message = "Amount is required")
+        @Min(value = 1, message = "Amount must be greater than 0")
+        private BigDecimal amount;
+        
+        // Must match the account's currency; accounts default to USD
+        private String currency = "USD";
+        
+        private String description;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkBalanceRequest {
+        @NotEmpty(message = "At least one account number is required")
+        @Size(max = 1000, message = "At most 1000 account numbers per request")
+        private List<@NotBlank String> accountNumbers;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BalanceLookup {
+        private boolean found;
+        private BigDecimal balance;
+        private String currency;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkBalanceResponse {
+        private Map<String, BalanceLookup> balances;
+        private int found;
+        private int notFound;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class HotSlotsRequest {
+        @NotNull(message = "Slot count is required")
+        @Min(value = 0, message = "Slot count must be non-negative")
+        @Max(value = 64, message = "Slot count must be at most 64")
+        private Integer slots;
+    }
+    
+    public enum ExportFormat {
+        JSON, CSV
+    }
 }
@@ -0,0 +1,18 @@
+package com.banking.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+public class JournalDTO {
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RebuildResponse {
+        private int accounts;
+        private int corrected;
+        private int parallelism;
+        private long elapsedMs;
+    }
+}
@@ -0,0 +1,65 @@
+package com.banking.api.dto;
+
+import com.banking.api.model.ScheduledTransfer;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public class ScheduledTransferDTO {
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CreateRequest {
+        @NotBlank(message = "Source account number is required")
+        private String fromAccountNumber;
+        
+        @NotBlank(message = "Destination account number is required")
+        private String toAccountNumber;
+        
+        @NotNull(message = "Amount is required")
+        @Min(value = 1, message = "Transfer amount must be greater than 0")
+        private BigDecimal amount;
+        
+        private String description;
+        
+        @NotNull(message = "Frequency is required")
+        private ScheduledTransfer.Frequency frequency;
+        
+        // Required for CRON, e.g. "0 0 9 * * MON-FRI"
+        private String cronExpression;
+        
+        @NotNull(message = "Start time is required")
+        private LocalDateTime startAt;
+        
+        private LocalDateTime endAt;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ScheduledTransferResponse {
+        private Long id;
+        private String fromAccountNumber;
+        private String toAccountNumber;
+        private BigDecimal amount;
+        private String description;
+        private String frequency;
+        private String cronExpression;
+        private LocalDateTime startAt;
+        private LocalDateTime endAt;
+        private LocalDateTime nextRunAt;
+        private String status;
+        private int runCount;
+        private int failureCount;
+        private LocalDateTime lastRunAt;
+        private String lastTransactionId;
+        private String lastFailureReason;
+    }
+}
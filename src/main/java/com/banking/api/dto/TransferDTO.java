@@ -1,5 +1,6 @@
 package com.banking.api.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -8,6 +9,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 
 public class TransferDTO {
     
@@ -31,6 +34,7 @@ public class TransferDTO {
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonSerialize(using = ResponseSerializers.TransferResponseSerializer.class)
     public static class TransferResponse {
         private String transactionId;
         private String fromAccountNumber;
@@ -39,6 +43,56 @@ public class TransferDTO {
         private String currency;
         private String status;
         private String description;
-        private String timestamp;
+        private LocalDateTime timestamp;
+    }
+    
+    public enum BatchMode {
+        ALL_OR_NOTHING, BEST_EFFORT
+    }
+    
+    public enum ConcurrencyMode {
+        PESSIMISTIC, OPTIMISTIC
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchItemResult {
+        private int index;
+        private String transactionId;
+        private String fromAccountNumber;
+        private String toAccountNumber;
+        private BigDecimal amount;
+        private String status;
+        private String failureReason;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchTransferResponse {
+        private String mode;
+        private int total;
+        private int succeeded;
+        private int failed;
+        private List<BatchItemResult> results;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TransactionHistoryResponse {
+        private String accountNumber;
+        private List<TransferResponse> transactions;
+        private String nextCursor;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WebhookDelivery {
+        private String callbackUrl;
+        private TransferResponse payload;
+        private String deliveredAt;
     }
 }
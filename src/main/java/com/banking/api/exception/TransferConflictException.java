@@ -0,0 +1,5 @@
+package com.banking.api.exception;
+
+public class TransferConflictException extends BankingException {
+    public TransferConflictException(String message) { super(message); }
+}
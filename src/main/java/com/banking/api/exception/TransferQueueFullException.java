@@ -0,0 +1,5 @@
+package com.banking.api.exception;
+
+public class TransferQueueFullException extends BankingException {
+    public TransferQueueFullException(String message) { super(message); }
+}
@@ -1,13 +1,12 @@
 package com.banking.api.model;
 
 import jakarta.persistence.*;
-import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
@@ -17,8 +16,13 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class Account {
     
+    // Decimal places of the balance column; currencies with more are refused at account creation
+    public static final int BALANCE_SCALE = 2;
+    
+    // Sequence ids (fetched 50 at a time) rather than IDENTITY, so Hibernate can batch inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_id_seq")
+    @SequenceGenerator(name = "account_id_seq", sequenceName = "account_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -28,9 +32,10 @@ public class Account {
     @NotBlank(message = "Account holder name is required")
     private String accountHolderName;
     
-    @Column(nullable = false)
-    @Min(value = 0, message = "Balance cannot be negative")
-    private BigDecimal balance;
+    // Minor units in memory; a DECIMAL(18,2) column, so every balance fits in a long
+    @Column(nullable = false, precision = 18, scale = BALANCE_SCALE)
+    @Convert(converter = MoneyConverter.class)
+    private Money balance;
     
     @Column(nullable = false)
     private String currency = "USD";
@@ -45,9 +50,18 @@ public class Account {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     
+    // Number of sub-ledger slots for hot (merchant/settlement) accounts; 0 = regular account
+    @Column(nullable = false)
+    private int hotSlots = 0;
+    
     @Version
     private Long version; // Optimistic locking for concurrent transactions
     
+    @AssertTrue(message = "Balance cannot be negative")
+    protected boolean isBalanceNonNegative() {
+        return balance == null || balance.signum() >= 0;
+    }
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,24 @@
+package com.banking.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Counter row for account number serials: the next serial not yet handed to
+ * any allocator. Advanced a whole block at a time.
+ */
+@Entity
+@Table(name = "account_number_blocks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountNumberBlock {
+    
+    @Id
+    private String name;
+    
+    @Column(nullable = false)
+    private long nextSerial;
+}
@@ -0,0 +1,36 @@
+package com.banking.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One slot of a hot account's sub-ledger.
+ * Credits to a hot account land on a random slot row instead of the account
+ * row, so concurrent credits rarely contend; the account's true balance is its
+ * own balance plus the sum of its slots.
+ */
+@Entity
+@Table(name = "account_slots",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"accountNumber", "slot"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSlot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String accountNumber;
+    
+    @Column(nullable = false)
+    private int slot;
+    
+    @Column(nullable = false, precision = 18, scale = 2)
+    private BigDecimal balance;
+}
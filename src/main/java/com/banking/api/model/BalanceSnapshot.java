@@ -0,0 +1,33 @@
+package com.banking.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An account's balance as of a journal entry: the balance after applying every
+ * entry for the account with id <= lastEntryId. Replaced, never appended.
+ */
+@Entity
+@Table(name = "balance_snapshots")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSnapshot {
+    
+    @Id
+    private String accountNumber;
+    
+    @Column(nullable = false, precision = 18, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money balance;
+    
+    @Column(nullable = false)
+    private long lastEntryId;
+    
+    @Column(nullable = false)
+    private LocalDateTime takenAt;
+}
@@ -0,0 +1,41 @@
+package com.banking.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One leg of a transfer in the append-only journal: a signed amount against a
+ * single account (negative for the debit, positive for the credit).
+ * Rows are only ever inserted. An account's balance is its latest snapshot
+ * plus the entries after it, which (account_number, id) serves from the index.
+ */
+@Entity
+@Table(name = "journal_entries", indexes = {
+    @Index(name = "idx_journal_entries_account_id", columnList = "account_number, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JournalEntry {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String transactionId;
+    
+    @Column(nullable = false)
+    private String accountNumber;
+    
+    @Column(nullable = false, precision = 18, scale = 2)
+    @Convert(converter = MoneyConverter.class)
+    private Money amount;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,129 @@
+package com.banking.api.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * An amount of money as a long count of minor units at a fixed scale
+ * (12.34 USD is 1234 at scale 2).
+ *
+ * Arithmetic is exact and overflow-checked: every operation returns the exact
+ * result or throws ArithmeticException, and nothing is ever rounded. Amounts of
+ * different scales are brought to the larger scale first. Equality is by value
+ * and scale, like BigDecimal.equals, so use compareTo to compare amounts.
+ */
+public record Money(long minorUnits, int scale) implements Comparable<Money> {
+
+    public static final int MAX_SCALE = 18;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i <= MAX_SCALE; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    public Money {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + MAX_SCALE + ": " + scale);
+        }
+    }
+
+    public static Money zero(int scale) {
+        return new Money(0, scale);
+    }
+
+    /**
+     * Exact conversion at the amount's own scale
+     */
+    public static Money of(BigDecimal amount) {
+        return of(amount, Math.max(amount.scale(), 0));
+    }
+
+    /**
+     * Exact conversion at the scale of the currency's minor unit. Throws
+     * ArithmeticException if the amount has more decimals than the currency
+     * allows or does not fit in a long.
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        return of(amount, scaleOf(currency));
+    }
+
+    public static Money of(BigDecimal amount, int scale) {
+        return new Money(amount.setScale(scale, RoundingMode.UNNECESSARY).unscaledValue().longValueExact(), scale);
+    }
+
+    /**
+     * Decimal places of the currency's minor unit; 2 for codes the JDK does not know
+     */
+    public static int scaleOf(String currency) {
+        try {
+            return Math.max(Currency.getInstance(currency).getDefaultFractionDigits(), 0);
+        } catch (IllegalArgumentException | NullPointerException ex) {
+            return 2;
+        }
+    }
+
+    public Money plus(Money other) {
+        if (scale == other.scale) {
+            return new Money(Math.addExact(minorUnits, other.minorUnits), scale);
+        }
+        int common = Math.max(scale, other.scale);
+        return new Money(Math.addExact(withScale(common).minorUnits, other.withScale(common).minorUnits), common);
+    }
+
+    public Money minus(Money other) {
+        if (scale == other.scale) {
+            return new Money(Math.subtractExact(minorUnits, other.minorUnits), scale);
+        }
+        int common = Math.max(scale, other.scale);
+        return new Money(Math.subtractExact(withScale(common).minorUnits, other.withScale(common).minorUnits), common);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), scale);
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    /**
+     * The same amount at another scale. Throws ArithmeticException if that
+     * would overflow or drop non-zero digits.
+     */
+    public Money withScale(int newScale) {
+        if (newScale == scale) {
+            return this;
+        }
+        if (newScale > scale) {
+            return new Money(Math.multiplyExact(minorUnits, POWERS_OF_TEN[newScale - scale]), newScale);
+        }
+        long divisor = POWERS_OF_TEN[scale - newScale];
+        if (minorUnits % divisor != 0) {
+            throw new ArithmeticException("Rounding necessary to rescale " + this + " to scale " + newScale);
+        }
+        return new Money(minorUnits / divisor, newScale);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        if (scale == other.scale) {
+            return Long.compare(minorUnits, other.minorUnits);
+        }
+        // Rescaling the smaller scale up could overflow; BigDecimal cannot
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+}
@@ -0,0 +1,94 @@
+package com.banking.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A future-dated or recurring transfer. nextRunAt is the occurrence due next;
+ * each run executes the transfer and moves nextRunAt on in one transaction.
+ */
+@Entity
+@Table(name = "scheduled_transfers", indexes = {
+    // Due-time scan: the dispatcher reads ACTIVE rows in nextRunAt order up to now,
+    // so finished schedules and future occurrences are never visited
+    @Index(name = "idx_scheduled_transfers_due", columnList = "status, next_run_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduledTransfer {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scheduled_transfer_id_seq")
+    @SequenceGenerator(name = "scheduled_transfer_id_seq", sequenceName = "scheduled_transfer_id_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String fromAccountNumber;
+    
+    @Column(nullable = false)
+    private String toAccountNumber;
+    
+    @Column(nullable = false, precision = 18, scale = 2)
+    private BigDecimal amount;
+    
+    private String description;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Frequency frequency;
+    
+    // Only for CRON: six fields, seconds first (Spring CronExpression syntax)
+    private String cronExpression;
+    
+    // First occurrence; DAILY, WEEKLY and MONTHLY occurrences are counted from here
+    @Column(nullable = false)
+    private LocalDateTime startAt;
+    
+    // No occurrence after this time; null runs until cancelled
+    private LocalDateTime endAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime nextRunAt;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ScheduleStatus status;
+    
+    @Column(nullable = false)
+    private int runCount;
+    
+    @Column(nullable = false)
+    private int failureCount;
+    
+    // Attempts at the due occurrence that rolled back on an unexpected error; sets the retry backoff
+    @Column(nullable = false)
+    private int retryCount;
+    
+    private LocalDateTime lastRunAt;
+    
+    private String lastTransactionId;
+    
+    private String lastFailureReason;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+    
+    public enum Frequency {
+        ONCE, DAILY, WEEKLY, MONTHLY, CRON
+    }
+    
+    public enum ScheduleStatus {
+        ACTIVE, COMPLETED, CANCELLED
+    }
+}
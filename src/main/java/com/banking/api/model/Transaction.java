@@ -9,26 +9,39 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    // Account history is read newest-first per side; (account, timestamp, id) serves
+    // each side of the from/to lookup and its keyset cursor straight from the index
+    @Index(name = "idx_transactions_from_timestamp", columnList = "from_account_number, timestamp, id"),
+    @Index(name = "idx_transactions_to_timestamp", columnList = "to_account_number, timestamp, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
     
+    // Ids handed out per sequence call; TransactionBatchWriter allocates the same blocks
+    public static final int ID_BLOCK_SIZE = 50;
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_id_seq")
+    @SequenceGenerator(name = "transaction_id_seq", sequenceName = "transaction_id_seq", allocationSize = ID_BLOCK_SIZE)
     private Long id;
     
     @Column(unique = true, nullable = false)
     private String transactionId;
     
+    // Client-supplied Idempotency-Key; the unique index is the last line of defence against duplicates
+    @Column(unique = true)
+    private String idempotencyKey;
+    
     @Column(nullable = false)
     private String fromAccountNumber;
     
     @Column(nullable = false)
     private String toAccountNumber;
     
-    @Column(nullable = false)
+    @Column(nullable = false, precision = 18, scale = 2)
     private BigDecimal amount;
     
     @Column(nullable = false)
@@ -46,12 +59,19 @@ public class Transaction {
     
     private String failureReason;
     
+    // Async submissions only: where to deliver the result, kept so a restart can still deliver it
+    @Column(length = 2048)
+    private String callbackUrl;
+    
     @Column(nullable = false)
     private LocalDateTime timestamp;
     
     @PrePersist
     protected void onCreate() {
-        this.timestamp = LocalDateTime.now();
+        // Engines that journal transfers before persisting them keep their original timestamp
+        if (this.timestamp == null) {
+            this.timestamp = LocalDateTime.now();
+        }
     }
     
     public enum TransactionStatus {
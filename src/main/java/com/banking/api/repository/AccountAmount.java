@@ -0,0 +1,13 @@
+package com.banking.api.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * One amount per account, as returned by the grouped queries of bulk balance reads
+ */
+public interface AccountAmount {
+    
+    String getAccountNumber();
+    
+    BigDecimal getAmount();
+}
@@ -0,0 +1,15 @@
+package com.banking.api.repository;
+
+import com.banking.api.model.AccountNumberBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface AccountNumberBlockRepository extends JpaRepository<AccountNumberBlock, String> {
+    
+    // Reserve the next block; the row stays locked until the reserving transaction commits
+    @Modifying
+    @Query("UPDATE AccountNumberBlock b SET b.nextSerial = b.nextSerial + :size WHERE b.name = :name")
+    int advance(@Param("name") String name, @Param("size") long size);
+}
@@ -1,17 +1,114 @@
 package com.banking.api.repository;
 
 import com.banking.api.model.Account;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
     
     boolean existsByAccountNumber(String accountNumber);
     
-    // Pessimistic locking to prevent race conditions during transfers
+    List<Account> findByHotSlotsGreaterThan(int hotSlots);
+    
+    // Keyset page: seeks past the last id seen instead of counting an OFFSET
+    List<Account> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    // Cursor over every account for exports; rows are fetched from the driver in chunks
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT a FROM Account a ORDER BY a.id")
+    Stream<Account> streamAllByOrderById();
+    
+    // Lock a single account row (slot reconfiguration); transfers lock both sides at once below
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Account> findByAccountNumber(String accountNumber);
+    
+    // Lock a set of accounts in one statement; callers pass the numbers
+    // pre-sorted and chunked so row locks are always taken in ascending order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountNumber IN :accountNumbers ORDER BY a.accountNumber")
+    List<Account> findAllForUpdateByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+    
+    @Query("SELECT a.accountNumber FROM Account a ORDER BY a.accountNumber")
+    List<String> findAllAccountNumbers();
+    
+    // Plain snapshot read for balance/account lookups - takes no row lock,
+    // so dashboards polling balances never queue behind an in-flight transfer
+    @Query("SELECT a FROM Account a WHERE a.accountNumber = :accountNumber")
+    Optional<Account> findSnapshotByAccountNumber(@Param("accountNumber") String accountNumber);
+    
+    // Unlocked read of several accounts for bulk balance lookups; callers chunk the numbers
+    @Query("SELECT a FROM Account a WHERE a.accountNumber IN :accountNumbers")
+    List<Account> findSnapshotsByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+    
+    // Versioned snapshot of several accounts for optimistic transfers. A projection
+    // rather than entities, so a retry in the same persistence context sees fresh rows
+    @Query("SELECT a.accountNumber AS accountNumber, a.balance AS balance, a.currency AS currency, " +
+           "a.status AS status, a.hotSlots AS hotSlots, a.version AS version " +
+           "FROM Account a WHERE a.accountNumber IN :accountNumbers")
+    List<AccountVersion> findVersionsByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+    
+    // Apply both legs of a transfer in one statement. Each row is guarded so a
+    // debit can never take the source negative: callers expect exactly 2 rows
+    @Modifying
+    @Query(value = "UPDATE accounts SET " +
+                   "balance = balance + CASE WHEN account_number = :fromAccountNumber THEN :fromDelta ELSE :toDelta END, " +
+                   "version = version + 1, updated_at = :updatedAt " +
+                   "WHERE account_number IN (:fromAccountNumber, :toAccountNumber) " +
+                   "AND (account_number <> :fromAccountNumber OR balance + :fromDelta >= 0)", nativeQuery = true)
+    int applyTransfer(@Param("fromAccountNumber") String fromAccountNumber,
+                      @Param("fromDelta") BigDecimal fromDelta,
+                      @Param("toAccountNumber") String toAccountNumber,
+                      @Param("toDelta") BigDecimal toDelta,
+                      @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // Optimistic variant of applyTransfer: each row only matches at the version
+    // the caller read, so a concurrent writer leaves fewer than 2 rows updated
+    @Modifying
+    @Query(value = "UPDATE accounts SET " +
+                   "balance = balance + CASE WHEN account_number = :fromAccountNumber THEN :fromDelta ELSE :toDelta END, " +
+                   "version = version + 1, updated_at = :updatedAt " +
+                   "WHERE (account_number = :fromAccountNumber AND version = :fromVersion AND balance + :fromDelta >= 0) " +
+                   "OR (account_number = :toAccountNumber AND version = :toVersion)", nativeQuery = true)
+    int applyTransferIfUnchanged(@Param("fromAccountNumber") String fromAccountNumber,
+                                 @Param("fromDelta") BigDecimal fromDelta,
+                                 @Param("fromVersion") long fromVersion,
+                                 @Param("toAccountNumber") String toAccountNumber,
+                                 @Param("toDelta") BigDecimal toDelta,
+                                 @Param("toVersion") long toVersion,
+                                 @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // Single-account deposit or withdrawal in one statement. Guarded so it only applies to an
+    // active account in the given currency and never takes the balance negative: 0 rows means
+    // one of those checks failed (or the account does not exist)
+    @Modifying
+    @Query(value = "UPDATE accounts SET balance = balance + :delta, version = version + 1, " +
+                   "updated_at = :updatedAt WHERE account_number = :accountNumber AND status = 'ACTIVE' " +
+                   "AND currency = :currency AND balance + :delta >= 0", nativeQuery = true)
+    int applyCashDelta(@Param("accountNumber") String accountNumber,
+                       @Param("currency") String currency,
+                       @Param("delta") BigDecimal delta,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // Apply a signed balance delta in place without reading the row first
+    @Modifying
+    @Query(value = "UPDATE accounts SET balance = balance + :delta, version = version + 1, " +
+                   "updated_at = :updatedAt WHERE account_number = :accountNumber", nativeQuery = true)
+    int adjustBalance(@Param("accountNumber") String accountNumber,
+                      @Param("delta") BigDecimal delta,
+                      @Param("updatedAt") LocalDateTime updatedAt);
 }
@@ -0,0 +1,41 @@
+package com.banking.api.repository;
+
+import com.banking.api.model.AccountSlot;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface AccountSlotRepository extends JpaRepository<AccountSlot, Long> {
+    
+    // Credit a single slot in place; only that slot row is locked
+    @Modifying
+    @Query(value = "UPDATE account_slots SET balance = balance + :amount " +
+                   "WHERE account_number = :accountNumber AND slot = :slot", nativeQuery = true)
+    int credit(@Param("accountNumber") String accountNumber,
+               @Param("slot") int slot,
+               @Param("amount") BigDecimal amount);
+    
+    @Query("SELECT COALESCE(SUM(s.balance), 0) FROM AccountSlot s WHERE s.accountNumber = :accountNumber")
+    BigDecimal sumBalance(@Param("accountNumber") String accountNumber);
+    
+    // Slot totals of several accounts in one grouped query; accounts without slots are absent
+    @Query("SELECT s.accountNumber AS accountNumber, SUM(s.balance) AS amount FROM AccountSlot s " +
+           "WHERE s.accountNumber IN :accountNumbers GROUP BY s.accountNumber")
+    List<AccountAmount> sumBalanceByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+    
+    // Lock every slot of an account before folding them back into the account row
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM AccountSlot s WHERE s.accountNumber = :accountNumber ORDER BY s.slot")
+    List<AccountSlot> findAllForUpdate(@Param("accountNumber") String accountNumber);
+    
+    @Modifying
+    @Query("DELETE FROM AccountSlot s WHERE s.accountNumber = :accountNumber")
+    int deleteByAccountNumber(@Param("accountNumber") String accountNumber);
+}
@@ -0,0 +1,22 @@
+package com.banking.api.repository;
+
+import com.banking.api.model.Account;
+import com.banking.api.model.Money;
+
+/**
+ * Read-only view of the account columns an optimistic transfer checks and guards on
+ */
+public interface AccountVersion {
+    
+    String getAccountNumber();
+    
+    Money getBalance();
+    
+    String getCurrency();
+    
+    Account.AccountStatus getStatus();
+    
+    int getHotSlots();
+    
+    Long getVersion();
+}
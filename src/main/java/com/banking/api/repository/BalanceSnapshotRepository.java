@@ -0,0 +1,7 @@
+package com.banking.api.repository;
+
+import com.banking.api.model.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, String> {
+}
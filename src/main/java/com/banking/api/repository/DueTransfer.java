@@ -0,0 +1,11 @@
+package com.banking.api.repository;
+
+/**
+ * A scheduled transfer found by the due-time scan: enough to group it by source account
+ */
+public interface DueTransfer {
+    
+    Long getId();
+    
+    String getFromAccountNumber();
+}
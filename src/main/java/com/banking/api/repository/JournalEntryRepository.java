@@ -0,0 +1,41 @@
+package com.banking.api.repository;
+
+import com.banking.api.model.JournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+public interface JournalEntryRepository extends JpaRepository<JournalEntry, Long> {
+    
+    // Sum of an account's entries after a snapshot: an index range scan over the tail only
+    @Query(value = "SELECT COALESCE(SUM(amount), 0) FROM journal_entries " +
+                   "WHERE account_number = :accountNumber AND id > :afterId", nativeQuery = true)
+    BigDecimal sumAmountAfter(@Param("accountNumber") String accountNumber, @Param("afterId") long afterId);
+    
+    // Current balances of several accounts in one statement: each account's snapshot (or opening
+    // balance) plus its own tail, read together so a snapshot taken meanwhile cannot skew the sum
+    @Query(value = "SELECT a.account_number AS accountNumber, " +
+                   "COALESCE(s.balance, a.balance) + COALESCE(SUM(e.amount), 0) AS amount " +
+                   "FROM accounts a " +
+                   "LEFT JOIN balance_snapshots s ON s.account_number = a.account_number " +
+                   "LEFT JOIN journal_entries e ON e.account_number = a.account_number " +
+                   "AND e.id > COALESCE(s.last_entry_id, 0) " +
+                   "WHERE a.account_number IN (:accountNumbers) " +
+                   "GROUP BY a.account_number, s.balance, a.balance", nativeQuery = true)
+    List<AccountAmount> findBalancesByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+    
+    @Query(value = "SELECT COALESCE(MAX(id), 0) FROM journal_entries WHERE account_number = :accountNumber",
+           nativeQuery = true)
+    long findLastEntryId(@Param("accountNumber") String accountNumber);
+    
+    // Accounts whose unsnapshotted tail has grown to at least minTail entries
+    @Query(value = "SELECT e.account_number FROM journal_entries e " +
+                   "LEFT JOIN balance_snapshots s ON s.account_number = e.account_number " +
+                   "WHERE e.id > COALESCE(s.last_entry_id, 0) " +
+                   "GROUP BY e.account_number HAVING COUNT(*) >= :minTail", nativeQuery = true)
+    List<String> findAccountsWithTailAtLeast(@Param("minTail") long minTail);
+}
@@ -0,0 +1,42 @@
+package com.banking.api.repository;
+
+import com.banking.api.model.Money;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Appends the two legs of a transfer to the journal in one JDBC batch.
+ * Runs on the connection of the surrounding transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JournalEntryWriter {
+    
+    private static final String INSERT_SQL =
+        "INSERT INTO journal_entries (transaction_id, account_number, amount, created_at) VALUES (?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public void appendTransfer(String transactionId, String fromAccountNumber, String toAccountNumber,
+                               Money amount, LocalDateTime createdAt) {
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        jdbcTemplate.execute(INSERT_SQL, (PreparedStatement ps) -> {
+            ps.setString(1, transactionId);
+            ps.setString(2, fromAccountNumber);
+            ps.setBigDecimal(3, amount.negate().toBigDecimal());
+            ps.setTimestamp(4, timestamp);
+            ps.addBatch();
+            ps.setString(1, transactionId);
+            ps.setString(2, toAccountNumber);
+            ps.setBigDecimal(3, amount.toBigDecimal());
+            ps.setTimestamp(4, timestamp);
+            ps.addBatch();
+            return ps.executeBatch();
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.banking.api.repository;
+
+import com.banking.api.model.ScheduledTransfer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransfer, Long> {
+    
+    // Range scan over idx_scheduled_transfers_due: only rows already due are read
+    @Query("SELECT s.id AS id, s.fromAccountNumber AS fromAccountNumber FROM ScheduledTransfer s " +
+           "WHERE s.status = :status AND s.nextRunAt <= :now ORDER BY s.nextRunAt, s.id")
+    List<DueTransfer> findDue(@Param("status") ScheduledTransfer.ScheduleStatus status,
+                              @Param("now") LocalDateTime now,
+                              Limit limit);
+    
+    // Held for the whole run of an occurrence, so it is claimed by exactly one dispatcher
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ScheduledTransfer s WHERE s.id = :id")
+    Optional<ScheduledTransfer> findForUpdateById(@Param("id") Long id);
+}
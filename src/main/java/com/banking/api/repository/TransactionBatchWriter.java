@@ -0,0 +1,73 @@
+package com.banking.api.repository;
+
+import com.banking.api.model.Transaction;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes Transaction rows with JDBC batch inserts, skipping the entity
+ * manager entirely for bulk paths. Ids come from the same sequence Hibernate
+ * uses: with the pooled-lo optimizer each sequence value is the first of a
+ * block of Transaction.ID_BLOCK_SIZE ids, so one call covers that many rows.
+ * Runs on the connection of the surrounding transaction.
+ */
+@Repository
+public class TransactionBatchWriter {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL =
+        "INSERT INTO transactions (id, transaction_id, from_account_number, to_account_number, amount, " +
+        "currency, status, type, description, failure_reason, timestamp) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextIdBlockSql;
+
+    public TransactionBatchWriter(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        // The dialect knows this database's sequence syntax
+        this.nextIdBlockSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices()
+            .getDialect().getSequenceSupport().getSequenceNextValString("transaction_id_seq");
+    }
+
+    public void insertAll(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        assignIds(transactions);
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, transactions, BATCH_SIZE, (ps, transaction) -> {
+            ps.setLong(1, transaction.getId());
+            ps.setString(2, transaction.getTransactionId());
+            ps.setString(3, transaction.getFromAccountNumber());
+            ps.setString(4, transaction.getToAccountNumber());
+            ps.setBigDecimal(5, transaction.getAmount());
+            ps.setString(6, transaction.getCurrency());
+            ps.setString(7, transaction.getStatus().name());
+            ps.setString(8, transaction.getType().name());
+            ps.setString(9, transaction.getDescription());
+            ps.setString(10, transaction.getFailureReason());
+            ps.setTimestamp(11, Timestamp.valueOf(
+                transaction.getTimestamp() != null ? transaction.getTimestamp() : now));
+        });
+    }
+
+    private void assignIds(List<Transaction> transactions) {
+        long next = 0;
+        long blockEnd = 0;
+        for (Transaction transaction : transactions) {
+            if (next == blockEnd) {
+                next = jdbcTemplate.queryForObject(nextIdBlockSql, Long.class);
+                blockEnd = next + Transaction.ID_BLOCK_SIZE;
+            }
+            transaction.setId(next++);
+        }
+    }
+}
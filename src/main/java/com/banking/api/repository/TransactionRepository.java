@@ -1,9 +1,14 @@
 package com.banking.api.repository;
 
 import com.banking.api.model.Transaction;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,6 +17,38 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     
     Optional<Transaction> findByTransactionId(String transactionId);
     
-    List<Transaction> findByFromAccountNumberOrToAccountNumberOrderByTimestampDesc(
-        String fromAccountNumber, String toAccountNumber);
+    Optional<Transaction> findByIdempotencyKey(String idempotencyKey);
+    
+    // Which of these keys are already taken, checked in one query before a batch insert
+    @Query("SELECT t.idempotencyKey FROM Transaction t WHERE t.idempotencyKey IN :idempotencyKeys")
+    List<String> findIdempotencyKeysIn(@Param("idempotencyKeys") Collection<String> idempotencyKeys);
+    
+    Optional<Transaction> findFirstByStatusOrderByIdDesc(Transaction.TransactionStatus status);
+    
+    // Accepted async transfers still waiting for a worker, read a page at a time for startup recovery
+    List<Transaction> findByStatusAndIdBetweenOrderByIdAsc(Transaction.TransactionStatus status,
+                                                           Long fromId, Long toId, Limit limit);
+    
+    // Account history is split into one query per side instead of a single
+    // from = ? OR to = ? predicate, so each side seeks its own composite index.
+    // Rows come newest-first and strictly before the (timestamp, id) cursor.
+    @Query("SELECT t FROM Transaction t WHERE t.fromAccountNumber = :accountNumber " +
+           "AND t.timestamp >= :since " +
+           "AND (t.timestamp < :beforeTimestamp OR (t.timestamp = :beforeTimestamp AND t.id < :beforeId)) " +
+           "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findOutgoingPage(@Param("accountNumber") String accountNumber,
+                                       @Param("since") LocalDateTime since,
+                                       @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                       @Param("beforeId") Long beforeId,
+                                       Limit limit);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.toAccountNumber = :accountNumber " +
+           "AND t.timestamp >= :since " +
+           "AND (t.timestamp < :beforeTimestamp OR (t.timestamp = :beforeTimestamp AND t.id < :beforeId)) " +
+           "ORDER BY t.timestamp DESC, t.id DESC")
+    List<Transaction> findIncomingPage(@Param("accountNumber") String accountNumber,
+                                       @Param("since") LocalDateTime since,
+                                       @Param("beforeTimestamp") LocalDateTime beforeTimestamp,
+                                       @Param("beforeId") Long beforeId,
+                                       Limit limit);
 }
@@ -0,0 +1,122 @@
+package com.banking.api.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Single-threaded lanes that serialize all work on an account.
+ *
+ * Every account number hashes to one lane, and a lane runs one task at a time,
+ * so a task running on an account's lane owns that account exclusively. A task
+ * touching two accounts on different lanes runs on the lower-numbered lane and
+ * first hands a hold task to the higher one; the hold parks that lane until
+ * the task finishes. Lanes only ever wait on higher-numbered lanes, so the
+ * waits cannot form a cycle.
+ */
+class AccountLanes implements AutoCloseable {
+    
+    private final ExecutorService[] lanes;
+    
+    AccountLanes(int laneCount, String threadNamePrefix) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("Lane count must be positive");
+        }
+        this.lanes = new ExecutorService[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String name = threadNamePrefix + i;
+            lanes[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+    
+    int laneOf(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+    
+    /**
+     * Run a task with exclusive ownership of both accounts
+     */
+    <T> CompletableFuture<T> submit(String firstAccountNumber, String secondAccountNumber, Supplier<T> task) {
+        int first = laneOf(firstAccountNumber);
+        int second = laneOf(secondAccountNumber);
+        CompletableFuture<T> result = new CompletableFuture<>();
+        if (first == second) {
+            lanes[first].execute(() -> run(task, result));
+            return result;
+        }
+        ExecutorService owner = lanes[Math.min(first, second)];
+        ExecutorService handoff = lanes[Math.max(first, second)];
+        owner.execute(() -> {
+            CountDownLatch held = new CountDownLatch(1);
+            CountDownLatch released = new CountDownLatch(1);
+            try {
+                handoff.execute(() -> {
+                    held.countDown();
+                    awaitUninterruptibly(released);
+                });
+            } catch (RejectedExecutionException ex) {
+                // The other lane is shutting down
+                result.completeExceptionally(ex);
+                return;
+            }
+            try {
+                awaitUninterruptibly(held);
+                run(task, result);
+            } finally {
+                released.countDown();
+            }
+        });
+        return result;
+    }
+    
+    /**
+     * Stop accepting tasks and wait briefly for queued ones. An interrupt cuts
+     * the wait short and is passed on to the caller's thread.
+     */
+    @Override
+    public void close() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        try {
+            for (ExecutorService lane : lanes) {
+                lane.awaitTermination(5, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static <T> void run(Supplier<T> task, CompletableFuture<T> result) {
+        try {
+            result.complete(task.get());
+        } catch (Throwable ex) {
+            result.completeExceptionally(ex);
+        }
+    }
+    
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        // A lane must not give up ownership half way through a transfer
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
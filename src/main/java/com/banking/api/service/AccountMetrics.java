@@ -0,0 +1,40 @@
+package com.banking.api.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer timers for account operations, recorded from elapsed nanos like TransferMetrics
+ */
+@Component
+public class AccountMetrics {
+    
+    public enum Stage {
+        GENERATE_NUMBER, INSERT, READ, LIST
+    }
+    
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    
+    public AccountMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, Timer.builder("banking.account.stage")
+                .description("Time spent in each stage of an account operation")
+                .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1).dividedBy(100))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry));
+        }
+    }
+    
+    public void recordStage(Stage stage, long nanos) {
+        stageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
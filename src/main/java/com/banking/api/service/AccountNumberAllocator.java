@@ -0,0 +1,140 @@
+package com.banking.api.service;
+
+import com.banking.api.model.AccountNumberBlock;
+import com.banking.api.repository.AccountNumberBlockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out account numbers from blocks of serials reserved in the database.
+ *
+ * A reservation advances the counter row by a whole block in its own short
+ * transaction, so allocators on any number of nodes never share a serial and
+ * a number needs no existence check before it is used. Numbers are the
+ * 11-digit serial followed by a Luhn check digit, as XXXX-XXXX-XXXX. Serials
+ * left in a block at shutdown are skipped, never reused.
+ *
+ * Call it outside any transaction. A reservation needs a connection of its
+ * own while the lock is held, so callers that already hold one and queue on
+ * the lock can starve it of a connection.
+ */
+@Component
+@Slf4j
+public class AccountNumberAllocator {
+
+    private static final String COUNTER = "accounts";
+    // Numbers start at 1000-0000-000x
+    static final long FIRST_SERIAL = 10_000_000_000L;
+    static final long MAX_SERIAL = 99_999_999_999L;
+
+    private final AccountNumberBlockRepository blockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int blockSize;
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextSerial;
+    private long blockEnd;
+
+    public AccountNumberAllocator(AccountNumberBlockRepository blockRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${banking.accounts.number-block-size:1000}") int blockSize) {
+        this.blockRepository = blockRepository;
+        // Own transaction, so the counter row is only locked for the reservation itself
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    public String next() {
+        return allocate(1).get(0);
+    }
+
+    /**
+     * The next count account numbers, reserving as many blocks as that takes
+     */
+    public List<String> allocate(int count) {
+        List<String> numbers = new ArrayList<>(count);
+        lock.lock();
+        try {
+            while (numbers.size() < count) {
+                if (nextSerial == blockEnd) {
+                    reserve(Math.max(blockSize, count - numbers.size()));
+                }
+                numbers.add(format(nextSerial++));
+            }
+            return numbers;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void reserve(long size) {
+        long end;
+        try {
+            end = transactionTemplate.execute(status -> advance(size));
+        } catch (DataIntegrityViolationException ex) {
+            // Another node created the counter row first; it exists now
+            end = transactionTemplate.execute(status -> advance(size));
+        }
+        if (end - 1 > MAX_SERIAL) {
+            throw new IllegalStateException("Account number space is exhausted");
+        }
+        nextSerial = end - size;
+        blockEnd = end;
+        log.debug("Reserved account number serials {} to {}", nextSerial, end - 1);
+    }
+
+    /**
+     * Advance the counter by size and return the end (exclusive) of the reserved block
+     */
+    private long advance(long size) {
+        if (blockRepository.advance(COUNTER, size) == 0) {
+            blockRepository.saveAndFlush(new AccountNumberBlock(COUNTER, FIRST_SERIAL + size));
+            return FIRST_SERIAL + size;
+        }
+        return blockRepository.findById(COUNTER).orElseThrow().getNextSerial();
+    }
+
+    static String format(long serial) {
+        String digits = Long.toString(serial);
+        String number = digits + luhnCheckDigit(digits);
+        return number.substring(0, 4) + "-" + number.substring(4, 8) + "-" + number.substring(8);
+    }
+
+    /**
+     * The digit that makes digits + check pass the Luhn test
+     */
+    static int luhnCheckDigit(String digits) {
+        int sum = 0;
+        // The check digit is appended on the right, so the rightmost payload digit is doubled
+        boolean doubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    public static boolean isValid(String accountNumber) {
+        String digits = accountNumber.replace("-", "");
+        if (digits.length() != 12 || !digits.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        return luhnCheckDigit(digits.substring(0, 11)) == digits.charAt(11) - '0';
+    }
+}
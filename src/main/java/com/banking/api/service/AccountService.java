@@ -2,89 +2,346 @@ package com.banking.api.service;
 
 import com.banking.api.dto.AccountDTO;
 import com.banking.api.exception.AccountNotFoundException;
+import com.banking.api.exception.BankingException;
 import com.banking.api.exception.DuplicateAccountException;
 import com.banking.api.model.Account;
+import com.banking.api.model.Money;
 import com.banking.api.repository.AccountRepository;
+import com.banking.api.service.ledger.InMemoryLedgerTransferService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Random;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AccountService {
     
+    // Account numbers per IN query of a bulk balance lookup, and accounts per exported chunk
+    private static final int BALANCE_CHUNK_SIZE = 500;
+    
     private final AccountRepository accountRepository;
-    private final Random random = new Random();
+    private final AccountNumberAllocator accountNumberAllocator;
+    private final HotAccountService hotAccountService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final AccountMetrics accountMetrics;
+    private final BalanceCache balanceCache;
+    private final PlatformTransactionManager transactionManager;
+    private final Optional<JournalBalanceService> journalBalanceService;
+    private final Optional<InMemoryLedgerTransferService> inMemoryLedger;
     
-    @Transactional
+    /**
+     * The number is allocated before the insert's transaction opens: a block
+     * reservation takes a connection of its own, and doing that while holding
+     * one could leave every pooled connection with a caller queued on the allocator
+     */
     public AccountDTO.AccountResponse createAccount(AccountDTO.CreateAccountRequest request) {
-        // Generate unique account number
-        String accountNumber = generateAccountNumber();
+        // Numbers come from a reserved block, so they are unique without a lookup
+        long started = System.nanoTime();
+        String accountNumber = accountNumberAllocator.next();
+        accountMetrics.recordStage(AccountMetrics.Stage.GENERATE_NUMBER, System.nanoTime() - started);
+        
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Account account = newAccount(accountNumber, request);
+            
+            long insertStarted = System.nanoTime();
+            Account savedAccount = accountRepository.save(account);
+            accountMetrics.recordStage(AccountMetrics.Stage.INSERT, System.nanoTime() - insertStarted);
+            log.info("Created account: {} for {}", accountNumber, request.getAccountHolderName());
+            balanceCache.putAfterCommit(new AccountDTO.BalanceResponse(
+                accountNumber, savedAccount.getBalance().toBigDecimal(), savedAccount.getCurrency()));
+            
+            return mapToResponse(savedAccount);
+        });
+    }
+    
+    /**
+     * Create a batch of accounts in one transaction: one block reservation for
+     * all the numbers (made before the transaction opens, as in createAccount),
+     * and INSERTs sent as JDBC batches (sequence ids let Hibernate batch them).
+     * All accounts are created or none are.
+     */
+    public List<AccountDTO.AccountResponse> createAccounts(List<AccountDTO.CreateAccountRequest> requests) {
+        long started = System.nanoTime();
+        List<String> accountNumbers = accountNumberAllocator.allocate(requests.size());
+        accountMetrics.recordStage(AccountMetrics.Stage.GENERATE_NUMBER, System.nanoTime() - started);
         
-        // Ensure uniqueness
-        while (accountRepository.existsByAccountNumber(accountNumber)) {
-            accountNumber = generateAccountNumber();
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            List<Account> accounts = new ArrayList<>(requests.size());
+            for (int i = 0; i < requests.size(); i++) {
+                accounts.add(newAccount(accountNumbers.get(i), requests.get(i)));
+            }
+            
+            long insertStarted = System.nanoTime();
+            List<Account> savedAccounts = accountRepository.saveAll(accounts);
+            entityManager.flush();
+            accountMetrics.recordStage(AccountMetrics.Stage.INSERT, System.nanoTime() - insertStarted);
+            log.info("Created {} accounts in bulk", savedAccounts.size());
+            
+            List<AccountDTO.AccountResponse> responses = new ArrayList<>(savedAccounts.size());
+            for (Account account : savedAccounts) {
+                balanceCache.putAfterCommit(new AccountDTO.BalanceResponse(
+                    account.getAccountNumber(), account.getBalance().toBigDecimal(), account.getCurrency()));
+                responses.add(mapToResponse(account));
+            }
+            return responses;
+        });
+    }
+    
+    @Transactional(readOnly = true)
+    public AccountDTO.AccountResponse getAccount(String accountNumber) {
+        return mapToResponse(readAccount(accountNumber));
+    }
+    
+    /**
+     * Served from the balance cache; only a miss opens a (read-only) transaction.
+     * The in-memory engine answers from its ledger, which the cache would trail.
+     */
+    public AccountDTO.BalanceResponse getBalance(String accountNumber) {
+        if (inMemoryLedger.isPresent()) {
+            return inMemoryLedger.get().getBalance(accountNumber);
+        }
+        return balanceCache.get(accountNumber, this::loadBalance);
+    }
+    
+    private AccountDTO.BalanceResponse loadBalance(String accountNumber) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> {
+            Account account = readAccount(accountNumber);
+            
+            return new AccountDTO.BalanceResponse(
+                account.getAccountNumber(),
+                currentBalance(account).toBigDecimal(),
+                account.getCurrency()
+            );
+        });
+    }
+    
+    /**
+     * Balances of several accounts, read with unlocked IN queries in one
+     * read-only transaction. Each chunk costs a fixed number of queries: the
+     * accounts, then one grouped query for hot slots or journal tails. The map
+     * follows the request order without duplicates; unknown numbers are
+     * reported as not found, not as an error.
+     */
+    @Transactional(readOnly = true)
+    public AccountDTO.BulkBalanceResponse getBalances(List<String> accountNumbers) {
+        Map<String, AccountDTO.BalanceLookup> balances = new LinkedHashMap<>();
+        for (String accountNumber : accountNumbers) {
+            balances.putIfAbsent(accountNumber, new AccountDTO.BalanceLookup(false, null, null));
         }
         
+        long started = System.nanoTime();
+        List<String> distinct = new ArrayList<>(balances.keySet());
+        int found = 0;
+        for (int from = 0; from < distinct.size(); from += BALANCE_CHUNK_SIZE) {
+            List<String> chunk = distinct.subList(from, Math.min(from + BALANCE_CHUNK_SIZE, distinct.size()));
+            List<Account> accounts = accountRepository.findSnapshotsByAccountNumberIn(chunk);
+            Map<String, Money> current = currentBalances(accounts);
+            for (Account account : accounts) {
+                balances.put(account.getAccountNumber(), new AccountDTO.BalanceLookup(
+                    true, current.get(account.getAccountNumber()).toBigDecimal(), account.getCurrency()));
+                found++;
+            }
+        }
+        accountMetrics.recordStage(AccountMetrics.Stage.READ, System.nanoTime() - started);
+        return new AccountDTO.BulkBalanceResponse(balances, found, balances.size() - found);
+    }
+    
+    /**
+     * One keyset page of accounts ordered by id, starting after the given id.
+     * Balances are resolved for the whole page at once, not per row.
+     */
+    @Transactional(readOnly = true)
+    public List<AccountDTO.AccountResponse> getAllAccounts(Long afterId, int limit) {
+        long started = System.nanoTime();
+        List<Account> accounts = accountRepository.findByIdGreaterThanOrderByIdAsc(
+            afterId == null ? 0L : afterId, Limit.of(limit));
+        accountMetrics.recordStage(AccountMetrics.Stage.LIST, System.nanoTime() - started);
+        return mapToResponses(accounts);
+    }
+    
+    /**
+     * Stream every account to the output in bounded memory: rows come from a
+     * database cursor in chunks of BALANCE_CHUNK_SIZE, whose balances are
+     * resolved together, and are detached as soon as their chunk is mapped
+     */
+    @Transactional(readOnly = true)
+    public void exportAccounts(AccountDTO.ExportFormat format, OutputStream output) throws IOException {
+        try (Stream<Account> accounts = accountRepository.streamAllByOrderById()) {
+            if (format == AccountDTO.ExportFormat.CSV) {
+                writeCsv(accounts, output);
+            } else {
+                writeJson(accounts, output);
+            }
+        }
+    }
+    
+    private void writeJson(Stream<Account> accounts, OutputStream output) throws IOException {
+        // Let the generator's buffer decide when to flush instead of flushing per row
+        ObjectWriter writer = objectMapper.writerFor(AccountDTO.AccountResponse.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.writeStartArray();
+            Iterator<Account> it = accounts.iterator();
+            List<AccountDTO.AccountResponse> rows;
+            while (!(rows = nextChunk(it)).isEmpty()) {
+                for (AccountDTO.AccountResponse row : rows) {
+                    writer.writeValue(generator, row);
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+    
+    private void writeCsv(Stream<Account> accounts, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        writer.write("id,accountNumber,accountHolderName,balance,currency,status,createdAt\n");
+        Iterator<Account> it = accounts.iterator();
+        List<AccountDTO.AccountResponse> rows;
+        while (!(rows = nextChunk(it)).isEmpty()) {
+            for (AccountDTO.AccountResponse row : rows) {
+                writer.write(row.getId() + "," + row.getAccountNumber() + "," + csvField(row.getAccountHolderName())
+                    + "," + row.getBalance().toPlainString() + "," + row.getCurrency() + "," + row.getStatus()
+                    + "," + row.getCreatedAt() + "\n");
+            }
+        }
+        writer.flush();
+    }
+    
+    /**
+     * Map the next chunk of exported accounts and detach them; empty once the cursor is exhausted
+     */
+    private List<AccountDTO.AccountResponse> nextChunk(Iterator<Account> accounts) {
+        List<Account> chunk = new ArrayList<>(BALANCE_CHUNK_SIZE);
+        while (chunk.size() < BALANCE_CHUNK_SIZE && accounts.hasNext()) {
+            chunk.add(accounts.next());
+        }
+        List<AccountDTO.AccountResponse> rows = mapToResponses(chunk);
+        chunk.forEach(entityManager::detach);
+        return rows;
+    }
+    
+    private String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+    
+    /**
+     * Split a hot account into sub-ledger slots (0 turns the sub-ledger off)
+     */
+    public AccountDTO.AccountResponse configureHotSlots(String accountNumber, int slots) {
+        return mapToResponse(hotAccountService.configureSlots(accountNumber, slots));
+    }
+    
+    private Money initialBalance(AccountDTO.CreateAccountRequest request) {
+        int scale = Money.scaleOf(request.getCurrency());
+        if (scale > Account.BALANCE_SCALE) {
+            // The column would round amounts like 1.005 KWD instead of rejecting them
+            throw new BankingException("Currency " + request.getCurrency() + " has " + scale
+                + " decimal places; accounts support at most " + Account.BALANCE_SCALE);
+        }
+        try {
+            return Money.of(request.getInitialBalance(), request.getCurrency());
+        } catch (ArithmeticException ex) {
+            throw new BankingException("Initial balance " + request.getInitialBalance().toPlainString()
+                + " is not a valid " + request.getCurrency() + " amount");
+        }
+    }
+    
+    private Account newAccount(String accountNumber, AccountDTO.CreateAccountRequest request) {
         Account account = new Account();
         account.setAccountNumber(accountNumber);
         account.setAccountHolderName(request.getAccountHolderName());
-        account.setBalance(request.getInitialBalance());
+        account.setBalance(initialBalance(request));
         account.setCurrency(request.getCurrency());
         account.setStatus(Account.AccountStatus.ACTIVE);
-        
-        Account savedAccount = accountRepository.save(account);
-        log.info("Created account: {} for {}", accountNumber, request.getAccountHolderName());
-        
-        return mapToResponse(savedAccount);
+        return account;
     }
     
-    @Transactional(readOnly = true)
-    public AccountDTO.AccountResponse getAccount(String accountNumber) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-            .orElseThrow(() -> new AccountNotFoundException(accountNumber));
-        return mapToResponse(account);
+    private Account readAccount(String accountNumber) {
+        long started = System.nanoTime();
+        try {
+            return accountRepository.findSnapshotByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountNotFoundException(accountNumber));
+        } finally {
+            accountMetrics.recordStage(AccountMetrics.Stage.READ, System.nanoTime() - started);
+        }
     }
     
-    @Transactional(readOnly = true)
-    public AccountDTO.BalanceResponse getBalance(String accountNumber) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-            .orElseThrow(() -> new AccountNotFoundException(accountNumber));
-        
-        return new AccountDTO.BalanceResponse(
-            account.getAccountNumber(),
-            account.getBalance(),
-            account.getCurrency()
-        );
+    /**
+     * Under the event-sourced engine the balance column only holds the opening
+     * balance; the current balance is derived from the journal. Under the
+     * in-memory engine the column trails the ledger until the next flush.
+     */
+    private Money currentBalance(Account account) {
+        if (inMemoryLedger.isPresent()) {
+            return inMemoryLedger.get().balanceOf(account);
+        }
+        return journalBalanceService.isPresent()
+            ? journalBalanceService.get().balanceOf(account)
+            : hotAccountService.totalBalance(account);
     }
     
-    @Transactional(readOnly = true)
-    public List<AccountDTO.AccountResponse> getAllAccounts() {
-        return accountRepository.findAll().stream()
-            .map(this::mapToResponse)
+    private Map<String, Money> currentBalances(List<Account> accounts) {
+        if (inMemoryLedger.isPresent()) {
+            return inMemoryLedger.get().balancesOf(accounts);
+        }
+        if (journalBalanceService.isPresent()) {
+            return journalBalanceService.get().balancesOf(
+                accounts.stream().map(Account::getAccountNumber).collect(Collectors.toList()));
+        }
+        return hotAccountService.totalBalances(accounts);
+    }
+    
+    private List<AccountDTO.AccountResponse> mapToResponses(List<Account> accounts) {
+        if (accounts.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Money> balances = currentBalances(accounts);
+        return accounts.stream()
+            .map(account -> mapToResponse(account, balances.get(account.getAccountNumber())))
             .collect(Collectors.toList());
     }
     
-    private String generateAccountNumber() {
-        // Generate account number in format: XXXX-XXXX-XXXX
-        return String.format("%04d-%04d-%04d",
-            random.nextInt(10000),
-            random.nextInt(10000),
-            random.nextInt(10000));
+    AccountDTO.AccountResponse mapToResponse(Account account) {
+        return mapToResponse(account, currentBalance(account));
     }
     
-    private AccountDTO.AccountResponse mapToResponse(Account account) {
+    private AccountDTO.AccountResponse mapToResponse(Account account, Money balance) {
         return new AccountDTO.AccountResponse(
             account.getId(),
             account.getAccountNumber(),
             account.getAccountHolderName(),
-            account.getBalance(),
+            balance.toBigDecimal(),
             account.getCurrency(),
             account.getStatus().toString(),
             account.getCreatedAt().toString()
@@ -0,0 +1,303 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.BankingException;
+import com.banking.api.exception.InvalidTransferException;
+import com.banking.api.exception.TransferQueueFullException;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.TransactionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts transfers now and runs them in the background.
+ *
+ * A submission is validated, stored as a PENDING transaction and queued; the
+ * caller gets the transaction id straight away and polls its status (or names
+ * a callback URL). Work is partitioned by source account onto single-threaded
+ * workers with bounded queues, so transfers out of one account run in the
+ * order they were accepted while different accounts proceed in parallel.
+ * Each worker runs the transfer through TransferService, which moves the
+ * PENDING row to COMPLETED or FAILED in the same transaction as the balances.
+ *
+ * A transfer that loses a race with a concurrent writer is retried after a
+ * jittered backoff, as in OptimisticTransferService.
+ *
+ * Only available with the database engine. PENDING rows left behind by a
+ * restart are queued again, a page at a time, before the web server starts,
+ * so a new submission cannot overtake an older one out of the same account.
+ * They were already accepted, so recovery waits for room in a full queue
+ * instead of failing them, and delivers to the callback URL stored on the row.
+ */
+@Service
+@ConditionalOnProperty(name = "banking.transfer.engine", havingValue = "database", matchIfMissing = true)
+@Slf4j
+public class AsyncTransferService implements SmartLifecycle {
+    
+    private static final int RESUBMIT_PAGE_SIZE = 500;
+    // One below the phase in which Spring Boot starts the embedded web server
+    private static final int RECOVERY_PHASE = SmartLifecycle.DEFAULT_PHASE - 2048 - 1;
+    
+    private final TransactionRepository transactionRepository;
+    private final TransferService transferService;
+    private final TransferWebhookNotifier webhookNotifier;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor[] workers;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    private volatile boolean running;
+    
+    public AsyncTransferService(TransactionRepository transactionRepository,
+                                TransferService transferService,
+                                TransferWebhookNotifier webhookNotifier,
+                                PlatformTransactionManager transactionManager,
+                                MeterRegistry meterRegistry,
+                                @Value("${banking.transfer.async.partitions:8}") int partitions,
+                                @Value("${banking.transfer.async.queue-capacity:1000}") int queueCapacity,
+                                @Value("${banking.transfer.async.max-attempts:3}") int maxAttempts,
+                                @Value("${banking.transfer.async.backoff-base-ms:2}") long backoffBaseMs,
+                                @Value("${banking.transfer.async.backoff-max-ms:50}") long backoffMaxMs) {
+        this.transactionRepository = transactionRepository;
+        this.transferService = transferService;
+        this.webhookNotifier = webhookNotifier;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+        this.workers = new ThreadPoolExecutor[partitions];
+        for (int i = 0; i < partitions; i++) {
+            String name = "transfer-async-" + i;
+            workers[i] = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, name);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            // Recovery hands work straight to the queue, which does not start a worker by itself
+            workers[i].prestartCoreThread();
+        }
+        Gauge.builder("banking.transfer.async.queued", this, AsyncTransferService::queued)
+            .description("Accepted transfers waiting for an async worker")
+            .register(meterRegistry);
+    }
+    
+    @Override
+    public void start() {
+        resubmitPending();
+        running = true;
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    @Override
+    public int getPhase() {
+        return RECOVERY_PHASE;
+    }
+    
+    void resubmitPending() {
+        // Rows accepted after this point get later ids and are queued by submit() itself
+        Long lastId = transactionRepository.findFirstByStatusOrderByIdDesc(Transaction.TransactionStatus.PENDING)
+            .map(Transaction::getId)
+            .orElse(null);
+        if (lastId == null) {
+            return;
+        }
+        
+        int resubmitted = 0;
+        long fromId = Long.MIN_VALUE;
+        List<Transaction> page;
+        do {
+            page = transactionRepository.findByStatusAndIdBetweenOrderByIdAsc(Transaction.TransactionStatus.PENDING,
+                fromId, lastId, Limit.of(RESUBMIT_PAGE_SIZE));
+            for (Transaction transaction : page) {
+                if (!requeue(transaction)) {
+                    log.warn("Stopped resubmitting pending async transfers after {}: shutting down", resubmitted);
+                    return;
+                }
+                resubmitted++;
+            }
+            if (!page.isEmpty()) {
+                fromId = page.get(page.size() - 1).getId() + 1;
+            }
+        } while (page.size() == RESUBMIT_PAGE_SIZE);
+        log.info("Resubmitted {} pending async transfers", resubmitted);
+    }
+    
+    /**
+     * Queue an already accepted transfer, waiting for room rather than failing it
+     */
+    private boolean requeue(Transaction transaction) {
+        String transactionId = transaction.getTransactionId();
+        String callbackUrl = transaction.getCallbackUrl();
+        ThreadPoolExecutor worker = partitionFor(transaction.getFromAccountNumber());
+        try {
+            while (!worker.getQueue().offer(() -> process(transactionId, callbackUrl), 1, TimeUnit.SECONDS)) {
+                if (worker.isShutdown()) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        // Queued work is dropped; those rows stay PENDING and are resubmitted on the next start
+        for (ThreadPoolExecutor worker : workers) {
+            worker.shutdownNow();
+        }
+        for (ThreadPoolExecutor worker : workers) {
+            worker.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+    
+    /**
+     * Accept a transfer for background execution and return it as PENDING.
+     * A repeated Idempotency-Key returns the transaction it was first used for,
+     * in whatever state that transaction has reached.
+     */
+    public TransferDTO.TransferResponse submit(TransferDTO.TransferRequest request, String idempotencyKey,
+                                               String callbackUrl) {
+        TransferService.validateTransferRequest(request);
+        String key = idempotencyKey == null || idempotencyKey.isBlank() ? null : idempotencyKey;
+        
+        if (key != null) {
+            Transaction existing = transactionRepository.findByIdempotencyKey(key).orElse(null);
+            if (existing != null) {
+                return replay(existing, request);
+            }
+        }
+        
+        // The accounts are not read until the transfer runs, which fills in the source currency
+        Transaction pending = TransferService.buildTransaction(TransferService.generateTransactionId(), request,
+            TransferService.NO_CURRENCY, key, Transaction.TransactionStatus.PENDING, null);
+        pending.setCallbackUrl(callbackUrl);
+        try {
+            pending = transactionRepository.save(pending);
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent submission with the same key won the insert
+            return replay(transactionRepository.findByIdempotencyKey(key).orElseThrow(() -> ex), request);
+        }
+        
+        enqueue(pending.getTransactionId(), pending.getFromAccountNumber(), callbackUrl);
+        log.debug("Accepted async transfer {}", pending.getTransactionId());
+        return TransferService.buildTransferResponse(pending);
+    }
+    
+    private TransferDTO.TransferResponse replay(Transaction existing, TransferDTO.TransferRequest request) {
+        if (!existing.getFromAccountNumber().equals(request.getFromAccountNumber())
+                || !existing.getToAccountNumber().equals(request.getToAccountNumber())
+                || existing.getAmount().compareTo(request.getAmount()) != 0) {
+            throw new InvalidTransferException("Idempotency-Key was already used for a different transfer");
+        }
+        return TransferService.buildTransferResponse(existing);
+    }
+    
+    private void enqueue(String transactionId, String fromAccountNumber, String callbackUrl) {
+        try {
+            partitionFor(fromAccountNumber).execute(() -> process(transactionId, callbackUrl));
+        } catch (RejectedExecutionException ex) {
+            String reason = "Transfer queue is full, please retry";
+            markFailed(transactionId, reason, true);
+            throw new TransferQueueFullException(reason);
+        }
+    }
+    
+    private ThreadPoolExecutor partitionFor(String accountNumber) {
+        return workers[Math.floorMod(accountNumber.hashCode(), workers.length)];
+    }
+    
+    private void process(String transactionId, String callbackUrl) {
+        TransferDTO.TransferResponse result = null;
+        for (int attempt = 1; result == null; attempt++) {
+            try {
+                result = transferService.executePendingTransfer(transactionId);
+            } catch (BankingException ex) {
+                // The engine has already recorded the row as FAILED
+                result = transferService.getTransactionStatus(transactionId);
+            } catch (ConcurrencyFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    result = markFailed(transactionId, "Transfer could not be applied due to concurrent updates", false);
+                } else if (!backoff(attempt)) {
+                    // Shutting down; the row stays PENDING and is resubmitted on the next start
+                    return;
+                }
+            } catch (RuntimeException ex) {
+                log.error("Async transfer {} failed", transactionId, ex);
+                result = markFailed(transactionId, "Transfer failed: " + ex.getMessage(), false);
+            }
+        }
+        if (callbackUrl != null) {
+            webhookNotifier.deliver(callbackUrl, result);
+        }
+    }
+    
+    private boolean backoff(int attempt) {
+        // Full jitter: a random wait up to an exponentially growing cap, so
+        // transfers that collided once do not collide again in lockstep
+        long cap = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+        if (cap <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    /**
+     * Fail a transfer that never ran. Releasing the key lets a resubmission with
+     * the same Idempotency-Key be accepted again instead of replaying the failure.
+     */
+    private TransferDTO.TransferResponse markFailed(String transactionId, String reason, boolean releaseKey) {
+        return transactionTemplate.execute(status -> {
+            Transaction transaction = transactionRepository.findByTransactionId(transactionId).orElseThrow();
+            if (transaction.getStatus() == Transaction.TransactionStatus.PENDING) {
+                transaction.setStatus(Transaction.TransactionStatus.FAILED);
+                transaction.setFailureReason(reason);
+                if (releaseKey) {
+                    transaction.setIdempotencyKey(null);
+                }
+            }
+            return TransferService.buildTransferResponse(transaction);
+        });
+    }
+    
+    private double queued() {
+        return Arrays.stream(workers).mapToInt(worker -> worker.getQueue().size()).sum();
+    }
+}
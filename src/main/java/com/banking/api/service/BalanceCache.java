@@ -0,0 +1,170 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bounded LRU cache of balance responses, keyed by account number.
+ *
+ * Every code path that changes a balance evicts the accounts it touched once
+ * its transaction commits, so a rolled-back transfer never reaches the cache
+ * and a read that starts after a transfer returns sees its result. A read that
+ * overlaps a commit may load the old balance; each segment counts its evictions,
+ * and a loaded value is only stored if no eviction hit its segment while it was
+ * being read. The cache is split into segments, each an access-ordered map
+ * under its own lock, so readers of different accounts rarely contend.
+ */
+@Component
+public class BalanceCache {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final Counter hits;
+    private final Counter misses;
+
+    public BalanceCache(MeterRegistry registry,
+                        @Value("${banking.balance-cache.max-entries:10000}") int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("banking.balance-cache.max-entries must not be negative");
+        }
+        int segmentCapacity = (maxEntries + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        this.hits = Counter.builder("banking.balance.cache")
+            .description("Balance reads by cache outcome")
+            .tag("result", "hit")
+            .register(registry);
+        this.misses = Counter.builder("banking.balance.cache")
+            .description("Balance reads by cache outcome")
+            .tag("result", "miss")
+            .register(registry);
+        Gauge.builder("banking.balance.cache.size", this, BalanceCache::size)
+            .description("Balances currently cached")
+            .register(registry);
+    }
+
+    /**
+     * Return the cached balance, or load it and cache it if nothing invalidated
+     * the account while it was being loaded. Inside a caller's transaction the
+     * cache is bypassed, since the load may see that transaction's own writes.
+     */
+    public AccountDTO.BalanceResponse get(String accountNumber,
+                                          Function<String, AccountDTO.BalanceResponse> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            misses.increment();
+            return loader.apply(accountNumber);
+        }
+        Segment segment = segmentFor(accountNumber);
+        long stamp;
+        synchronized (segment) {
+            AccountDTO.BalanceResponse cached = segment.get(accountNumber);
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+            stamp = segment.invalidations;
+        }
+        misses.increment();
+        AccountDTO.BalanceResponse loaded = loader.apply(accountNumber);
+        putIfUnchanged(segment, accountNumber, loaded, stamp);
+        return loaded;
+    }
+
+    /**
+     * Cache a balance written by the current transaction once it commits
+     */
+    public void putAfterCommit(AccountDTO.BalanceResponse balance) {
+        Segment segment = segmentFor(balance.getAccountNumber());
+        long stamp;
+        synchronized (segment) {
+            stamp = segment.invalidations;
+        }
+        afterCommit(() -> putIfUnchanged(segment, balance.getAccountNumber(), balance, stamp));
+    }
+
+    /**
+     * Drop the accounts once the current transaction commits, or right away
+     * if there is none. Nothing happens if it rolls back.
+     */
+    public void evictAfterCommit(String... accountNumbers) {
+        evictAfterCommit(List.of(accountNumbers));
+    }
+
+    public void evictAfterCommit(Iterable<String> accountNumbers) {
+        afterCommit(() -> accountNumbers.forEach(this::evict));
+    }
+
+    public void evict(String accountNumber) {
+        Segment segment = segmentFor(accountNumber);
+        synchronized (segment) {
+            segment.invalidations++;
+            segment.remove(accountNumber);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    private void putIfUnchanged(Segment segment, String accountNumber, AccountDTO.BalanceResponse balance,
+                                long stamp) {
+        synchronized (segment) {
+            if (segment.invalidations == stamp && segment.capacity > 0) {
+                segment.put(accountNumber, balance);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Segment segmentFor(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static final class Segment extends LinkedHashMap<String, AccountDTO.BalanceResponse> {
+
+        private final int capacity;
+        private long invalidations;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AccountDTO.BalanceResponse> eldest) {
+            return size() > capacity;
+        }
+    }
+}
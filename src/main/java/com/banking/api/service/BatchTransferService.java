@@ -0,0 +1,356 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.InvalidTransferException;
+import com.banking.api.model.Account;
+import com.banking.api.model.Money;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.TransactionBatchWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+@Service
+@ConditionalOnExpression(BatchTransferService.SUPPORTED_ENGINES)
+@Slf4j
+public class BatchTransferService {
+
+    /**
+     * Engines that keep balances in the accounts table; the event-sourced and
+     * in-memory engines would be bypassed by the direct balance UPDATEs here
+     */
+    public static final String SUPPORTED_ENGINES = "'${banking.transfer.engine:database}' matches 'database|lanes'";
+
+    private static final int LOCK_CHUNK_SIZE = 500;
+
+    private static final String COMPLETED = Transaction.TransactionStatus.COMPLETED.toString();
+    private static final String FAILED = Transaction.TransactionStatus.FAILED.toString();
+    private static final String ROLLED_BACK = "ROLLED_BACK";
+
+    private final AccountRepository accountRepository;
+    private final TransactionBatchWriter transactionBatchWriter;
+    private final HotAccountService hotAccountService;
+    private final BalanceCache balanceCache;
+    private final Validator validator;
+    private final int maxBatchSize;
+
+    public BatchTransferService(AccountRepository accountRepository,
+                                TransactionBatchWriter transactionBatchWriter,
+                                HotAccountService hotAccountService,
+                                BalanceCache balanceCache,
+                                Validator validator,
+                                @Value("${banking.batch.max-size:50000}") int maxBatchSize) {
+        this.accountRepository = accountRepository;
+        this.transactionBatchWriter = transactionBatchWriter;
+        this.hotAccountService = hotAccountService;
+        this.balanceCache = balanceCache;
+        this.validator = validator;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Execute a batch of transfers in a single transaction (group commit)
+     * - Every account touched is locked exactly once, in ascending account number order
+     * - Legs are applied against in-memory working balances, so each account row
+     *   is updated once no matter how many transfers touch it
+     * - Transaction rows are written with JDBC batch inserts
+     * - ALL_OR_NOTHING writes nothing if any item fails; BEST_EFFORT commits the
+     *   items that succeed and reports the rest inline
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public TransferDTO.BatchTransferResponse executeBatch(List<TransferDTO.TransferRequest> requests,
+                                                          TransferDTO.BatchMode mode) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidTransferException("Batch must contain at least one transfer");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new InvalidTransferException("Batch exceeds the maximum of " + maxBatchSize + " transfers");
+        }
+
+        List<TransferDTO.BatchItemResult> results = new ArrayList<>(requests.size());
+        Map<String, Account> accounts = new HashMap<>();
+        Map<String, Money> balances = new HashMap<>();
+        List<Transaction> transactions = applyChunk(requests, accounts, balances, results);
+        int failures = results.size() - transactions.size();
+
+        if (mode == TransferDTO.BatchMode.ALL_OR_NOTHING && failures > 0) {
+            rollBack(results);
+            log.warn("Batch of {} transfers rejected: {} item(s) failed", requests.size(), failures);
+            return buildResponse(mode, results, 0, failures);
+        }
+
+        // Write each touched account once; dirty checking issues the UPDATEs at commit
+        balances.forEach((number, balance) -> accounts.get(number).setBalance(balance));
+        transactionBatchWriter.insertAll(transactions);
+        balanceCache.evictAfterCommit(balances.keySet());
+
+        log.info("Batch completed: {} of {} transfers applied across {} accounts",
+            transactions.size(), requests.size(), accounts.size());
+
+        return buildResponse(mode, results, transactions.size(), failures);
+    }
+
+    /**
+     * Execute a streamed batch in a single transaction, LOCK_CHUNK_SIZE transfers at a time
+     * - Only the current chunk's requests are held; its rows are inserted before the next
+     *   chunk is read, so memory grows with the accounts touched and the per-item results,
+     *   not with the request bodies
+     * - Accounts are locked in ascending order within each chunk, but a later chunk may lock
+     *   an account that sorts before one already held. A concurrent writer can therefore
+     *   deadlock with a streamed batch; the database aborts it, nothing is applied and the
+     *   controller reports a retryable conflict
+     * - ALL_OR_NOTHING stops inserting at the first failure and rolls back what earlier
+     *   chunks inserted; BEST_EFFORT commits the items that succeed
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public TransferDTO.BatchTransferResponse executeBatch(Iterator<TransferDTO.TransferRequest> requests,
+                                                          TransferDTO.BatchMode mode) {
+        List<TransferDTO.BatchItemResult> results = new ArrayList<>();
+        Map<String, Account> accounts = new HashMap<>();
+        Map<String, Money> balances = new HashMap<>();
+        List<TransferDTO.TransferRequest> chunk = new ArrayList<>(LOCK_CHUNK_SIZE);
+        int succeeded = 0;
+
+        while (requests.hasNext()) {
+            if (results.size() + chunk.size() == maxBatchSize) {
+                throw new InvalidTransferException("Batch exceeds the maximum of " + maxBatchSize + " transfers");
+            }
+            chunk.add(requests.next());
+            if (chunk.size() == LOCK_CHUNK_SIZE || !requests.hasNext()) {
+                List<Transaction> transactions = applyChunk(chunk, accounts, balances, results);
+                succeeded += transactions.size();
+                if (mode == TransferDTO.BatchMode.BEST_EFFORT || succeeded == results.size()) {
+                    transactionBatchWriter.insertAll(transactions);
+                }
+                chunk.clear();
+            }
+        }
+        if (results.isEmpty()) {
+            throw new InvalidTransferException("Batch must contain at least one transfer");
+        }
+
+        int failures = results.size() - succeeded;
+        if (mode == TransferDTO.BatchMode.ALL_OR_NOTHING && failures > 0) {
+            // Chunks before the first failure have already inserted their rows
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            rollBack(results);
+            log.warn("Streamed batch of {} transfers rejected: {} item(s) failed", results.size(), failures);
+            return buildResponse(mode, results, 0, failures);
+        }
+
+        balances.forEach((number, balance) -> accounts.get(number).setBalance(balance));
+        balanceCache.evictAfterCommit(balances.keySet());
+
+        log.info("Streamed batch completed: {} of {} transfers applied across {} accounts",
+            succeeded, results.size(), accounts.size());
+
+        return buildResponse(mode, results, succeeded, failures);
+    }
+
+    /**
+     * Validate, lock and apply one chunk against the working balances, appending a
+     * result per item; returns the transactions of the items that succeeded
+     */
+    private List<Transaction> applyChunk(List<TransferDTO.TransferRequest> requests, Map<String, Account> accounts,
+                                         Map<String, Money> balances, List<TransferDTO.BatchItemResult> results) {
+        int offset = results.size();
+        TransferDTO.BatchItemResult[] chunkResults = new TransferDTO.BatchItemResult[requests.size()];
+        Set<String> accountNumbers = new TreeSet<>();
+
+        // Validate every item up front so invalid ones never take locks
+        for (int i = 0; i < requests.size(); i++) {
+            TransferDTO.TransferRequest request = requests.get(i);
+            String reason = validateTransferRequest(request);
+            if (reason != null) {
+                chunkResults[i] = failed(offset + i, request, reason);
+                continue;
+            }
+            accountNumbers.add(request.getFromAccountNumber());
+            accountNumbers.add(request.getToAccountNumber());
+        }
+        accountNumbers.removeAll(accounts.keySet());
+        lockAccounts(accountNumbers, accounts, balances);
+
+        List<Transaction> transactions = new ArrayList<>();
+        // A 16 hex digit suffix makes a collision with an earlier chunk negligible, so only the chunk is checked
+        Set<String> transactionIds = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            if (chunkResults[i] != null) {
+                continue;
+            }
+            TransferDTO.TransferRequest request = requests.get(i);
+            Account fromAccount = accounts.get(request.getFromAccountNumber());
+            Money amount = fromAccount == null ? null : toMoney(request.getAmount(), fromAccount.getCurrency());
+            String reason = checkAccounts(request, amount, accounts, balances);
+            if (reason != null) {
+                chunkResults[i] = failed(offset + i, request, reason);
+                continue;
+            }
+
+            // Apply both legs to the working balances
+            balances.merge(request.getFromAccountNumber(), amount.negate(), Money::plus);
+            balances.merge(request.getToAccountNumber(), amount, Money::plus);
+
+            Transaction transaction = buildTransaction(nextTransactionId(transactionIds), request,
+                fromAccount.getCurrency());
+            transactions.add(transaction);
+            chunkResults[i] = new TransferDTO.BatchItemResult(offset + i, transaction.getTransactionId(),
+                request.getFromAccountNumber(), request.getToAccountNumber(), request.getAmount(),
+                COMPLETED, null);
+        }
+
+        results.addAll(Arrays.asList(chunkResults));
+        return transactions;
+    }
+
+    private void rollBack(List<TransferDTO.BatchItemResult> results) {
+        for (TransferDTO.BatchItemResult result : results) {
+            if (COMPLETED.equals(result.getStatus())) {
+                result.setStatus(ROLLED_BACK);
+                result.setTransactionId(null);
+            }
+        }
+    }
+
+    private String validateTransferRequest(TransferDTO.TransferRequest request) {
+        if (request == null) {
+            return "Transfer is required";
+        }
+        Set<ConstraintViolation<TransferDTO.TransferRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (request.getFromAccountNumber().equals(request.getToAccountNumber())) {
+            return "Cannot transfer to the same account";
+        }
+        if (request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            return "Transfer amount must be greater than zero";
+        }
+        return null;
+    }
+
+    private void lockAccounts(Set<String> sortedAccountNumbers, Map<String, Account> accounts,
+                              Map<String, Money> balances) {
+        List<String> chunk = new ArrayList<>(LOCK_CHUNK_SIZE);
+        for (String accountNumber : sortedAccountNumbers) {
+            chunk.add(accountNumber);
+            if (chunk.size() == LOCK_CHUNK_SIZE) {
+                lock(chunk, accounts, balances);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            lock(chunk, accounts, balances);
+        }
+    }
+
+    private void lock(List<String> accountNumbers, Map<String, Account> accounts, Map<String, Money> balances) {
+        for (Account account : accountRepository.findAllForUpdateByAccountNumberIn(accountNumbers)) {
+            // Rows are locked, so hot accounts can have their slots folded back in
+            if (account.getHotSlots() > 0) {
+                account.setBalance(account.getBalance().plus(hotAccountService.sweep(account.getAccountNumber())));
+            }
+            accounts.put(account.getAccountNumber(), account);
+            balances.put(account.getAccountNumber(), account.getBalance());
+        }
+    }
+
+    private String checkAccounts(TransferDTO.TransferRequest request, Money amount, Map<String, Account> accounts,
+                                 Map<String, Money> balances) {
+        Account fromAccount = accounts.get(request.getFromAccountNumber());
+        Account toAccount = accounts.get(request.getToAccountNumber());
+
+        if (fromAccount == null) {
+            return "Account not found: " + request.getFromAccountNumber();
+        }
+        if (toAccount == null) {
+            return "Account not found: " + request.getToAccountNumber();
+        }
+        if (fromAccount.getStatus() != Account.AccountStatus.ACTIVE) {
+            return "Account is not active: " + fromAccount.getAccountNumber();
+        }
+        if (toAccount.getStatus() != Account.AccountStatus.ACTIVE) {
+            return "Account is not active: " + toAccount.getAccountNumber();
+        }
+        if (amount == null) {
+            return "Transfer amount " + request.getAmount().toPlainString() + " is not a valid "
+                + fromAccount.getCurrency() + " amount";
+        }
+        if (balances.get(fromAccount.getAccountNumber()).compareTo(amount) < 0) {
+            return "Insufficient funds in account: " + fromAccount.getAccountNumber();
+        }
+        return null;
+    }
+
+    private Money toMoney(BigDecimal amount, String currency) {
+        try {
+            return Money.of(amount, currency);
+        } catch (ArithmeticException ex) {
+            return null;
+        }
+    }
+
+    private Transaction buildTransaction(String transactionId, TransferDTO.TransferRequest request, String currency) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(transactionId);
+        transaction.setFromAccountNumber(request.getFromAccountNumber());
+        transaction.setToAccountNumber(request.getToAccountNumber());
+        transaction.setAmount(request.getAmount());
+        transaction.setCurrency(currency);
+        transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+        transaction.setType(Transaction.TransactionType.TRANSFER);
+        transaction.setDescription(request.getDescription());
+        transaction.setTimestamp(LocalDateTime.now());
+        return transaction;
+    }
+
+    private String nextTransactionId(Set<String> issued) {
+        // Longer suffix than single transfers: a 50k batch would otherwise risk
+        // colliding with itself on the unique transaction_id column
+        String transactionId;
+        do {
+            transactionId = "TXN-" + UUID.randomUUID().toString().replace("-", "").substring(0, 16).toUpperCase();
+        } while (!issued.add(transactionId));
+        return transactionId;
+    }
+
+    private TransferDTO.BatchItemResult failed(int index, TransferDTO.TransferRequest request, String reason) {
+        return new TransferDTO.BatchItemResult(index, null,
+            request != null ? request.getFromAccountNumber() : null,
+            request != null ? request.getToAccountNumber() : null,
+            request != null ? request.getAmount() : null,
+            FAILED, reason);
+    }
+
+    private TransferDTO.BatchTransferResponse buildResponse(TransferDTO.BatchMode mode,
+                                                            List<TransferDTO.BatchItemResult> results,
+                                                            int succeeded, int failed) {
+        return new TransferDTO.BatchTransferResponse(
+            mode.toString(),
+            results.size(),
+            succeeded,
+            failed,
+            results
+        );
+    }
+}
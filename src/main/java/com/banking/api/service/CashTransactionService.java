@@ -0,0 +1,179 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.AccountNotFoundException;
+import com.banking.api.exception.BankingException;
+import com.banking.api.exception.InsufficientFundsException;
+import com.banking.api.exception.InvalidTransferException;
+import com.banking.api.model.Account;
+import com.banking.api.model.Money;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.TransactionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Deposits and withdrawals against a single account.
+ *
+ * Only one row changes, so there is no lock ordering to get right and no need
+ * for SERIALIZABLE: a successful call is one guarded UPDATE (the WHERE clause
+ * checks status, currency and that the balance stays non-negative) and one
+ * INSERT of the transaction row, under READ_COMMITTED. Concurrent withdrawals
+ * serialize on the row lock the UPDATE takes, and each re-evaluates the guard
+ * against the committed balance, so the account can never be overdrawn.
+ *
+ * When the UPDATE matches nothing the row is read once to report why, and a
+ * FAILED transaction row is committed as for transfers. The other side of a
+ * cash transaction is recorded as CASH rather than as an account.
+ *
+ * Only available with the database engine.
+ */
+@Service
+@ConditionalOnProperty(name = "banking.transfer.engine", havingValue = "database", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class CashTransactionService {
+
+    static final String CASH = "CASH";
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final HotAccountService hotAccountService;
+    private final BalanceCache balanceCache;
+    private final MeterRegistry meterRegistry;
+
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class,
+                   noRollbackFor = BankingException.class)
+    public TransferDTO.TransferResponse deposit(String accountNumber, AccountDTO.CashRequest request) {
+        return apply(accountNumber, request, Transaction.TransactionType.DEPOSIT);
+    }
+
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class,
+                   noRollbackFor = BankingException.class)
+    public TransferDTO.TransferResponse withdraw(String accountNumber, AccountDTO.CashRequest request) {
+        return apply(accountNumber, request, Transaction.TransactionType.WITHDRAWAL);
+    }
+
+    private TransferDTO.TransferResponse apply(String accountNumber, AccountDTO.CashRequest request,
+                                               Transaction.TransactionType type) {
+        String currency = request.getCurrency() != null ? request.getCurrency() : "USD";
+        Transaction transaction = buildTransaction(accountNumber, request, currency, type);
+
+        try {
+            if (request.getAmount().signum() <= 0) {
+                throw new InvalidTransferException("Amount must be greater than zero");
+            }
+            Money amount = TransferService.toMoney(request.getAmount(), currency);
+            LocalDateTime now = LocalDateTime.now();
+
+            if (type == Transaction.TransactionType.DEPOSIT) {
+                deposit(accountNumber, currency, amount, now);
+            } else {
+                withdraw(accountNumber, currency, amount, now);
+            }
+            balanceCache.evictAfterCommit(accountNumber);
+
+            // Sequence ids come from a pooled block, so this INSERT is a plain batched statement at flush
+            transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+            Transaction saved = transactionRepository.save(transaction);
+            count(type, "completed");
+            log.info("{} completed: {}, Amount: {} {}", type, accountNumber, amount, currency);
+            return TransferService.buildTransferResponse(saved);
+
+        } catch (BankingException ex) {
+            transaction.setStatus(Transaction.TransactionStatus.FAILED);
+            transaction.setFailureReason(ex.getMessage());
+            transactionRepository.save(transaction);
+            count(type, "failed");
+            log.error("{} failed: {}", type, ex.getMessage());
+            throw ex;
+        }
+    }
+
+    private void deposit(String accountNumber, String currency, Money amount, LocalDateTime now) {
+        if (hotAccountService.slotCount(accountNumber) > 0) {
+            // Hot accounts take credits in a slot; the row itself is only read to validate it
+            Account account = readAccount(accountNumber);
+            validate(account, currency);
+            if (hotAccountService.credit(accountNumber, amount.toBigDecimal())) {
+                return;
+            }
+        }
+        if (accountRepository.applyCashDelta(accountNumber, currency, amount.toBigDecimal(), now) == 0) {
+            throw rejected(accountNumber, currency);
+        }
+    }
+
+    private void withdraw(String accountNumber, String currency, Money amount, LocalDateTime now) {
+        BigDecimal delta = amount.negate().toBigDecimal();
+        if (accountRepository.applyCashDelta(accountNumber, currency, delta, now) == 1) {
+            return;
+        }
+        if (hotAccountService.slotCount(accountNumber) > 0) {
+            // The row alone may not cover it; fold the slots back in under the row lock and try again
+            List<Account> locked = accountRepository.findAllForUpdateByAccountNumberIn(List.of(accountNumber));
+            if (!locked.isEmpty() && locked.get(0).getHotSlots() > 0) {
+                Money swept = hotAccountService.sweep(accountNumber);
+                if (swept.signum() != 0) {
+                    accountRepository.adjustBalance(accountNumber, swept.toBigDecimal(), now);
+                    if (accountRepository.applyCashDelta(accountNumber, currency, delta, now) == 1) {
+                        return;
+                    }
+                }
+            }
+        }
+        throw rejected(accountNumber, currency);
+    }
+
+    /**
+     * The guarded UPDATE matched no row; read the account to say which check failed
+     */
+    private BankingException rejected(String accountNumber, String currency) {
+        Account account = readAccount(accountNumber);
+        validate(account, currency);
+        return new InsufficientFundsException("Insufficient funds in account: " + accountNumber);
+    }
+
+    private Account readAccount(String accountNumber) {
+        return accountRepository.findSnapshotByAccountNumber(accountNumber)
+            .orElseThrow(() -> new AccountNotFoundException(accountNumber));
+    }
+
+    private static void validate(Account account, String currency) {
+        TransferService.validateAccount(account.getAccountNumber(), account.getStatus());
+        if (!account.getCurrency().equals(currency)) {
+            throw new InvalidTransferException("Currency " + currency + " does not match account "
+                + account.getAccountNumber() + " (" + account.getCurrency() + ")");
+        }
+    }
+
+    private static Transaction buildTransaction(String accountNumber, AccountDTO.CashRequest request,
+                                                String currency, Transaction.TransactionType type) {
+        boolean deposit = type == Transaction.TransactionType.DEPOSIT;
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(TransferService.generateTransactionId());
+        transaction.setFromAccountNumber(deposit ? CASH : accountNumber);
+        transaction.setToAccountNumber(deposit ? accountNumber : CASH);
+        transaction.setAmount(request.getAmount());
+        transaction.setCurrency(currency);
+        transaction.setType(type);
+        transaction.setDescription(request.getDescription());
+        return transaction;
+    }
+
+    private void count(Transaction.TransactionType type, String result) {
+        meterRegistry.counter("banking.cash.transactions",
+            "type", type.name().toLowerCase(), "result", result).increment();
+    }
+}
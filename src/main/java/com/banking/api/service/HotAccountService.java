@@ -0,0 +1,161 @@
+package com.banking.api.service;
+
+import com.banking.api.exception.AccountNotFoundException;
+import com.banking.api.exception.BankingException;
+import com.banking.api.model.Account;
+import com.banking.api.model.AccountSlot;
+import com.banking.api.model.Money;
+import com.banking.api.repository.AccountAmount;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.AccountSlotRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sub-ledger for hot accounts (merchant, fee-collection, settlement).
+ * 
+ * A hot account is split into N slot rows. Credits go to a random slot without
+ * touching the account row, so they no longer serialize on its lock. Reads sum
+ * the slots; debits sweep them back into the account row when the row alone
+ * cannot cover the amount.
+ * 
+ * The slot count per account is stored on the Account row and cached here so
+ * the transfer path can route credits without an extra query. A stale cache is
+ * harmless: crediting the account row directly is always correct, and a credit
+ * to a slot that no longer exists reports failure so the caller can fall back.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class HotAccountService {
+    
+    public static final int MAX_SLOTS = 64;
+    
+    private final AccountRepository accountRepository;
+    private final AccountSlotRepository accountSlotRepository;
+    private final Map<String, Integer> slotCounts = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    void loadHotAccounts() {
+        accountRepository.findByHotSlotsGreaterThan(0)
+            .forEach(account -> slotCounts.put(account.getAccountNumber(), account.getHotSlots()));
+    }
+    
+    public int slotCount(String accountNumber) {
+        return slotCounts.getOrDefault(accountNumber, 0);
+    }
+    
+    /**
+     * Credit a random slot of a hot account. Returns false if the account has
+     * no slots (e.g. its configuration changed), in which case nothing was written.
+     */
+    public boolean credit(String accountNumber, BigDecimal amount) {
+        int slots = slotCount(accountNumber);
+        if (slots == 0) {
+            return false;
+        }
+        int slot = ThreadLocalRandom.current().nextInt(slots);
+        return accountSlotRepository.credit(accountNumber, slot, amount) == 1;
+    }
+    
+    /**
+     * Zero every slot of an account and return their sum.
+     * The caller must hold the account row lock and add the result to it.
+     */
+    public Money sweep(String accountNumber) {
+        Money total = Money.zero(0);
+        for (AccountSlot slot : accountSlotRepository.findAllForUpdate(accountNumber)) {
+            if (slot.getBalance().signum() != 0) {
+                total = total.plus(Money.of(slot.getBalance()));
+                slot.setBalance(BigDecimal.ZERO);
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Account row balance plus everything parked in its slots.
+     */
+    public Money totalBalance(Account account) {
+        if (account.getHotSlots() == 0) {
+            return account.getBalance();
+        }
+        return account.getBalance().plus(Money.of(accountSlotRepository.sumBalance(account.getAccountNumber())));
+    }
+    
+    /**
+     * totalBalance for several accounts, with one grouped query for the slots of
+     * those that are hot
+     */
+    public Map<String, Money> totalBalances(List<Account> accounts) {
+        Map<String, Money> totals = new HashMap<>();
+        List<String> hot = new ArrayList<>();
+        for (Account account : accounts) {
+            totals.put(account.getAccountNumber(), account.getBalance());
+            if (account.getHotSlots() > 0) {
+                hot.add(account.getAccountNumber());
+            }
+        }
+        if (!hot.isEmpty()) {
+            for (AccountAmount slots : accountSlotRepository.sumBalanceByAccountNumberIn(hot)) {
+                totals.merge(slots.getAccountNumber(), Money.of(slots.getAmount()), Money::plus);
+            }
+        }
+        return totals;
+    }
+    
+    /**
+     * Split an account into the given number of slots, or turn the sub-ledger
+     * off with 0. Existing slot balances are folded into the account row first,
+     * so the total balance never changes.
+     */
+    @Transactional
+    public Account configureSlots(String accountNumber, int slots) {
+        if (slots < 0 || slots > MAX_SLOTS) {
+            throw new BankingException("Slot count must be between 0 and " + MAX_SLOTS);
+        }
+        
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+            .orElseThrow(() -> new AccountNotFoundException(accountNumber));
+        
+        account.setBalance(account.getBalance().plus(sweep(accountNumber)));
+        accountSlotRepository.deleteByAccountNumber(accountNumber);
+        
+        List<AccountSlot> newSlots = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            newSlots.add(new AccountSlot(null, accountNumber, i, BigDecimal.ZERO));
+        }
+        accountSlotRepository.saveAll(newSlots);
+        
+        account.setHotSlots(slots);
+        Account saved = accountRepository.save(account);
+        
+        // Only route credits to the new slots once they are visible to other transactions
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (slots == 0) {
+                    slotCounts.remove(accountNumber);
+                } else {
+                    slotCounts.put(accountNumber, slots);
+                }
+            }
+        });
+        
+        log.info("Configured {} sub-ledger slots for account {}", slots, accountNumber);
+        return saved;
+    }
+}
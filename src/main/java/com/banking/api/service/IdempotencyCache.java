@@ -0,0 +1,78 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.TransferDTO;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bounded, TTL-evicted map of idempotency key to transfer result.
+ * 
+ * Entries hold a future rather than a finished response so a duplicate that
+ * arrives while the first request is still running can wait on it instead of
+ * racing for the same account locks. Keys are kept in insertion order; with a
+ * single TTL the oldest entry always expires first, so eviction only ever
+ * looks at the head of the map.
+ */
+class IdempotencyCache {
+    
+    record Entry(String fingerprint, CompletableFuture<TransferDTO.TransferResponse> response, long expiresAt) {
+    }
+    
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+    
+    IdempotencyCache(int maxEntries, long ttlNanos) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+    }
+    
+    /**
+     * Register a pending result for the key, or return the live entry already
+     * registered by an earlier request.
+     */
+    synchronized Entry putIfAbsent(String key, String fingerprint,
+                                   CompletableFuture<TransferDTO.TransferResponse> response) {
+        long now = System.nanoTime();
+        evictExpired(now);
+        
+        Entry existing = entries.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        
+        entries.put(key, new Entry(fingerprint, response, now + ttlNanos));
+        if (entries.size() > maxEntries) {
+            Iterator<Entry> eldest = entries.values().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        return null;
+    }
+    
+    /**
+     * Drop the entry for a request that failed, so a retry runs again.
+     */
+    synchronized void remove(String key, CompletableFuture<TransferDTO.TransferResponse> response) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.response() == response) {
+            entries.remove(key);
+        }
+    }
+    
+    synchronized int size() {
+        return entries.size();
+    }
+    
+    private void evictExpired(long now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt() - now > 0) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+}
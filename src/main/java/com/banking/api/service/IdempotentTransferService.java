@@ -0,0 +1,151 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.BankingException;
+import com.banking.api.exception.InvalidTransferException;
+import com.banking.api.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Deduplicates client retries carrying an Idempotency-Key header.
+ * 
+ * Lookups go to a bounded in-memory cache first, so a retry storm is answered
+ * without touching the database. A concurrent duplicate waits for the first
+ * request's result. On a cache miss the unique idempotency_key column on
+ * Transaction is checked, and it also rejects a duplicate committed by another
+ * instance, in which case the stored result is returned.
+ * 
+ * It also picks the concurrency mode: the banking.transfer.concurrency default,
+ * unless the request names one. OPTIMISTIC only applies to the database engine;
+ * other engines do their own concurrency control and ignore it.
+ */
+@Service
+@Slf4j
+public class IdempotentTransferService {
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    private final TransferEngine transferEngine;
+    private final OptimisticTransferService optimisticTransferService;
+    private final TransactionRepository transactionRepository;
+    private final TransferDTO.ConcurrencyMode defaultMode;
+    private final IdempotencyCache cache;
+    private final long waitTimeoutMs;
+    
+    public IdempotentTransferService(TransferEngine transferEngine,
+                                     OptimisticTransferService optimisticTransferService,
+                                     TransactionRepository transactionRepository,
+                                     @Value("${banking.transfer.concurrency:PESSIMISTIC}")
+                                     TransferDTO.ConcurrencyMode defaultMode,
+                                     @Value("${banking.idempotency.cache-size:10000}") int cacheSize,
+                                     @Value("${banking.idempotency.ttl-seconds:86400}") long ttlSeconds,
+                                     @Value("${banking.idempotency.wait-timeout-ms:30000}") long waitTimeoutMs) {
+        this.transferEngine = transferEngine;
+        this.optimisticTransferService = optimisticTransferService;
+        this.transactionRepository = transactionRepository;
+        this.defaultMode = defaultMode;
+        this.cache = new IdempotencyCache(cacheSize, TimeUnit.SECONDS.toNanos(ttlSeconds));
+        this.waitTimeoutMs = waitTimeoutMs;
+    }
+    
+    public TransferDTO.TransferResponse executeTransfer(TransferDTO.TransferRequest request, String idempotencyKey) {
+        return executeTransfer(request, idempotencyKey, null);
+    }
+    
+    /**
+     * Execute with an explicit concurrency mode; null falls back to the configured default
+     */
+    public TransferDTO.TransferResponse executeTransfer(TransferDTO.TransferRequest request, String idempotencyKey,
+                                                        TransferDTO.ConcurrencyMode mode) {
+        boolean optimistic = (mode != null ? mode : defaultMode) == TransferDTO.ConcurrencyMode.OPTIMISTIC
+            && transferEngine instanceof TransferService;
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return optimistic
+                ? optimisticTransferService.executeTransfer(request, null)
+                : transferEngine.executeTransfer(request);
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidTransferException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        
+        String fingerprint = fingerprint(request.getFromAccountNumber(), request.getToAccountNumber(),
+            request.getAmount());
+        CompletableFuture<TransferDTO.TransferResponse> pending = new CompletableFuture<>();
+        
+        IdempotencyCache.Entry existing = cache.putIfAbsent(idempotencyKey, fingerprint, pending);
+        if (existing != null) {
+            checkSameRequest(existing.fingerprint(), fingerprint);
+            log.debug("Answering repeated Idempotency-Key {} from cache", idempotencyKey);
+            return await(existing.response());
+        }
+        
+        try {
+            TransferDTO.TransferResponse response = findStored(idempotencyKey, fingerprint)
+                .orElseGet(() -> executeOnce(request, idempotencyKey, fingerprint, optimistic));
+            pending.complete(response);
+            return response;
+        } catch (RuntimeException ex) {
+            // Failed transfers are not stored, so a retry must be allowed to run again
+            cache.remove(idempotencyKey, pending);
+            pending.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+    
+    private TransferDTO.TransferResponse executeOnce(TransferDTO.TransferRequest request, String idempotencyKey,
+                                                     String fingerprint, boolean optimistic) {
+        try {
+            return optimistic
+                ? optimisticTransferService.executeTransfer(request, idempotencyKey)
+                : transferEngine.executeTransfer(request, idempotencyKey);
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance committed the same key first; its transaction rolled ours back
+            return findStored(idempotencyKey, fingerprint).orElseThrow(() -> ex);
+        }
+    }
+    
+    private Optional<TransferDTO.TransferResponse> findStored(String idempotencyKey, String fingerprint) {
+        return transactionRepository.findByIdempotencyKey(idempotencyKey)
+            .map(transaction -> {
+                checkSameRequest(fingerprint(transaction.getFromAccountNumber(),
+                    transaction.getToAccountNumber(), transaction.getAmount()), fingerprint);
+                return TransferService.buildTransferResponse(transaction);
+            });
+    }
+    
+    private TransferDTO.TransferResponse await(CompletableFuture<TransferDTO.TransferResponse> response) {
+        try {
+            return response.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new BankingException("Transfer failed: " + ex.getCause().getMessage());
+        } catch (TimeoutException ex) {
+            throw new BankingException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BankingException("Interrupted while waiting for a request with this Idempotency-Key");
+        }
+    }
+    
+    private void checkSameRequest(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            throw new InvalidTransferException("Idempotency-Key was already used for a different transfer");
+        }
+    }
+    
+    private static String fingerprint(String fromAccountNumber, String toAccountNumber, BigDecimal amount) {
+        return fromAccountNumber + '|' + toAccountNumber + '|' + amount.stripTrailingZeros().toPlainString();
+    }
+}
@@ -0,0 +1,208 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.JournalDTO;
+import com.banking.api.model.Account;
+import com.banking.api.model.BalanceSnapshot;
+import com.banking.api.model.Money;
+import com.banking.api.repository.AccountAmount;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.BalanceSnapshotRepository;
+import com.banking.api.repository.JournalEntryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Derives balances for the event-sourced engine from the journal.
+ *
+ * An account's balance is its latest snapshot plus the sum of its journal
+ * entries after that snapshot, or its opening balance (the balance column,
+ * which this engine never updates) plus every entry when it has no snapshot.
+ * A background task snapshots accounts once their tail reaches
+ * banking.journal.snapshot-min-tail entries, so a read only ever sums a short
+ * index range. Snapshots and rebuilds run under the account's row lock, which
+ * every append also holds until it commits, so no entry below the snapshot's
+ * lastEntryId can still be in flight.
+ */
+@Service
+@ConditionalOnProperty(name = "banking.transfer.engine", havingValue = "event-sourced")
+@Slf4j
+public class JournalBalanceService {
+
+    private final AccountRepository accountRepository;
+    private final JournalEntryRepository journalEntryRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long snapshotIntervalMs;
+    private final long snapshotMinTail;
+    private final ScheduledExecutorService snapshotter;
+
+    public JournalBalanceService(AccountRepository accountRepository,
+                                 JournalEntryRepository journalEntryRepository,
+                                 BalanceSnapshotRepository balanceSnapshotRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${banking.journal.snapshot-interval-ms:1000}") long snapshotIntervalMs,
+                                 @Value("${banking.journal.snapshot-min-tail:100}") long snapshotMinTail) {
+        this.accountRepository = accountRepository;
+        this.journalEntryRepository = journalEntryRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.snapshotIntervalMs = snapshotIntervalMs;
+        this.snapshotMinTail = snapshotMinTail;
+        this.snapshotter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        snapshotter.scheduleWithFixedDelay(this::snapshotQuietly, snapshotIntervalMs, snapshotIntervalMs,
+            TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        snapshotter.shutdown();
+        snapshotter.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Current balance of the account: latest snapshot plus the journal tail.
+     * Exact for the caller holding the account's row lock; otherwise as of the
+     * entries committed when the tail was summed.
+     */
+    public Money balanceOf(Account account) {
+        Optional<BalanceSnapshot> snapshot = balanceSnapshotRepository.findById(account.getAccountNumber());
+        Money base = snapshot.map(BalanceSnapshot::getBalance).orElse(account.getBalance());
+        long afterId = snapshot.map(BalanceSnapshot::getLastEntryId).orElse(0L);
+        return base.plus(Money.of(journalEntryRepository.sumAmountAfter(account.getAccountNumber(), afterId)));
+    }
+
+    /**
+     * Current balances of several accounts with a single query, as balanceOf
+     * would derive them one at a time
+     */
+    public Map<String, Money> balancesOf(Collection<String> accountNumbers) {
+        Map<String, Money> balances = new HashMap<>();
+        for (AccountAmount balance : journalEntryRepository.findBalancesByAccountNumberIn(accountNumbers)) {
+            balances.put(balance.getAccountNumber(), Money.of(balance.getAmount()));
+        }
+        return balances;
+    }
+
+    /**
+     * Snapshot every account whose tail has reached the minimum length,
+     * one short transaction per account. Returns the number of snapshots taken.
+     */
+    public int takeSnapshots() {
+        int taken = 0;
+        for (String accountNumber : journalEntryRepository.findAccountsWithTailAtLeast(snapshotMinTail)) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> snapshot(accountNumber, false)))) {
+                taken++;
+            }
+        }
+        return taken;
+    }
+
+    /**
+     * Recompute every account's balance from its opening balance and the whole
+     * journal, ignoring existing snapshots, and store the result as the new
+     * snapshot. Accounts are spread over the given number of threads.
+     */
+    public JournalDTO.RebuildResponse rebuild(int parallelism) {
+        long started = System.nanoTime();
+        List<String> accountNumbers = accountRepository.findAllAccountNumbers();
+        AtomicInteger corrected = new AtomicInteger();
+
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<?>> results = new ArrayList<>(accountNumbers.size());
+            for (String accountNumber : accountNumbers) {
+                results.add(workers.submit(() -> {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(status -> snapshot(accountNumber, true)))) {
+                        corrected.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Journal rebuild interrupted", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Journal rebuild failed: " + ex.getCause().getMessage(), ex.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        log.info("Rebuilt {} balances from the journal in {} ms ({} snapshots corrected)",
+            accountNumbers.size(), elapsedMs, corrected.get());
+        return new JournalDTO.RebuildResponse(accountNumbers.size(), corrected.get(), parallelism, elapsedMs);
+    }
+
+    /**
+     * Snapshot one account under its row lock. A rebuild replays the whole
+     * journal and returns whether it disagreed with the snapshot it replaced;
+     * a regular snapshot returns whether one was written.
+     */
+    private boolean snapshot(String accountNumber, boolean fromScratch) {
+        List<Account> locked = accountRepository.findAllForUpdateByAccountNumberIn(List.of(accountNumber));
+        if (locked.isEmpty()) {
+            return false;
+        }
+        Account account = locked.get(0);
+        // Read out before saving: the replacement is merged into this same managed entity
+        Optional<BalanceSnapshot> previous = balanceSnapshotRepository.findById(accountNumber);
+        long previousEntryId = previous.map(BalanceSnapshot::getLastEntryId).orElse(0L);
+
+        long lastEntryId = journalEntryRepository.findLastEntryId(accountNumber);
+        if (!fromScratch && previousEntryId == lastEntryId) {
+            return false;
+        }
+        // The old snapshot only covers entries up to its own lastEntryId, so a rebuild
+        // compares the replay against snapshot plus tail, not the snapshot alone
+        Money derived = balanceOf(account);
+        Money balance = fromScratch
+            ? account.getBalance().plus(Money.of(journalEntryRepository.sumAmountAfter(accountNumber, 0)))
+            : derived;
+        balanceSnapshotRepository.save(new BalanceSnapshot(accountNumber, balance, lastEntryId, LocalDateTime.now()));
+        return !fromScratch || (previous.isPresent() && derived.compareTo(balance) != 0);
+    }
+
+    private void snapshotQuietly() {
+        try {
+            int taken = takeSnapshots();
+            if (taken > 0) {
+                log.debug("Took {} journal snapshots", taken);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Journal snapshot failed, will retry: {}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.AccountNotFoundException;
+import com.banking.api.exception.BankingException;
+import com.banking.api.exception.InsufficientFundsException;
+import com.banking.api.exception.InvalidTransferException;
+import com.banking.api.model.Account;
+import com.banking.api.model.Money;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.JournalEntryWriter;
+import com.banking.api.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transfer engine that records transfers in an append-only journal.
+ *
+ * Enabled with banking.transfer.engine=event-sourced. A transfer never updates
+ * a balance: it locks both account rows (in account number order, so
+ * concurrent transfers cannot deadlock), checks the source balance derived by
+ * JournalBalanceService, and inserts a debit and a credit entry next to the
+ * transaction row. The row locks are what make the funds check safe; the
+ * account rows themselves are left untouched. The journal must be the only
+ * writer of balances while this engine is active.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "banking.transfer.engine", havingValue = "event-sourced")
+@RequiredArgsConstructor
+@Slf4j
+public class JournalTransferService implements TransferEngine {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final JournalEntryWriter journalEntryWriter;
+    private final JournalBalanceService journalBalanceService;
+    private final TransferMetrics transferMetrics;
+    private final BalanceCache balanceCache;
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class,
+                   noRollbackFor = BankingException.class)
+    public TransferDTO.TransferResponse executeTransfer(TransferDTO.TransferRequest request) {
+        return executeTransfer(request, null);
+    }
+
+    /**
+     * READ COMMITTED is enough: the row locks serialize transfers per account,
+     * and the balance is derived only after both locks are held, so it sees
+     * every entry committed by earlier transfers on the account.
+     */
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED, rollbackFor = Exception.class,
+                   noRollbackFor = BankingException.class)
+    public TransferDTO.TransferResponse executeTransfer(TransferDTO.TransferRequest request, String idempotencyKey) {
+        long started = System.nanoTime();
+
+        try {
+            TransferService.validateTransferRequest(request);
+        } catch (InvalidTransferException ex) {
+            transferMetrics.recordFailed(ex, System.nanoTime() - started);
+            throw ex;
+        }
+        transferMetrics.recordStage(TransferMetrics.Stage.VALIDATE, System.nanoTime() - started);
+
+        String transactionId = TransferService.generateTransactionId();
+        String fromAccountNumber = request.getFromAccountNumber();
+        String toAccountNumber = request.getToAccountNumber();
+        String currency = TransferService.NO_CURRENCY;
+
+        try {
+            Map<String, Account> locked = lockAccounts(List.of(fromAccountNumber, toAccountNumber));
+            Account fromAccount = requireAccount(locked, fromAccountNumber);
+            currency = fromAccount.getCurrency();
+            Account toAccount = requireAccount(locked, toAccountNumber);
+            TransferService.validateAccount(fromAccountNumber, fromAccount.getStatus());
+            TransferService.validateAccount(toAccountNumber, toAccount.getStatus());
+            Money amount = TransferService.toMoney(request.getAmount(), fromAccount.getCurrency());
+
+            if (journalBalanceService.balanceOf(fromAccount).compareTo(amount) < 0) {
+                throw new InsufficientFundsException("Insufficient funds in account: " + fromAccountNumber);
+            }
+
+            long appendStarted = System.nanoTime();
+            journalEntryWriter.appendTransfer(transactionId, fromAccountNumber, toAccountNumber, amount,
+                LocalDateTime.now());
+            balanceCache.evictAfterCommit(fromAccountNumber, toAccountNumber);
+            transferMetrics.recordStage(TransferMetrics.Stage.BALANCE_UPDATE, System.nanoTime() - appendStarted);
+
+            Transaction transaction = saveTransaction(TransferService.buildTransaction(transactionId, request,
+                currency, idempotencyKey, Transaction.TransactionStatus.COMPLETED, null));
+            transferMetrics.recordCompleted(System.nanoTime() - started);
+            transferMetrics.timeCommit();
+
+            log.info("Transfer completed: {} -> {}, Amount: {}", fromAccountNumber, toAccountNumber, amount);
+
+            return TransferService.buildTransferResponse(transaction);
+
+        } catch (BankingException ex) {
+            // Left without the idempotency key: failed transfers are not replayed, a retry runs again
+            saveTransaction(TransferService.buildTransaction(transactionId, request, currency, null,
+                Transaction.TransactionStatus.FAILED, ex.getMessage()));
+            transferMetrics.recordFailed(ex, System.nanoTime() - started);
+            log.error("Transfer failed: {}", ex.getMessage());
+            throw ex;
+        } catch (RuntimeException ex) {
+            transferMetrics.recordFailed(ex, System.nanoTime() - started);
+            log.error("Transfer failed: {}", ex.getMessage());
+            throw ex;
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TransferDTO.TransferResponse getTransactionStatus(String transactionId) {
+        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+            .orElseThrow(() -> new BankingException("Transaction not found: " + transactionId));
+        return TransferService.buildTransferResponse(transaction);
+    }
+
+    private Map<String, Account> lockAccounts(List<String> accountNumbers) {
+        List<String> ordered = accountNumbers.stream().sorted().toList();
+        long lockStarted = transferMetrics.lockWaitStarted();
+        try {
+            Map<String, Account> accounts = new HashMap<>();
+            for (Account account : accountRepository.findAllForUpdateByAccountNumberIn(ordered)) {
+                accounts.put(account.getAccountNumber(), account);
+            }
+            return accounts;
+        } finally {
+            transferMetrics.lockAcquired(lockStarted);
+        }
+    }
+
+    private Account requireAccount(Map<String, Account> accounts, String accountNumber) {
+        Account account = accounts.get(accountNumber);
+        if (account == null) {
+            throw new AccountNotFoundException(accountNumber);
+        }
+        return account;
+    }
+
+    private Transaction saveTransaction(Transaction transaction) {
+        long saveStarted = System.nanoTime();
+        Transaction saved = transactionRepository.save(transaction);
+        transferMetrics.recordStage(TransferMetrics.Stage.SAVE, System.nanoTime() - saveStarted);
+        return saved;
+    }
+}
@@ -0,0 +1,234 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.AccountNotFoundException;
+import com.banking.api.exception.BankingException;
+import com.banking.api.exception.InsufficientFundsException;
+import com.banking.api.exception.InvalidTransferException;
+import com.banking.api.exception.TransferConflictException;
+import com.banking.api.model.Money;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.AccountVersion;
+import com.banking.api.repository.TransactionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Transfer engine that serializes work per account on single-threaded lanes.
+ *
+ * Enabled with banking.transfer.engine=lanes. A transfer runs on the lanes of
+ * both its accounts (see AccountLanes), so no other transfer can touch either
+ * account while it runs and it needs neither row locks nor SERIALIZABLE: each
+ * transfer is one READ COMMITTED transaction of a snapshot read, the guarded
+ * two-row UPDATE and the transaction INSERT. The UPDATE's balance guard stays
+ * in place for writers outside the lanes (batch transfers, slot sweeps); if
+ * one of them changed an account under us the transfer is re-read and retried.
+ *
+ * Accounts with hot slots are handed to TransferService on the same lanes;
+ * a serialization failure there is retried like a guard miss.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "banking.transfer.engine", havingValue = "lanes")
+@Slf4j
+public class LaneTransferService implements TransferEngine {
+    
+    private static final int MAX_ATTEMPTS = 3;
+    
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransferService transferService;
+    private final TransferMetrics transferMetrics;
+    private final BalanceCache balanceCache;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountLanes lanes;
+    
+    public LaneTransferService(AccountRepository accountRepository,
+                               TransactionRepository transactionRepository,
+                               TransferService transferService,
+                               TransferMetrics transferMetrics,
+                               BalanceCache balanceCache,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${banking.lanes.count:16}") int laneCount) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transferService = transferService;
+        this.transferMetrics = transferMetrics;
+        this.balanceCache = balanceCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.lanes = new AccountLanes(laneCount, "transfer-lane-");
+        log.info("Lane transfer engine started with {} lanes", laneCount);
+    }
+    
+    @PreDestroy
+    void stop() {
+        lanes.close();
+    }
+    
+    @Override
+    public TransferDTO.TransferResponse executeTransfer(TransferDTO.TransferRequest request) {
+        return executeTransfer(request, null);
+    }
+    
+    @Override
+    public TransferDTO.TransferResponse executeTransfer(TransferDTO.TransferRequest request, String idempotencyKey) {
+        long started = System.nanoTime();
+        
+        try {
+            TransferService.validateTransferRequest(request);
+        } catch (InvalidTransferException ex) {
+            transferMetrics.recordFailed(ex, System.nanoTime() - started);
+            throw ex;
+        }
+        transferMetrics.recordStage(TransferMetrics.Stage.VALIDATE, System.nanoTime() - started);
+        
+        // Time spent queued for the lanes is this engine's equivalent of a row lock wait
+        long queued = transferMetrics.lockWaitStarted();
+        try {
+            return lanes.submit(request.getFromAccountNumber(), request.getToAccountNumber(), () -> {
+                transferMetrics.lockAcquired(queued);
+                return transferInLane(request, idempotencyKey, started);
+            }).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new BankingException("Transfer failed: " + ex.getCause().getMessage());
+        }
+    }
+    
+    @Override
+    public TransferDTO.TransferResponse getTransactionStatus(String transactionId) {
+        return transferService.getTransactionStatus(transactionId);
+    }
+    
+    private TransferDTO.TransferResponse transferInLane(TransferDTO.TransferRequest request, String idempotencyKey,
+                                                       long started) {
+        String transactionId = TransferService.generateTransactionId();
+        for (int attempt = 1; ; attempt++) {
+            Outcome outcome;
+            try {
+                outcome = transactionTemplate.execute(status -> attempt(status, request, idempotencyKey, transactionId));
+            } catch (RuntimeException ex) {
+                transferMetrics.recordFailed(ex, System.nanoTime() - started);
+                log.error("Transfer failed: {}", ex.getMessage());
+                throw ex;
+            }
+            
+            if (outcome.hot()) {
+                try {
+                    return transferService.executeTransfer(request, idempotencyKey);
+                } catch (ConcurrencyFailureException ex) {
+                    // TransferService runs SERIALIZABLE, so a writer outside the lanes that committed
+                    // first fails it instead of missing a guard; retry it the same way
+                    log.debug("Hot transfer lost to a concurrent writer: {}", ex.getMessage());
+                }
+            } else if (outcome.failure() != null) {
+                transferMetrics.recordFailed(outcome.failure(), System.nanoTime() - started);
+                log.error("Transfer failed: {}", outcome.failure().getMessage());
+                throw outcome.failure();
+            } else if (outcome.transaction() != null) {
+                transferMetrics.recordCompleted(System.nanoTime() - started);
+                log.debug("Transfer completed: {} -> {}, Amount: {}",
+                    request.getFromAccountNumber(), request.getToAccountNumber(), request.getAmount());
+                return TransferService.buildTransferResponse(outcome.transaction());
+            }
+            if (attempt >= MAX_ATTEMPTS) {
+                TransferConflictException conflict = new TransferConflictException(
+                    "Transfer could not be applied after " + attempt + " attempts due to concurrent updates");
+                transferMetrics.recordFailed(conflict, System.nanoTime() - started);
+                throw conflict;
+            }
+            log.warn("Transfer {} raced a writer outside the lanes, retrying", transactionId);
+        }
+    }
+    
+    /**
+     * One attempt inside the lanes. Business failures commit a FAILED row and are
+     * handed back; a guard miss rolls back and returns an empty outcome to retry.
+     */
+    private Outcome attempt(TransactionStatus status, TransferDTO.TransferRequest request, String idempotencyKey,
+                            String transactionId) {
+        String fromAccountNumber = request.getFromAccountNumber();
+        String toAccountNumber = request.getToAccountNumber();
+        String currency = TransferService.NO_CURRENCY;
+        
+        try {
+            Map<String, AccountVersion> accounts = new HashMap<>();
+            for (AccountVersion account : accountRepository.findVersionsByAccountNumberIn(
+                    List.of(fromAccountNumber, toAccountNumber))) {
+                accounts.put(account.getAccountNumber(), account);
+            }
+            AccountVersion from = requireAccount(accounts, fromAccountNumber);
+            currency = from.getCurrency();
+            AccountVersion to = requireAccount(accounts, toAccountNumber);
+            if (from.getHotSlots() > 0 || to.getHotSlots() > 0) {
+                return Outcome.HOT;
+            }
+            
+            TransferService.validateAccount(from.getAccountNumber(), from.getStatus());
+            TransferService.validateAccount(to.getAccountNumber(), to.getStatus());
+            Money amount = TransferService.toMoney(request.getAmount(), from.getCurrency());
+            if (from.getBalance().compareTo(amount) < 0) {
+                throw new InsufficientFundsException("Insufficient funds in account: " + fromAccountNumber);
+            }
+            
+            long updateStarted = System.nanoTime();
+            if (accountRepository.applyTransfer(fromAccountNumber, amount.negate().toBigDecimal(),
+                    toAccountNumber, amount.toBigDecimal(), LocalDateTime.now()) != 2) {
+                // A writer outside the lanes moved the balance; drop the one-row update and re-read
+                status.setRollbackOnly();
+                return Outcome.RETRY;
+            }
+            balanceCache.evictAfterCommit(fromAccountNumber, toAccountNumber);
+            transferMetrics.recordStage(TransferMetrics.Stage.BALANCE_UPDATE, System.nanoTime() - updateStarted);
+            
+            Transaction transaction = saveTransaction(TransferService.buildTransaction(transactionId, request,
+                currency, idempotencyKey, Transaction.TransactionStatus.COMPLETED, null));
+            transferMetrics.timeCommit();
+            return new Outcome(transaction, null, false);
+        
+        } catch (BankingException ex) {
+            saveTransaction(TransferService.buildTransaction(transactionId, request, currency, null,
+                Transaction.TransactionStatus.FAILED, ex.getMessage()));
+            return new Outcome(null, ex, false);
+        }
+    }
+    
+    private AccountVersion requireAccount(Map<String, AccountVersion> accounts, String accountNumber) {
+        AccountVersion account = accounts.get(accountNumber);
+        if (account == null) {
+            throw new AccountNotFoundException(accountNumber);
+        }
+        return account;
+    }
+    
+    private Transaction saveTransaction(Transaction transaction) {
+        long saveStarted = System.nanoTime();
+        Transaction saved = transactionRepository.save(transaction);
+        transferMetrics.recordStage(TransferMetrics.Stage.SAVE, System.nanoTime() - saveStarted);
+        return saved;
+    }
+    
+    private record Outcome(Transaction transaction, BankingException failure, boolean hot) {
+        static final Outcome HOT = new Outcome(null, null, true);
+        static final Outcome RETRY = new Outcome(null, null, false);
+    }
+}
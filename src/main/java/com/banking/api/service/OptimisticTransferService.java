@@ -0,0 +1,218 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.AccountNotFoundException;
+import com.banking.api.exception.BankingException;
+import com.banking.api.exception.InsufficientFundsException;
+import com.banking.api.exception.InvalidTransferException;
+import com.banking.api.exception.TransferConflictException;
+import com.banking.api.model.Money;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.AccountVersion;
+import com.banking.api.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Transfers without row locks, for workloads where two transfers rarely touch
+ * the same account.
+ *
+ * Each attempt runs at READ COMMITTED: it reads both accounts with their
+ * versions, then applies both legs in one UPDATE that only matches the rows at
+ * the versions it read. If another transfer got there first fewer than two rows
+ * change, the attempt rolls back and is retried after a jittered backoff. When
+ * the retry budget runs out the transfer fails with TransferConflictException
+ * and nothing is written, so the client can simply retry.
+ *
+ * Accounts with hot slots are handed to the pessimistic TransferService, which
+ * owns sweeping and slot crediting.
+ */
+@Service
+@Slf4j
+public class OptimisticTransferService {
+    
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransferService transferService;
+    private final TransferMetrics transferMetrics;
+    private final BalanceCache balanceCache;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffBaseMs;
+    private final long backoffMaxMs;
+    
+    public OptimisticTransferService(AccountRepository accountRepository,
+                                     TransactionRepository transactionRepository,
+                                     TransferService transferService,
+                                     TransferMetrics transferMetrics,
+                                     BalanceCache balanceCache,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${banking.transfer.optimistic.max-attempts:5}") int maxAttempts,
+                                     @Value("${banking.transfer.optimistic.backoff-base-ms:2}") long backoffBaseMs,
+                                     @Value("${banking.transfer.optimistic.backoff-max-ms:50}") long backoffMaxMs) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("banking.transfer.optimistic.max-attempts must be at least 1");
+        }
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.transferService = transferService;
+        this.transferMetrics = transferMetrics;
+        this.balanceCache = balanceCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMs = backoffBaseMs;
+        this.backoffMaxMs = backoffMaxMs;
+    }
+    
+    public TransferDTO.TransferResponse executeTransfer(TransferDTO.TransferRequest request, String idempotencyKey) {
+        long started = System.nanoTime();
+        
+        try {
+            TransferService.validateTransferRequest(request);
+        } catch (InvalidTransferException ex) {
+            transferMetrics.recordFailed(ex, System.nanoTime() - started);
+            throw ex;
+        }
+        transferMetrics.recordStage(TransferMetrics.Stage.VALIDATE, System.nanoTime() - started);
+        
+        String transactionId = TransferService.generateTransactionId();
+        for (int attempt = 1; ; attempt++) {
+            Attempt result;
+            try {
+                result = transactionTemplate.execute(status -> attempt(request, idempotencyKey, transactionId));
+            } catch (ConcurrencyFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    transferMetrics.recordOptimisticAttempts(attempt, true);
+                    TransferConflictException conflict = new TransferConflictException(
+                        "Transfer could not be applied after " + attempt + " attempts due to concurrent updates");
+                    transferMetrics.recordFailed(conflict, System.nanoTime() - started);
+                    log.warn("Transfer {} gave up after {} attempts: {}", transactionId, attempt, ex.getMessage());
+                    throw conflict;
+                }
+                transferMetrics.recordOptimisticRetry();
+                backoff(attempt);
+                continue;
+            } catch (RuntimeException ex) {
+                transferMetrics.recordFailed(ex, System.nanoTime() - started);
+                log.error("Transfer failed: {}", ex.getMessage());
+                throw ex;
+            }
+            
+            transferMetrics.recordOptimisticAttempts(attempt, false);
+            if (result.hot()) {
+                return transferService.executeTransfer(request, idempotencyKey);
+            }
+            if (result.failure() != null) {
+                transferMetrics.recordFailed(result.failure(), System.nanoTime() - started);
+                log.error("Transfer failed: {}", result.failure().getMessage());
+                throw result.failure();
+            }
+            transferMetrics.recordCompleted(System.nanoTime() - started);
+            log.info("Transfer completed: {} -> {}, Amount: {}",
+                request.getFromAccountNumber(), request.getToAccountNumber(), request.getAmount());
+            return TransferService.buildTransferResponse(result.transaction());
+        }
+    }
+    
+    /**
+     * One optimistic attempt: a snapshot read, one versioned UPDATE and one INSERT.
+     * A business failure commits a FAILED row and is handed back rather than thrown,
+     * since throwing from the callback would roll that row back.
+     */
+    private Attempt attempt(TransferDTO.TransferRequest request, String idempotencyKey, String transactionId) {
+        String fromAccountNumber = request.getFromAccountNumber();
+        String toAccountNumber = request.getToAccountNumber();
+        String currency = TransferService.NO_CURRENCY;
+        
+        try {
+            Map<String, AccountVersion> accounts = new HashMap<>();
+            for (AccountVersion account : accountRepository.findVersionsByAccountNumberIn(
+                    List.of(fromAccountNumber, toAccountNumber))) {
+                accounts.put(account.getAccountNumber(), account);
+            }
+            AccountVersion from = requireAccount(accounts, fromAccountNumber);
+            currency = from.getCurrency();
+            AccountVersion to = requireAccount(accounts, toAccountNumber);
+            if (from.getHotSlots() > 0 || to.getHotSlots() > 0) {
+                return Attempt.HOT;
+            }
+            
+            TransferService.validateAccount(from.getAccountNumber(), from.getStatus());
+            TransferService.validateAccount(to.getAccountNumber(), to.getStatus());
+            Money amount = TransferService.toMoney(request.getAmount(), from.getCurrency());
+            if (from.getBalance().compareTo(amount) < 0) {
+                throw new InsufficientFundsException("Insufficient funds in account: " + fromAccountNumber);
+            }
+            
+            long updateStarted = System.nanoTime();
+            int updated = accountRepository.applyTransferIfUnchanged(
+                fromAccountNumber, amount.negate().toBigDecimal(), from.getVersion(),
+                toAccountNumber, amount.toBigDecimal(), to.getVersion(), LocalDateTime.now());
+            if (updated != 2) {
+                throw new OptimisticLockingFailureException(
+                    "Account " + fromAccountNumber + " or " + toAccountNumber + " changed during transfer " + transactionId);
+            }
+            balanceCache.evictAfterCommit(fromAccountNumber, toAccountNumber);
+            transferMetrics.recordStage(TransferMetrics.Stage.BALANCE_UPDATE, System.nanoTime() - updateStarted);
+            
+            Transaction transaction = saveTransaction(TransferService.buildTransaction(transactionId, request,
+                currency, idempotencyKey, Transaction.TransactionStatus.COMPLETED, null));
+            transferMetrics.timeCommit();
+            return new Attempt(transaction, null, false);
+        
+        } catch (BankingException ex) {
+            // As in TransferService: failed transfers keep no idempotency key, so a retry runs again
+            saveTransaction(TransferService.buildTransaction(transactionId, request, currency, null,
+                Transaction.TransactionStatus.FAILED, ex.getMessage()));
+            return new Attempt(null, ex, false);
+        }
+    }
+    
+    private AccountVersion requireAccount(Map<String, AccountVersion> accounts, String accountNumber) {
+        AccountVersion account = accounts.get(accountNumber);
+        if (account == null) {
+            throw new AccountNotFoundException(accountNumber);
+        }
+        return account;
+    }
+    
+    private Transaction saveTransaction(Transaction transaction) {
+        long saveStarted = System.nanoTime();
+        Transaction saved = transactionRepository.save(transaction);
+        transferMetrics.recordStage(TransferMetrics.Stage.SAVE, System.nanoTime() - saveStarted);
+        return saved;
+    }
+    
+    private void backoff(int attempt) {
+        // Full jitter: a random wait up to an exponentially growing cap, so
+        // transfers that collided once do not collide again in lockstep
+        long cap = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+        if (cap <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BankingException("Interrupted while retrying transfer");
+        }
+    }
+    
+    private record Attempt(Transaction transaction, BankingException failure, boolean hot) {
+        static final Attempt HOT = new Attempt(null, null, true);
+    }
+}
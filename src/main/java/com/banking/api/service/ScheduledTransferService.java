@@ -0,0 +1,402 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.ScheduledTransferDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.AccountNotFoundException;
+import com.banking.api.exception.BankingException;
+import com.banking.api.exception.InvalidTransferException;
+import com.banking.api.model.ScheduledTransfer;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.DueTransfer;
+import com.banking.api.repository.ScheduledTransferRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs one-off future-dated and recurring (daily, weekly, monthly, cron) transfers.
+ *
+ * A dispatcher thread polls for due schedules with an index range scan on
+ * (status, nextRunAt), groups them by source account and runs the groups in
+ * parallel, each group in due order on one worker. An occurrence is a single
+ * transaction: lock the schedule row, run the transfer through TransferService
+ * (which joins the transaction) and move nextRunAt on. Either all of it
+ * commits or none of it does, so a restart or a second node never fires an
+ * occurrence twice; one that was cut short is simply still due.
+ *
+ * A failed transfer (insufficient funds, inactive account) consumes its
+ * occurrence and is recorded on the schedule; it is not retried. An unexpected
+ * error rolls the occurrence back instead, and it is retried after a backoff
+ * that doubles with each attempt. Occurrences
+ * missed while the application was down are not made up: the overdue one
+ * runs once and the schedule moves on to its next future time.
+ *
+ * Only available with the database engine.
+ */
+@Service
+@ConditionalOnProperty(name = "banking.transfer.engine", havingValue = "database", matchIfMissing = true)
+@Slf4j
+public class ScheduledTransferService {
+
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final AccountRepository accountRepository;
+    private final TransferService transferService;
+    private final TransactionTemplate readTemplate;
+    private final TransactionTemplate runTemplate;
+    private final long pollIntervalMs;
+    private final int batchSize;
+    private final long retryBackoffBaseMs;
+    private final long retryBackoffMaxMs;
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService workers;
+    private final Counter completed;
+    private final Counter failed;
+
+    public ScheduledTransferService(ScheduledTransferRepository scheduledTransferRepository,
+                                    AccountRepository accountRepository,
+                                    TransferService transferService,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${banking.scheduler.poll-interval-ms:1000}") long pollIntervalMs,
+                                    @Value("${banking.scheduler.batch-size:500}") int batchSize,
+                                    @Value("${banking.scheduler.parallelism:8}") int parallelism,
+                                    @Value("${banking.scheduler.retry-backoff-base-ms:1000}") long retryBackoffBaseMs,
+                                    @Value("${banking.scheduler.retry-backoff-max-ms:300000}") long retryBackoffMaxMs) {
+        this.scheduledTransferRepository = scheduledTransferRepository;
+        this.accountRepository = accountRepository;
+        this.transferService = transferService;
+        this.readTemplate = new TransactionTemplate(transactionManager);
+        this.readTemplate.setReadOnly(true);
+        // Same isolation as a direct transfer, which joins this transaction
+        this.runTemplate = new TransactionTemplate(transactionManager);
+        this.runTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        this.pollIntervalMs = pollIntervalMs;
+        this.batchSize = batchSize;
+        this.retryBackoffBaseMs = retryBackoffBaseMs;
+        this.retryBackoffMaxMs = retryBackoffMaxMs;
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transfer-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "transfer-scheduler-" + workerCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.completed = Counter.builder("banking.scheduler.runs")
+            .description("Scheduled transfer occurrences by outcome")
+            .tag("result", "completed")
+            .register(meterRegistry);
+        this.failed = Counter.builder("banking.scheduler.runs")
+            .description("Scheduled transfer occurrences by outcome")
+            .tag("result", "failed")
+            .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        // 0 leaves dispatching to explicit dispatch() calls
+        if (pollIntervalMs > 0) {
+            dispatcher.scheduleWithFixedDelay(this::dispatchQuietly, pollIntervalMs, pollIntervalMs,
+                TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        // An occurrence interrupted here rolls back and is still due on the next start
+        dispatcher.shutdownNow();
+        workers.shutdownNow();
+        dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public ScheduledTransferDTO.ScheduledTransferResponse create(ScheduledTransferDTO.CreateRequest request) {
+        TransferService.validateTransferRequest(new TransferDTO.TransferRequest(request.getFromAccountNumber(),
+            request.getToAccountNumber(), request.getAmount(), request.getDescription()));
+        if (request.getFrequency() == ScheduledTransfer.Frequency.CRON) {
+            if (request.getCronExpression() == null || !CronExpression.isValidExpression(request.getCronExpression())) {
+                throw new InvalidTransferException("A valid cron expression is required: " + request.getCronExpression());
+            }
+        } else if (request.getCronExpression() != null) {
+            throw new InvalidTransferException("A cron expression is only allowed with the CRON frequency");
+        }
+
+        ScheduledTransfer schedule = new ScheduledTransfer();
+        schedule.setFromAccountNumber(request.getFromAccountNumber());
+        schedule.setToAccountNumber(request.getToAccountNumber());
+        schedule.setAmount(request.getAmount());
+        schedule.setDescription(request.getDescription());
+        schedule.setFrequency(request.getFrequency());
+        schedule.setCronExpression(request.getCronExpression());
+        schedule.setStartAt(request.getStartAt());
+        schedule.setEndAt(request.getEndAt());
+        schedule.setStatus(ScheduledTransfer.ScheduleStatus.ACTIVE);
+        // The first occurrence is the start time itself, or the first cron match at or after it
+        LocalDateTime first = nextOccurrence(schedule, request.getStartAt().minusNanos(1));
+        if (first == null) {
+            throw new InvalidTransferException("Schedule has no occurrence before its end time");
+        }
+        schedule.setNextRunAt(first);
+
+        return runTemplate.execute(status -> {
+            for (String accountNumber : List.of(request.getFromAccountNumber(), request.getToAccountNumber())) {
+                if (!accountRepository.existsByAccountNumber(accountNumber)) {
+                    throw new AccountNotFoundException(accountNumber);
+                }
+            }
+            ScheduledTransfer saved = scheduledTransferRepository.save(schedule);
+            log.info("Scheduled {} transfer {}: {} -> {}, first run at {}", saved.getFrequency(), saved.getId(),
+                saved.getFromAccountNumber(), saved.getToAccountNumber(), saved.getNextRunAt());
+            return toResponse(saved);
+        });
+    }
+
+    public ScheduledTransferDTO.ScheduledTransferResponse get(Long id) {
+        return readTemplate.execute(status -> toResponse(scheduledTransferRepository.findById(id)
+            .orElseThrow(() -> notFound(id))));
+    }
+
+    /**
+     * Stop a schedule. Waits for an occurrence that is running right now, which still completes.
+     */
+    public ScheduledTransferDTO.ScheduledTransferResponse cancel(Long id) {
+        return runTemplate.execute(status -> {
+            ScheduledTransfer schedule = scheduledTransferRepository.findForUpdateById(id)
+                .orElseThrow(() -> notFound(id));
+            if (schedule.getStatus() == ScheduledTransfer.ScheduleStatus.ACTIVE) {
+                schedule.setStatus(ScheduledTransfer.ScheduleStatus.CANCELLED);
+                log.info("Cancelled scheduled transfer {}", id);
+            }
+            return toResponse(schedule);
+        });
+    }
+
+    /**
+     * Run every occurrence that is due now, a batch at a time, and return how many ran
+     */
+    int dispatch() {
+        int total = 0;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            List<DueTransfer> due = readTemplate.execute(status -> scheduledTransferRepository.findDue(
+                ScheduledTransfer.ScheduleStatus.ACTIVE, now, Limit.of(batchSize)));
+            if (due.isEmpty()) {
+                return total;
+            }
+
+            // One group per source account, run in due order, so its transfers never contend with each other
+            Map<String, List<Long>> bySourceAccount = new LinkedHashMap<>();
+            for (DueTransfer transfer : due) {
+                bySourceAccount.computeIfAbsent(transfer.getFromAccountNumber(), key -> new ArrayList<>())
+                    .add(transfer.getId());
+            }
+            AtomicInteger ran = new AtomicInteger();
+            List<Future<?>> results = new ArrayList<>(bySourceAccount.size());
+            for (List<Long> ids : bySourceAccount.values()) {
+                results.add(workers.submit(() -> {
+                    for (Long id : ids) {
+                        if (runQuietly(id, now)) {
+                            ran.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            try {
+                for (Future<?> result : results) {
+                    result.get();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return total + ran.get();
+            } catch (ExecutionException ex) {
+                throw new IllegalStateException("Scheduled transfer worker failed", ex.getCause());
+            }
+            total += ran.get();
+
+            // A short batch was everything that is due; a batch where nothing ran would only repeat itself
+            if (due.size() < batchSize || ran.get() == 0) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Run the occurrence due at or before now, unless another dispatcher already
+     * has or the schedule was cancelled. Returns whether it ran.
+     */
+    boolean runOccurrence(Long id, LocalDateTime now) {
+        return Boolean.TRUE.equals(runTemplate.execute(status -> {
+            ScheduledTransfer schedule = scheduledTransferRepository.findForUpdateById(id).orElse(null);
+            if (schedule == null || schedule.getStatus() != ScheduledTransfer.ScheduleStatus.ACTIVE
+                    || schedule.getNextRunAt().isAfter(now)) {
+                return false;
+            }
+
+            int occurrence = schedule.getRunCount() + 1;
+            TransferDTO.TransferRequest request = new TransferDTO.TransferRequest(schedule.getFromAccountNumber(),
+                schedule.getToAccountNumber(), schedule.getAmount(), schedule.getDescription());
+            try {
+                // The key names the occurrence on the transaction row; its unique index backs up the row lock
+                TransferDTO.TransferResponse response = transferService.executeTransfer(request,
+                    "scheduled-" + id + "-" + occurrence);
+                schedule.setLastTransactionId(response.getTransactionId());
+                schedule.setLastFailureReason(null);
+                completed.increment();
+            } catch (BankingException ex) {
+                // Any FAILED transaction row TransferService wrote commits along with the schedule
+                schedule.setFailureCount(schedule.getFailureCount() + 1);
+                schedule.setLastFailureReason(ex.getMessage());
+                failed.increment();
+            }
+            schedule.setRunCount(occurrence);
+            schedule.setRetryCount(0);
+            schedule.setLastRunAt(now);
+
+            LocalDateTime next = nextOccurrence(schedule, now);
+            if (next == null) {
+                schedule.setStatus(ScheduledTransfer.ScheduleStatus.COMPLETED);
+            } else {
+                schedule.setNextRunAt(next);
+            }
+            return true;
+        }));
+    }
+
+    /**
+     * Record an attempt that rolled back on an unexpected error and push the
+     * occurrence back, in a transaction of its own. Left due, it would stay at
+     * the head of the due order and be retried on every poll, ahead of every
+     * schedule due after it.
+     */
+    void deferOccurrence(Long id, LocalDateTime now, String reason) {
+        runTemplate.executeWithoutResult(status -> {
+            ScheduledTransfer schedule = scheduledTransferRepository.findForUpdateById(id).orElse(null);
+            if (schedule == null || schedule.getStatus() != ScheduledTransfer.ScheduleStatus.ACTIVE
+                    || schedule.getNextRunAt().isAfter(now)) {
+                return;
+            }
+            int retries = schedule.getRetryCount() + 1;
+            long delayMs = Math.min(retryBackoffMaxMs, retryBackoffBaseMs << Math.min(retries - 1, 20));
+            schedule.setRetryCount(retries);
+            schedule.setLastFailureReason(truncate(reason));
+            schedule.setNextRunAt(LocalDateTime.now().plus(delayMs, ChronoUnit.MILLIS));
+            log.warn("Scheduled transfer {} deferred by {} ms after {} failed attempt(s)", id, delayMs, retries);
+        });
+    }
+
+    /**
+     * The first occurrence strictly after the given time, or null when the schedule has no more
+     */
+    static LocalDateTime nextOccurrence(ScheduledTransfer schedule, LocalDateTime after) {
+        LocalDateTime next = switch (schedule.getFrequency()) {
+            case ONCE -> schedule.getStartAt().isAfter(after) ? schedule.getStartAt() : null;
+            case DAILY -> nextPeriod(schedule.getStartAt(), after, ChronoUnit.DAYS);
+            case WEEKLY -> nextPeriod(schedule.getStartAt(), after, ChronoUnit.WEEKS);
+            case MONTHLY -> nextPeriod(schedule.getStartAt(), after, ChronoUnit.MONTHS);
+            case CRON -> CronExpression.parse(schedule.getCronExpression()).next(after);
+        };
+        if (next != null && schedule.getEndAt() != null && next.isAfter(schedule.getEndAt())) {
+            return null;
+        }
+        return next;
+    }
+
+    /**
+     * start plus the smallest whole number of periods that lands after the given time.
+     * Always counted from start, so a monthly schedule from the 31st is back on the 31st after February.
+     */
+    private static LocalDateTime nextPeriod(LocalDateTime start, LocalDateTime after, ChronoUnit unit) {
+        if (start.isAfter(after)) {
+            return start;
+        }
+        long periods = unit.between(start, after);
+        LocalDateTime next = start.plus(periods, unit);
+        while (!next.isAfter(after)) {
+            next = start.plus(++periods, unit);
+        }
+        return next;
+    }
+
+    private boolean runQuietly(Long id, LocalDateTime now) {
+        try {
+            return runOccurrence(id, now);
+        } catch (RuntimeException ex) {
+            // Rolled back as a whole, so the occurrence is still due until it is deferred
+            log.error("Scheduled transfer {} failed, will retry: {}", id, ex.getMessage());
+            try {
+                deferOccurrence(id, now, String.valueOf(ex.getMessage()));
+            } catch (RuntimeException deferFailure) {
+                log.error("Could not defer scheduled transfer {}: {}", id, deferFailure.getMessage());
+            }
+            return false;
+        }
+    }
+
+    // lastFailureReason is a default-length column; database errors can run longer
+    private static String truncate(String reason) {
+        return reason.length() <= 255 ? reason : reason.substring(0, 255);
+    }
+
+    private void dispatchQuietly() {
+        try {
+            int ran = dispatch();
+            if (ran > 0) {
+                log.debug("Ran {} scheduled transfers", ran);
+            }
+        } catch (RuntimeException ex) {
+            log.error("Scheduled transfer dispatch failed, will retry: {}", ex.getMessage());
+        }
+    }
+
+    private static BankingException notFound(Long id) {
+        return new BankingException("Scheduled transfer not found: " + id);
+    }
+
+    private static ScheduledTransferDTO.ScheduledTransferResponse toResponse(ScheduledTransfer schedule) {
+        return new ScheduledTransferDTO.ScheduledTransferResponse(
+            schedule.getId(),
+            schedule.getFromAccountNumber(),
+            schedule.getToAccountNumber(),
+            schedule.getAmount(),
+            schedule.getDescription(),
+            schedule.getFrequency().name(),
+            schedule.getCronExpression(),
+            schedule.getStartAt(),
+            schedule.getEndAt(),
+            schedule.getNextRunAt(),
+            schedule.getStatus().name(),
+            schedule.getRunCount(),
+            schedule.getFailureCount(),
+            schedule.getLastRunAt(),
+            schedule.getLastTransactionId(),
+            schedule.getLastFailureReason()
+        );
+    }
+}
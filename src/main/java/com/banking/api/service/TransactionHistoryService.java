@@ -0,0 +1,120 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.AccountNotFoundException;
+import com.banking.api.exception.BankingException;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.TransactionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionHistoryService {
+    
+    // Inclusive lower bound used when the caller gives no start of range
+    private static final LocalDateTime BEGINNING_OF_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+    
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator
+        .comparing(Transaction::getTimestamp)
+        .thenComparing(Transaction::getId)
+        .reversed();
+    
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    
+    /**
+     * Get one page of an account's transactions, newest first
+     * - since is inclusive, until is exclusive; either may be null
+     * - cursor is the opaque nextCursor of the previous page
+     * - outgoing and incoming legs are read with one index-ordered query each and
+     *   merged here, so no page ever needs a sort over the account's full history
+     */
+    @Transactional(readOnly = true)
+    public TransferDTO.TransactionHistoryResponse getHistory(String accountNumber, LocalDateTime since,
+                                                             LocalDateTime until, String cursor, int limit) {
+        if (!accountRepository.existsByAccountNumber(accountNumber)) {
+            throw new AccountNotFoundException(accountNumber);
+        }
+        
+        LocalDateTime lowerBound = since != null ? since : BEGINNING_OF_TIME;
+        LocalDateTime beforeTimestamp = until != null ? until : END_OF_TIME;
+        // With no cursor, (timestamp < until) OR (timestamp = until AND id < MIN) is just timestamp < until
+        long beforeId = Long.MIN_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor position = decodeCursor(cursor);
+            if (position.timestamp().isBefore(beforeTimestamp)) {
+                beforeTimestamp = position.timestamp();
+                beforeId = position.id();
+            }
+        }
+        
+        // One row past the page on each side tells us whether another page exists
+        Limit sideLimit = Limit.of(limit + 1);
+        List<Transaction> outgoing = transactionRepository.findOutgoingPage(
+            accountNumber, lowerBound, beforeTimestamp, beforeId, sideLimit);
+        List<Transaction> incoming = transactionRepository.findIncomingPage(
+            accountNumber, lowerBound, beforeTimestamp, beforeId, sideLimit);
+        
+        List<Transaction> merged = merge(outgoing, incoming, limit + 1);
+        String nextCursor = null;
+        if (merged.size() > limit) {
+            merged = merged.subList(0, limit);
+            nextCursor = encodeCursor(merged.get(limit - 1));
+        }
+        
+        List<TransferDTO.TransferResponse> transactions = new ArrayList<>(merged.size());
+        for (Transaction transaction : merged) {
+            transactions.add(TransferService.buildTransferResponse(transaction));
+        }
+        return new TransferDTO.TransactionHistoryResponse(accountNumber, transactions, nextCursor);
+    }
+    
+    private List<Transaction> merge(List<Transaction> outgoing, List<Transaction> incoming, int maxSize) {
+        List<Transaction> merged = new ArrayList<>(Math.min(maxSize, outgoing.size() + incoming.size()));
+        int i = 0;
+        int j = 0;
+        while (merged.size() < maxSize && (i < outgoing.size() || j < incoming.size())) {
+            if (j >= incoming.size()
+                    || (i < outgoing.size() && NEWEST_FIRST.compare(outgoing.get(i), incoming.get(j)) <= 0)) {
+                merged.add(outgoing.get(i++));
+            } else {
+                merged.add(incoming.get(j++));
+            }
+        }
+        return merged;
+    }
+    
+    private String encodeCursor(Transaction last) {
+        String position = last.getTimestamp() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private Cursor decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(position.substring(0, separator)),
+                Long.parseLong(position.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new BankingException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    private record Cursor(LocalDateTime timestamp, long id) {
+    }
+}
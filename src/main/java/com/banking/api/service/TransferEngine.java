@@ -0,0 +1,21 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.TransferDTO;
+
+/**
+ * Contract shared by all transfer engines.
+ * The database-backed TransferService is the default; alternative engines
+ * are selected with the banking.transfer.engine property.
+ */
+public interface TransferEngine {
+    
+    TransferDTO.TransferResponse executeTransfer(TransferDTO.TransferRequest request);
+    
+    /**
+     * Execute a transfer recording the client's idempotency key on the
+     * transaction, so a repeat of the same key can be answered from storage.
+     */
+    TransferDTO.TransferResponse executeTransfer(TransferDTO.TransferRequest request, String idempotencyKey);
+    
+    TransferDTO.TransferResponse getTransactionStatus(String transactionId);
+}
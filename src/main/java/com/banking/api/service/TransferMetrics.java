@@ -0,0 +1,184 @@
+package com.banking.api.service;
+
+import com.banking.api.model.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Micrometer instrumentation for the transfer pipeline.
+ *
+ * Callers take System.nanoTime() themselves and hand over elapsed nanos, so
+ * recording is a histogram bucket increment with no allocation on the hot path.
+ * Every meter is registered up front except failure counters, whose reason tag
+ * is the exception's simple class name and therefore bounded by the code base.
+ */
+@Component
+public class TransferMetrics {
+    
+    public enum Stage {
+        VALIDATE, LOCK, BALANCE_UPDATE, SAVE, COMMIT
+    }
+    
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1).dividedBy(100);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+    
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+    private final Map<Transaction.TransactionStatus, Counter> statusCounters =
+        new EnumMap<>(Transaction.TransactionStatus.class);
+    private final Map<Class<?>, Counter> failureCounters = new ConcurrentHashMap<>();
+    private final Timer completedTimer;
+    private final Timer failedTimer;
+    private final Counter optimisticRetries;
+    private final Counter optimisticExhausted;
+    private final DistributionSummary optimisticAttempts;
+    
+    // Lock waits in flight: active time = waiters * now - sum of their start times
+    private final AtomicInteger lockWaiters = new AtomicInteger();
+    private final AtomicLong lockWaitStartSum = new AtomicLong();
+    
+    public TransferMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            stageTimers.put(stage, histogram("banking.transfer.stage")
+                .description("Time spent in each stage of a transfer")
+                .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                .register(registry));
+        }
+        for (Transaction.TransactionStatus status : Transaction.TransactionStatus.values()) {
+            statusCounters.put(status, Counter.builder("banking.transfer.status")
+                .description("Transfers by final transaction status")
+                .tag("status", status.name())
+                .register(registry));
+        }
+        this.completedTimer = histogram("banking.transfer")
+            .description("End-to-end transfer time, excluding commit")
+            .tag("outcome", "completed")
+            .register(registry);
+        this.failedTimer = histogram("banking.transfer")
+            .description("End-to-end transfer time, excluding commit")
+            .tag("outcome", "failed")
+            .register(registry);
+        this.optimisticRetries = Counter.builder("banking.transfer.optimistic.retries")
+            .description("Optimistic transfer attempts retried after a version conflict")
+            .register(registry);
+        this.optimisticExhausted = Counter.builder("banking.transfer.optimistic.exhausted")
+            .description("Optimistic transfers that ran out of retries")
+            .register(registry);
+        this.optimisticAttempts = DistributionSummary.builder("banking.transfer.optimistic.attempts")
+            .description("Attempts taken per optimistic transfer")
+            .serviceLevelObjectives(1, 2, 3, 5, 10)
+            .register(registry);
+        
+        Gauge.builder("banking.transfer.lock.waiters", lockWaiters, AtomicInteger::get)
+            .description("Transfers currently waiting for an account row lock")
+            .register(registry);
+        Gauge.builder("banking.transfer.lock.wait.active", this, TransferMetrics::activeLockWaitSeconds)
+            .description("Total time transfers currently waiting on row locks have spent waiting")
+            .baseUnit("seconds")
+            .register(registry);
+    }
+    
+    public void recordStage(Stage stage, long nanos) {
+        stageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    /**
+     * Mark the start of a row lock acquisition; returns the start time to pass to lockAcquired
+     */
+    public long lockWaitStarted() {
+        long started = System.nanoTime();
+        lockWaitStartSum.addAndGet(started);
+        lockWaiters.incrementAndGet();
+        return started;
+    }
+    
+    public void lockAcquired(long started) {
+        lockWaiters.decrementAndGet();
+        lockWaitStartSum.addAndGet(-started);
+        recordStage(Stage.LOCK, System.nanoTime() - started);
+    }
+    
+    public void recordCompleted(long nanos) {
+        statusCounters.get(Transaction.TransactionStatus.COMPLETED).increment();
+        completedTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+    
+    public void recordFailed(Throwable failure, long nanos) {
+        statusCounters.get(Transaction.TransactionStatus.FAILED).increment();
+        failedTimer.record(nanos, TimeUnit.NANOSECONDS);
+        failureCounters.computeIfAbsent(failure.getClass(), type -> Counter.builder("banking.transfer.failures")
+                .description("Failed transfers by failure reason")
+                .tag("reason", type.getSimpleName())
+                .register(registry))
+            .increment();
+    }
+    
+    public void recordOptimisticRetry() {
+        optimisticRetries.increment();
+    }
+    
+    /**
+     * Record how many attempts an optimistic transfer took, and whether it gave up
+     */
+    public void recordOptimisticAttempts(int attempts, boolean exhausted) {
+        optimisticAttempts.record(attempts);
+        if (exhausted) {
+            optimisticExhausted.increment();
+        }
+    }
+    
+    /**
+     * Time the commit of the current transaction, if there is one
+     */
+    public void timeCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private long commitStarted;
+            
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commitStarted = System.nanoTime();
+            }
+            
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED && commitStarted != 0) {
+                    recordStage(Stage.COMMIT, System.nanoTime() - commitStarted);
+                }
+            }
+        });
+    }
+    
+    private double activeLockWaitSeconds() {
+        // The two reads race with waiters arriving and leaving; a transient skew is clamped at zero
+        long startSum = lockWaitStartSum.get();
+        int waiters = lockWaiters.get();
+        long activeNanos = waiters * System.nanoTime() - startSum;
+        return waiters <= 0 || activeNanos < 0 ? 0 : activeNanos / 1e9;
+    }
+    
+    private static Timer.Builder histogram(String name) {
+        return Timer.builder(name)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(MIN_EXPECTED)
+            .maximumExpectedValue(MAX_EXPECTED);
+    }
+}
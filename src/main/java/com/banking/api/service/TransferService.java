@@ -3,9 +3,11 @@ package com.banking.api.service;
 import com.banking.api.dto.TransferDTO;
 import com.banking.api.exception.*;
 import com.banking.api.model.Account;
+import com.banking.api.model.Money;
 import com.banking.api.model.Transaction;
 import com.banking.api.repository.AccountRepository;
 import com.banking.api.repository.TransactionRepository;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -18,15 +20,25 @@ import com.banking.api.exception.AccountInactiveException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class TransferService {
+public class TransferService implements TransferEngine {
+    
+    // ISO 4217 "no currency": recorded on transaction rows whose source account was never read
+    static final String NO_CURRENCY = "XXX";
     
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
+    private final HotAccountService hotAccountService;
+    private final TransferMetrics transferMetrics;
+    private final BalanceCache balanceCache;
+    private final EntityManager entityManager;
     
     /**
      * Execute fund transfer with ACID guarantees
@@ -35,60 +47,146 @@ public class TransferService {
      * - Isolation: SERIALIZABLE level prevents concurrent modification
      * - Durability: Changes are persisted to database
      */
-    @Transactional(isolation = Isolation.SERIALIZABLE, rollbackFor = Exception.class)
+    @Override
+    @Transactional(isolation = Isolation.SERIALIZABLE, rollbackFor = Exception.class,
+                   noRollbackFor = BankingException.class)
     public TransferDTO.TransferResponse executeTransfer(TransferDTO.TransferRequest request) {
+        return executeTransfer(request, null);
+    }
+    
+    /**
+     * A successful transfer is three statements: one SELECT ... FOR UPDATE that
+     * locks both accounts in account number order, one UPDATE that applies both
+     * balance deltas, and one INSERT of the transaction row with its final status.
+     * Business failures (BankingException) commit a FAILED row instead; nothing
+     * else has been written by then, so there is nothing to roll back.
+     */
+    @Override
+    @Transactional(isolation = Isolation.SERIALIZABLE, rollbackFor = Exception.class,
+                   noRollbackFor = BankingException.class)
+    public TransferDTO.TransferResponse executeTransfer(TransferDTO.TransferRequest request, String idempotencyKey) {
+        return transfer(request, idempotencyKey, null);
+    }
+    
+    /**
+     * Run a transfer that was accepted earlier as a PENDING row, moving that row to
+     * COMPLETED or FAILED. A row that is no longer PENDING was already processed
+     * (e.g. resubmitted after a restart) and is returned unchanged.
+     */
+    @Transactional(isolation = Isolation.SERIALIZABLE, rollbackFor = Exception.class,
+                   noRollbackFor = BankingException.class)
+    public TransferDTO.TransferResponse executePendingTransfer(String transactionId) {
+        Transaction pending = transactionRepository.findByTransactionId(transactionId)
+            .orElseThrow(() -> new BankingException("Transaction not found: " + transactionId));
+        if (pending.getStatus() != Transaction.TransactionStatus.PENDING) {
+            return buildTransferResponse(pending);
+        }
+        TransferDTO.TransferRequest request = new TransferDTO.TransferRequest(pending.getFromAccountNumber(),
+            pending.getToAccountNumber(), pending.getAmount(), pending.getDescription());
+        return transfer(request, pending.getIdempotencyKey(), pending);
+    }
+    
+    private TransferDTO.TransferResponse transfer(TransferDTO.TransferRequest request, String idempotencyKey,
+                                                  Transaction pending) {
+        
+        long started = System.nanoTime();
         
         // Validate transfer request
-        validateTransferRequest(request);
+        try {
+            validateTransferRequest(request);
+        } catch (InvalidTransferException ex) {
+            transferMetrics.recordFailed(ex, System.nanoTime() - started);
+            throw ex;
+        }
+        transferMetrics.recordStage(TransferMetrics.Stage.VALIDATE, System.nanoTime() - started);
         
-        // Create transaction record
-        String transactionId = generateTransactionId();
-        Transaction transaction = createPendingTransaction(transactionId, request);
+        String transactionId = pending != null ? pending.getTransactionId() : generateTransactionId();
+        String fromAccountNumber = request.getFromAccountNumber();
+        String toAccountNumber = request.getToAccountNumber();
+        String currency = NO_CURRENCY;
         
         try {
-            // Lock and retrieve both accounts (ordered to prevent deadlock)
-            Account fromAccount = lockAccount(request.getFromAccountNumber());
-            Account toAccount = lockAccount(request.getToAccountNumber());
+            // Hot destinations are credited through a sub-ledger slot, so only the source row is locked
+            boolean hotDestination = hotAccountService.slotCount(toAccountNumber) > 0;
+            Map<String, Account> locked = hotDestination
+                ? lockAccounts(List.of(fromAccountNumber))
+                : lockAccounts(List.of(fromAccountNumber, toAccountNumber));
+            Account fromAccount = requireAccount(locked, fromAccountNumber);
+            currency = fromAccount.getCurrency();
+            Account toAccount = hotDestination ? readAccount(toAccountNumber) : requireAccount(locked, toAccountNumber);
             
             // Validate accounts
             validateAccount(fromAccount, "source");
             validateAccount(toAccount, "destination");
+            Money amount = toMoney(request.getAmount(), fromAccount.getCurrency());
             
-            // Check sufficient funds
-            if (fromAccount.getBalance().compareTo(request.getAmount()) < 0) {
-                transaction.setStatus(Transaction.TransactionStatus.FAILED);
-                transaction.setFailureReason("Insufficient funds");
-                transactionRepository.save(transaction);
-                throw new InsufficientFundsException("Insufficient funds in account: " + fromAccount.getAccountNumber());
+            // A hot source may hold most of its funds in slots; fold them back before debiting
+            Money available = fromAccount.getBalance();
+            Money swept = Money.zero(available.scale());
+            if (fromAccount.getHotSlots() > 0 && available.compareTo(amount) < 0) {
+                swept = hotAccountService.sweep(fromAccountNumber);
+                available = available.plus(swept);
             }
             
-            // Execute transfer (debit source, credit destination)
-            fromAccount.setBalance(fromAccount.getBalance().subtract(request.getAmount()));
-            toAccount.setBalance(toAccount.getBalance().add(request.getAmount()));
+            LocalDateTime now = LocalDateTime.now();
             
-            // Save accounts
-            accountRepository.save(fromAccount);
-            accountRepository.save(toAccount);
+            // Check sufficient funds
+            if (available.compareTo(amount) < 0) {
+                if (swept.signum() != 0) {
+                    // The slots were already emptied; keep what they held on the row
+                    accountRepository.adjustBalance(fromAccountNumber, swept.toBigDecimal(), now);
+                    entityManager.detach(fromAccount);
+                }
+                throw new InsufficientFundsException("Insufficient funds in account: " + fromAccountNumber);
+            }
+            
+            // Execute transfer (debit source, credit destination); entities are left untouched,
+            // so Hibernate has nothing dirty to flush on top of the UPDATE
+            long updateStarted = System.nanoTime();
+            BigDecimal fromDelta = swept.minus(amount).toBigDecimal();
+            BigDecimal toDelta = amount.toBigDecimal();
+            if (hotDestination) {
+                accountRepository.adjustBalance(fromAccountNumber, fromDelta, now);
+                if (!hotAccountService.credit(toAccountNumber, toDelta)) {
+                    // Slots were removed since we checked; credit the (unlocked) row in place
+                    accountRepository.adjustBalance(toAccountNumber, toDelta, now);
+                }
+            } else if (accountRepository.applyTransfer(fromAccountNumber, fromDelta, toAccountNumber, toDelta, now) != 2) {
+                // Both rows are locked and the funds were checked, so this means the invariant is broken
+                throw new IllegalStateException("Transfer " + transactionId + " did not update both accounts");
+            }
+            // The UPDATE bypassed the loaded entities; detach them so later reads in a
+            // surrounding transaction load the new balances instead of these stale copies
+            entityManager.detach(fromAccount);
+            entityManager.detach(toAccount);
+            balanceCache.evictAfterCommit(fromAccountNumber, toAccountNumber);
+            transferMetrics.recordStage(TransferMetrics.Stage.BALANCE_UPDATE, System.nanoTime() - updateStarted);
             
-            // Mark transaction as completed
-            transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
-            transactionRepository.save(transaction);
+            // Record the transaction once, already completed (a reused idempotency key fails here on the unique index)
+            Transaction transaction = saveTransaction(complete(pending, transactionId, request, currency,
+                idempotencyKey, Transaction.TransactionStatus.COMPLETED, null));
+            transferMetrics.recordCompleted(System.nanoTime() - started);
+            transferMetrics.timeCommit();
             
-            log.info("Transfer completed: {} -> {}, Amount: {}", 
-                fromAccount.getAccountNumber(), toAccount.getAccountNumber(), request.getAmount());
+            log.info("Transfer completed: {} -> {}, Amount: {}", fromAccountNumber, toAccountNumber, amount);
             
             return buildTransferResponse(transaction);
             
-        } catch (Exception ex) {
-            transaction.setStatus(Transaction.TransactionStatus.FAILED);
-            transaction.setFailureReason(ex.getMessage());
-            transactionRepository.save(transaction);
+        } catch (BankingException ex) {
+            // Left without the idempotency key: failed transfers are not replayed, a retry runs again
+            saveTransaction(complete(pending, transactionId, request, currency, null,
+                Transaction.TransactionStatus.FAILED, ex.getMessage()));
+            transferMetrics.recordFailed(ex, System.nanoTime() - started);
+            log.error("Transfer failed: {}", ex.getMessage());
+            throw ex;
+        } catch (RuntimeException ex) {
+            transferMetrics.recordFailed(ex, System.nanoTime() - started);
             log.error("Transfer failed: {}", ex.getMessage());
             throw ex;
         }
     }
     
-    private void validateTransferRequest(TransferDTO.TransferRequest request) {
+    static void validateTransferRequest(TransferDTO.TransferRequest request) {
         if (request.getFromAccountNumber().equals(request.getToAccountNumber())) {
             throw new InvalidTransferException("Cannot transfer to the same account");
         }
@@ -98,35 +196,102 @@ public class TransferService {
         }
     }
     
-    private Account lockAccount(String accountNumber) {
-        return accountRepository.findByAccountNumber(accountNumber)
+    /**
+     * The transfer amount in minor units of the source account's currency
+     */
+    static Money toMoney(BigDecimal amount, String currency) {
+        try {
+            return Money.of(amount, currency);
+        } catch (ArithmeticException ex) {
+            throw new InvalidTransferException("Transfer amount " + amount.toPlainString()
+                + " is not a valid " + currency + " amount");
+        }
+    }
+    
+    private Map<String, Account> lockAccounts(List<String> accountNumbers) {
+        // Sorted so every transfer takes its row locks in the same order
+        List<String> ordered = accountNumbers.stream().sorted().toList();
+        long lockStarted = transferMetrics.lockWaitStarted();
+        try {
+            Map<String, Account> accounts = new HashMap<>();
+            for (Account account : accountRepository.findAllForUpdateByAccountNumberIn(ordered)) {
+                accounts.put(account.getAccountNumber(), account);
+            }
+            return accounts;
+        } finally {
+            transferMetrics.lockAcquired(lockStarted);
+        }
+    }
+    
+    private Account requireAccount(Map<String, Account> accounts, String accountNumber) {
+        Account account = accounts.get(accountNumber);
+        if (account == null) {
+            throw new AccountNotFoundException(accountNumber);
+        }
+        return account;
+    }
+    
+    private Account readAccount(String accountNumber) {
+        return accountRepository.findSnapshotByAccountNumber(accountNumber)
             .orElseThrow(() -> new AccountNotFoundException(accountNumber));
     }
     
     private void validateAccount(Account account, String type) {
-        if (account.getStatus() != Account.AccountStatus.ACTIVE) {
-            throw new AccountInactiveException(account.getAccountNumber());
+        validateAccount(account.getAccountNumber(), account.getStatus());
+    }
+    
+    static void validateAccount(String accountNumber, Account.AccountStatus status) {
+        if (status != Account.AccountStatus.ACTIVE) {
+            throw new AccountInactiveException(accountNumber);
         }
     }
     
-    private Transaction createPendingTransaction(String transactionId, TransferDTO.TransferRequest request) {
+    private static Transaction complete(Transaction pending, String transactionId, TransferDTO.TransferRequest request,
+                                        String currency, String idempotencyKey,
+                                        Transaction.TransactionStatus status, String failureReason) {
+        if (pending == null) {
+            return buildTransaction(transactionId, request, currency, idempotencyKey, status, failureReason);
+        }
+        // An accepted transfer keeps its row and its key; the client already holds its id
+        pending.setCurrency(currency);
+        pending.setStatus(status);
+        pending.setFailureReason(failureReason);
+        return pending;
+    }
+    
+    /**
+     * A transaction row in the source account's currency; use NO_CURRENCY when
+     * the source account was never read
+     */
+    static Transaction buildTransaction(String transactionId, TransferDTO.TransferRequest request, String currency,
+                                        String idempotencyKey, Transaction.TransactionStatus status,
+                                        String failureReason) {
         Transaction transaction = new Transaction();
         transaction.setTransactionId(transactionId);
+        transaction.setIdempotencyKey(idempotencyKey);
         transaction.setFromAccountNumber(request.getFromAccountNumber());
         transaction.setToAccountNumber(request.getToAccountNumber());
         transaction.setAmount(request.getAmount());
-        transaction.setCurrency("USD");
-        transaction.setStatus(Transaction.TransactionStatus.PENDING);
+        transaction.setCurrency(currency);
+        transaction.setStatus(status);
         transaction.setType(Transaction.TransactionType.TRANSFER);
         transaction.setDescription(request.getDescription());
-        return transactionRepository.save(transaction);
+        transaction.setFailureReason(failureReason);
+        return transaction;
+    }
+    
+    private Transaction saveTransaction(Transaction transaction) {
+        long saveStarted = System.nanoTime();
+        Transaction saved = transactionRepository.save(transaction);
+        transferMetrics.recordStage(TransferMetrics.Stage.SAVE, System.nanoTime() - saveStarted);
+        return saved;
     }
     
-    private String generateTransactionId() {
+    static String generateTransactionId() {
         return "TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
     }
     
-    private TransferDTO.TransferResponse buildTransferResponse(Transaction transaction) {
+    static TransferDTO.TransferResponse buildTransferResponse(Transaction transaction) {
         return new TransferDTO.TransferResponse(
             transaction.getTransactionId(),
             transaction.getFromAccountNumber(),
@@ -137,11 +302,11 @@ public class TransferService {
             transaction.getStatus() != null ? transaction.getStatus().toString() : "PENDING",
             transaction.getDescription(),
             // Fix: Null-safe timestamp check
-            transaction.getTimestamp() != null ? 
-                transaction.getTimestamp().toString() : LocalDateTime.now().toString()
+            transaction.getTimestamp() != null ? transaction.getTimestamp() : LocalDateTime.now()
         );
     }
     
+    @Override
     @Transactional(readOnly = true)
     public TransferDTO.TransferResponse getTransactionStatus(String transactionId) {
         Transaction transaction = transactionRepository.findByTransactionId(transactionId)
@@ -0,0 +1,53 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.TransferDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Local stand-in for webhook delivery of async transfer results.
+ *
+ * Nothing leaves the process: each callback is logged and kept in a bounded
+ * in-memory inbox that clients and tests can read back. Swapping this bean for
+ * one that POSTs the payload to the callback URL is all a real webhook needs.
+ */
+@Component
+@Slf4j
+public class TransferWebhookNotifier {
+    
+    private final int capacity;
+    private final Deque<TransferDTO.WebhookDelivery> deliveries = new ArrayDeque<>();
+    
+    public TransferWebhookNotifier(@Value("${banking.transfer.async.webhook-inbox-size:1000}") int capacity) {
+        this.capacity = capacity;
+    }
+    
+    public void deliver(String callbackUrl, TransferDTO.TransferResponse payload) {
+        TransferDTO.WebhookDelivery delivery =
+            new TransferDTO.WebhookDelivery(callbackUrl, payload, LocalDateTime.now().toString());
+        synchronized (deliveries) {
+            if (deliveries.size() == capacity) {
+                deliveries.removeFirst();
+            }
+            deliveries.addLast(delivery);
+        }
+        log.info("Webhook {} -> {} {}", callbackUrl, payload.getTransactionId(), payload.getStatus());
+    }
+    
+    /**
+     * Deliveries made to the given callback URL, oldest first
+     */
+    public List<TransferDTO.WebhookDelivery> deliveriesTo(String callbackUrl) {
+        synchronized (deliveries) {
+            return deliveries.stream()
+                .filter(delivery -> delivery.getCallbackUrl().equals(callbackUrl))
+                .toList();
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.banking.api.service.ledger;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.BankingException;
+import com.banking.api.exception.InvalidTransferException;
+import com.banking.api.model.Account;
+import com.banking.api.model.Money;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.TransactionRepository;
+import com.banking.api.service.BalanceCache;
+import com.banking.api.service.TransferEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Transfer engine that keeps balances in memory and persists asynchronously.
+ *
+ * Enabled with banking.transfer.engine=in-memory. A transfer is accepted once
+ * it has been applied to the sharded in-memory ledger and its write-ahead log
+ * entry is on disk; concurrent transfers share one fsync. A background flusher
+ * then writes batches of entries to the database in one transaction each, so
+ * no transfer waits for a database commit. Database balances therefore trail the
+ * ledger by at most one flush interval, and the ledger must be the only writer
+ * of account balances while this engine is active.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(name = "banking.transfer.engine", havingValue = "in-memory")
+@Slf4j
+public class InMemoryLedgerTransferService implements TransferEngine {
+
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final BalanceCache balanceCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardedLedger ledger;
+    private final LedgerWriteAheadLog writeAheadLog;
+    private final long flushIntervalMs;
+    private final int flushBatchSize;
+    private final ScheduledExecutorService flusher;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Highest sequence handed back to the queue after a failed persist; guarded by flushLock
+    private long requeuedThrough = -1;
+
+    public InMemoryLedgerTransferService(
+            AccountRepository accountRepository,
+            TransactionRepository transactionRepository,
+            BalanceCache balanceCache,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${banking.ledger.shards:16}") int shards,
+            @Value("${banking.ledger.lock-stripes:1024}") int lockStripes,
+            @Value("${banking.ledger.wal-dir:ledger-wal}") String walDir,
+            @Value("${banking.ledger.segment-bytes:67108864}") int segmentBytes,
+            @Value("${banking.ledger.flush-interval-ms:50}") long flushIntervalMs,
+            @Value("${banking.ledger.flush-batch-size:500}") int flushBatchSize) throws IOException {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.balanceCache = balanceCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ledger = new ShardedLedger(shards, lockStripes,
+            accountNumber -> accountRepository.findSnapshotByAccountNumber(accountNumber).map(LedgerAccount::new));
+        this.writeAheadLog = new LedgerWriteAheadLog(Path.of(walDir), objectMapper, segmentBytes);
+        this.flushIntervalMs = flushIntervalMs;
+        this.flushBatchSize = flushBatchSize;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ledger-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    void start() {
+        // Anything journalled before the last shutdown must reach the database
+        // before accounts are loaded into the ledger
+        flushPending(true);
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("In-memory ledger engine started");
+    }
+
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flushPending(false);
+        writeAheadLog.close();
+    }
+
+    @Override
+    public TransferDTO.TransferResponse executeTransfer(TransferDTO.TransferRequest request) {
+        return executeTransfer(request, null);
+    }
+
+    /**
+     * The idempotency key is journalled with the entry. A key already used by an
+     * unflushed entry or a stored transaction replays that transfer; one that
+     * slips past this check is caught again when its entry is flushed.
+     */
+    @Override
+    public TransferDTO.TransferResponse executeTransfer(TransferDTO.TransferRequest request, String idempotencyKey) {
+        validateTransferRequest(request);
+
+        if (idempotencyKey != null) {
+            Optional<TransferDTO.TransferResponse> previous = writeAheadLog.findPendingByIdempotencyKey(idempotencyKey)
+                .map(this::buildTransferResponse)
+                .or(() -> transactionRepository.findByIdempotencyKey(idempotencyKey).map(this::buildTransferResponse));
+            if (previous.isPresent()) {
+                return replay(previous.get(), request);
+            }
+        }
+
+        LedgerEntry entry = ledger.transfer(request.getFromAccountNumber(), request.getToAccountNumber(),
+            request.getAmount(), currency -> journal(request, idempotencyKey, currency));
+        // Outside the ledger locks, so other transfers keep appending while this one waits
+        try {
+            writeAheadLog.awaitDurable(entry.sequence());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to sync ledger log", ex);
+        }
+
+        log.debug("Transfer completed: {} -> {}, Amount: {}",
+            entry.fromAccountNumber(), entry.toAccountNumber(), entry.amount());
+
+        return buildTransferResponse(entry);
+    }
+
+    @Override
+    public TransferDTO.TransferResponse getTransactionStatus(String transactionId) {
+        // Recently accepted transfers may not have been flushed yet
+        return writeAheadLog.findPending(transactionId)
+            .map(this::buildTransferResponse)
+            .or(() -> transactionRepository.findByTransactionId(transactionId).map(this::buildTransferResponse))
+            .orElseThrow(() -> new BankingException("Transaction not found: " + transactionId));
+    }
+
+    /**
+     * The database trails the ledger until the next flush, so account reads
+     * take their balances from here while this engine is active
+     */
+    public AccountDTO.BalanceResponse getBalance(String accountNumber) {
+        LedgerAccount account = ledger.get(accountNumber);
+        return new AccountDTO.BalanceResponse(
+            account.getAccountNumber(), account.getBalance().toBigDecimal(), account.getCurrency());
+    }
+
+    public Money balanceOf(Account account) {
+        return ledger.find(account.getAccountNumber())
+            .map(LedgerAccount::getBalance)
+            .orElse(account.getBalance());
+    }
+
+    public Map<String, Money> balancesOf(List<Account> accounts) {
+        Map<String, Money> balances = new HashMap<>(accounts.size() * 2);
+        for (Account account : accounts) {
+            balances.put(account.getAccountNumber(), balanceOf(account));
+        }
+        return balances;
+    }
+
+    /**
+     * Persist every queued entry. Serialized so checkpoints are always
+     * written in sequence order even when called outside the flusher thread.
+     */
+    void flushPending(boolean recovering) {
+        flushLock.lock();
+        try {
+            List<LedgerEntry> batch;
+            while (!(batch = writeAheadLog.drain(flushBatchSize)).isEmpty()) {
+                persist(batch, recovering);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    BigDecimal ledgerBalance(String accountNumber) {
+        return ledger.get(accountNumber).getBalance().toBigDecimal();
+    }
+
+    BigDecimal totalLedgerBalance() {
+        return ledger.totalBalance().toBigDecimal();
+    }
+
+    private void flushQuietly() {
+        try {
+            flushPending(false);
+        } catch (RuntimeException ex) {
+            log.error("Ledger flush failed, will retry: {}", ex.getMessage());
+        }
+    }
+
+    private void persist(List<LedgerEntry> batch, boolean recovering) {
+        try {
+            writeAheadLog.sync();
+            transactionTemplate.executeWithoutResult(status -> {
+                // Sorted so concurrent writers always lock account rows in the same order
+                Map<String, BigDecimal> deltas = new TreeMap<>();
+                List<Transaction> transactions = new ArrayList<>(batch.size());
+
+                for (LedgerEntry entry : batch) {
+                    // After a crash, or a failed checkpoint, between commit and checkpoint,
+                    // entries may already be stored
+                    boolean maybeStored = recovering || entry.sequence() <= requeuedThrough;
+                    if (maybeStored && transactionRepository.findByTransactionId(entry.transactionId()).isPresent()) {
+                        continue;
+                    }
+                    deltas.merge(entry.fromAccountNumber(), entry.amount().negate(), BigDecimal::add);
+                    deltas.merge(entry.toAccountNumber(), entry.amount(), BigDecimal::add);
+                    transactions.add(toTransaction(entry));
+                }
+
+                clearTakenIdempotencyKeys(transactions);
+
+                LocalDateTime now = LocalDateTime.now();
+                deltas.forEach((accountNumber, delta) -> {
+                    if (accountRepository.adjustBalance(accountNumber, delta, now) == 0) {
+                        log.warn("Ledger entry references missing account {}, skipping balance update", accountNumber);
+                    }
+                });
+                transactionRepository.saveAll(transactions);
+                balanceCache.evictAfterCommit(deltas.keySet());
+            });
+            writeAheadLog.checkpoint(batch.get(batch.size() - 1).sequence());
+        } catch (IOException ex) {
+            requeue(batch);
+            throw new UncheckedIOException(ex);
+        } catch (RuntimeException ex) {
+            requeue(batch);
+            throw ex;
+        }
+    }
+
+    /**
+     * A key committed by another writer, or reused within the batch, would fail
+     * the unique index and with it every retry of the batch. The transfer has
+     * already moved money in the ledger, so it is stored without the key instead.
+     */
+    private void clearTakenIdempotencyKeys(List<Transaction> transactions) {
+        List<String> keys = transactions.stream()
+            .map(Transaction::getIdempotencyKey)
+            .filter(Objects::nonNull)
+            .toList();
+        if (keys.isEmpty()) {
+            return;
+        }
+        Set<String> taken = new HashSet<>(transactionRepository.findIdempotencyKeysIn(keys));
+        for (Transaction transaction : transactions) {
+            String key = transaction.getIdempotencyKey();
+            if (key != null && !taken.add(key)) {
+                log.warn("Idempotency-Key {} of ledger entry {} is already taken, storing it without the key",
+                    key, transaction.getTransactionId());
+                transaction.setIdempotencyKey(null);
+            }
+        }
+    }
+
+    /**
+     * The batch may have committed before the failure (e.g. the checkpoint
+     * write failed), so its entries are checked against the database when retried
+     */
+    private void requeue(List<LedgerEntry> batch) {
+        requeuedThrough = Math.max(requeuedThrough, batch.get(batch.size() - 1).sequence());
+        writeAheadLog.requeue(batch);
+    }
+
+    private LedgerEntry journal(TransferDTO.TransferRequest request, String idempotencyKey, String currency) {
+        try {
+            return writeAheadLog.append(generateTransactionId(), idempotencyKey, request.getFromAccountNumber(),
+                request.getToAccountNumber(), request.getAmount(), currency, request.getDescription());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to append to ledger log", ex);
+        }
+    }
+
+    private TransferDTO.TransferResponse replay(TransferDTO.TransferResponse previous,
+                                                TransferDTO.TransferRequest request) {
+        if (!previous.getFromAccountNumber().equals(request.getFromAccountNumber())
+                || !previous.getToAccountNumber().equals(request.getToAccountNumber())
+                || previous.getAmount().compareTo(request.getAmount()) != 0) {
+            throw new InvalidTransferException("Idempotency-Key was already used for a different transfer");
+        }
+        return previous;
+    }
+
+    private void validateTransferRequest(TransferDTO.TransferRequest request) {
+        if (request.getFromAccountNumber().equals(request.getToAccountNumber())) {
+            throw new InvalidTransferException("Cannot transfer to the same account");
+        }
+
+        if (request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new InvalidTransferException("Transfer amount must be greater than zero");
+        }
+    }
+
+    private String generateTransactionId() {
+        return "TXN-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
+
+    private Transaction toTransaction(LedgerEntry entry) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId(entry.transactionId());
+        transaction.setIdempotencyKey(entry.idempotencyKey());
+        transaction.setFromAccountNumber(entry.fromAccountNumber());
+        transaction.setToAccountNumber(entry.toAccountNumber());
+        transaction.setAmount(entry.amount());
+        transaction.setCurrency(entry.currency());
+        transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+        transaction.setType(Transaction.TransactionType.TRANSFER);
+        transaction.setDescription(entry.description());
+        transaction.setTimestamp(entry.timestamp());
+        return transaction;
+    }
+
+    private TransferDTO.TransferResponse buildTransferResponse(LedgerEntry entry) {
+        return new TransferDTO.TransferResponse(
+            entry.transactionId(),
+            entry.fromAccountNumber(),
+            entry.toAccountNumber(),
+            entry.amount(),
+            entry.currency(),
+            Transaction.TransactionStatus.COMPLETED.toString(),
+            entry.description(),
+            entry.timestamp()
+        );
+    }
+
+    private TransferDTO.TransferResponse buildTransferResponse(Transaction transaction) {
+        return new TransferDTO.TransferResponse(
+            transaction.getTransactionId(),
+            transaction.getFromAccountNumber(),
+            transaction.getToAccountNumber(),
+            transaction.getAmount(),
+            transaction.getCurrency(),
+            transaction.getStatus().toString(),
+            transaction.getDescription(),
+            transaction.getTimestamp()
+        );
+    }
+}
@@ -0,0 +1,44 @@
+package com.banking.api.service.ledger;
+
+import com.banking.api.model.Account;
+import com.banking.api.model.Money;
+
+/**
+ * In-memory view of a single account.
+ * The balance is only mutated while the account's stripe lock is held;
+ * it is volatile so readers can take a consistent snapshot without locking.
+ */
+class LedgerAccount {
+    
+    private final String accountNumber;
+    private final String currency;
+    private final Account.AccountStatus status;
+    private volatile Money balance;
+    
+    LedgerAccount(Account account) {
+        this.accountNumber = account.getAccountNumber();
+        this.currency = account.getCurrency();
+        this.status = account.getStatus();
+        this.balance = account.getBalance();
+    }
+    
+    String getAccountNumber() {
+        return accountNumber;
+    }
+    
+    String getCurrency() {
+        return currency;
+    }
+    
+    Account.AccountStatus getStatus() {
+        return status;
+    }
+    
+    Money getBalance() {
+        return balance;
+    }
+    
+    void setBalance(Money balance) {
+        this.balance = balance;
+    }
+}
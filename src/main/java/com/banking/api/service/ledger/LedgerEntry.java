@@ -0,0 +1,21 @@
+package com.banking.api.service.ledger;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One committed transfer as recorded in the ledger write-ahead log.
+ * The sequence number is strictly increasing and is what checkpoints refer to.
+ */
+public record LedgerEntry(
+    long sequence,
+    String transactionId,
+    String idempotencyKey,
+    String fromAccountNumber,
+    String toAccountNumber,
+    BigDecimal amount,
+    String currency,
+    String description,
+    LocalDateTime timestamp
+) {
+}
@@ -0,0 +1,371 @@
+package com.banking.api.service.ledger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of ledger entries in memory-mapped segment files.
+ *
+ * Each record is a length, a CRC32C of the payload and the entry as JSON.
+ * Segments are preallocated (zero-filled) files of a fixed size, named after
+ * the sequence of their first entry; a record that does not fit starts the
+ * next segment. Entries are appended (and queued for persistence) under a
+ * single lock so the queue order always matches sequence order. The lock is
+ * a ReentrantLock rather than a monitor because it is held across file I/O,
+ * which would pin a virtual thread to its carrier inside a synchronized block.
+ *
+ * Appending only copies into the mapping; awaitDurable forces it to disk. Any
+ * number of appenders waiting at once are covered by a single force (group
+ * commit). A separate checkpoint file records the last sequence persisted to
+ * the database; on startup every entry after the checkpoint is queued again,
+ * and a torn record left by a crash mid-write (short or failing its CRC) is
+ * zeroed away. Segments wholly before the checkpoint are deleted.
+ */
+@Slf4j
+class LedgerWriteAheadLog implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "ledger-";
+    private static final String SEGMENT_SUFFIX = ".wal";
+    private static final String CHECKPOINT_FILE = "ledger.checkpoint";
+    // Payload length and CRC32C, both ints
+    private static final int HEADER_BYTES = 8;
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Path checkpointFile;
+    private final int segmentBytes;
+    private final Deque<LedgerEntry> pending = new ConcurrentLinkedDeque<>();
+    // Segment files by first sequence, oldest first; guarded by lock
+    private final NavigableMap<Long, Path> segments = new TreeMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long lastSequence;
+    private volatile long durableSequence;
+
+    LedgerWriteAheadLog(Path directory, ObjectMapper objectMapper, int segmentBytes) throws IOException {
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        this.checkpointFile = directory.resolve(CHECKPOINT_FILE);
+
+        long checkpoint = readCheckpoint();
+        this.lastSequence = checkpoint;
+        recover(checkpoint);
+        this.durableSequence = lastSequence;
+    }
+
+    /**
+     * Append a transfer to the log and queue it for persistence. The entry is
+     * not durable until awaitDurable has returned for its sequence.
+     */
+    LedgerEntry append(String transactionId, String idempotencyKey, String fromAccountNumber,
+                       String toAccountNumber, BigDecimal amount, String currency,
+                       String description) throws IOException {
+        lock.lock();
+        try {
+            LedgerEntry entry = new LedgerEntry(lastSequence + 1, transactionId, idempotencyKey, fromAccountNumber,
+                toAccountNumber, amount, currency, description, LocalDateTime.now());
+
+            byte[] payload = objectMapper.writeValueAsBytes(entry);
+            int recordBytes = HEADER_BYTES + payload.length;
+            if (recordBytes > segmentBytes) {
+                throw new IOException("Ledger entry of " + recordBytes + " bytes does not fit in a "
+                    + segmentBytes + " byte segment");
+            }
+            if (segment.remaining() < recordBytes) {
+                roll(entry.sequence());
+            }
+
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            int start = segment.position();
+            segment.put(start + HEADER_BYTES, payload);
+            segment.putInt(start + 4, (int) crc.getValue());
+            segment.putInt(start, payload.length);
+            segment.position(start + recordBytes);
+
+            lastSequence = entry.sequence();
+            pending.addLast(entry);
+            return entry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Block until the entry with the given sequence is on stable storage.
+     * Whoever holds the sync lock forces everything appended so far, so
+     * appenders that queued behind it usually find their entry already covered.
+     */
+    void awaitDurable(long sequence) throws IOException {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (durableSequence >= sequence) {
+                return;
+            }
+            MappedByteBuffer current;
+            long target;
+            lock.lock();
+            try {
+                // Earlier segments were forced when they were rolled
+                current = segment;
+                target = lastSequence;
+            } finally {
+                lock.unlock();
+            }
+            current.force();
+            durableSequence = target;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Force every entry appended so far to stable storage.
+     */
+    void sync() throws IOException {
+        long target;
+        lock.lock();
+        try {
+            target = lastSequence;
+        } finally {
+            lock.unlock();
+        }
+        awaitDurable(target);
+    }
+
+    /**
+     * Take up to maxEntries of the oldest unpersisted entries off the queue.
+     */
+    List<LedgerEntry> drain(int maxEntries) {
+        List<LedgerEntry> batch = new ArrayList<>(Math.min(maxEntries, 1024));
+        LedgerEntry entry;
+        while (batch.size() < maxEntries && (entry = pending.pollFirst()) != null) {
+            batch.add(entry);
+        }
+        return batch;
+    }
+
+    /**
+     * Put a batch that failed to persist back at the head of the queue, preserving order.
+     */
+    void requeue(List<LedgerEntry> batch) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            pending.addFirst(batch.get(i));
+        }
+    }
+
+    Optional<LedgerEntry> findPending(String transactionId) {
+        return pending.stream()
+            .filter(entry -> entry.transactionId().equals(transactionId))
+            .findFirst();
+    }
+
+    Optional<LedgerEntry> findPendingByIdempotencyKey(String idempotencyKey) {
+        return pending.stream()
+            .filter(entry -> idempotencyKey.equals(entry.idempotencyKey()))
+            .findFirst();
+    }
+
+    int pendingCount() {
+        return pending.size();
+    }
+
+    int segmentCount() {
+        lock.lock();
+        try {
+            return segments.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Record that every entry up to and including sequence is in the database,
+     * and delete the segments that hold nothing newer.
+     */
+    void checkpoint(long sequence) throws IOException {
+        lock.lock();
+        try {
+            Path temp = checkpointFile.resolveSibling(CHECKPOINT_FILE + ".tmp");
+            Files.writeString(temp, Long.toString(sequence), StandardCharsets.UTF_8);
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteSegmentsThrough(sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            segment.force();
+            channel.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void roll(long firstSequence) throws IOException {
+        segment.force();
+        channel.close();
+        openSegment(firstSequence);
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segments.put(firstSequence, file);
+    }
+
+    /**
+     * Delete every segment except the current one whose entries are all at or
+     * before sequence, i.e. whose successor starts no later than sequence + 1.
+     */
+    private void deleteSegmentsThrough(long sequence) throws IOException {
+        Iterator<Map.Entry<Long, Path>> it = segments.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Path> current = it.next();
+            Long next = segments.higherKey(current.getKey());
+            if (next == null || next > sequence + 1) {
+                return;
+            }
+            Files.deleteIfExists(current.getValue());
+            it.remove();
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        String value = Files.readString(checkpointFile, StandardCharsets.UTF_8).trim();
+        return value.isEmpty() ? 0 : Long.parseLong(value);
+    }
+
+    private void recover(long checkpoint) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).forEach(file -> {
+                String name = file.getFileName().toString();
+                segments.put(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                    name.length() - SEGMENT_SUFFIX.length())), file);
+            });
+        }
+        if (segments.isEmpty()) {
+            openSegment(checkpoint + 1);
+            return;
+        }
+
+        for (Map.Entry<Long, Path> file : segments.entrySet()) {
+            boolean last = file.getKey().equals(segments.lastKey());
+            FileChannel fileChannel = FileChannel.open(file.getValue(), StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            MappedByteBuffer mapped = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            int validEnd = scan(mapped, checkpoint);
+            if (last) {
+                channel = fileChannel;
+                segment = mapped;
+                segment.position(validEnd);
+                zeroTail();
+            } else {
+                if (validEnd + HEADER_BYTES <= segmentBytes && mapped.getInt(validEnd) != 0) {
+                    fileChannel.close();
+                    throw new IOException("Corrupt ledger log record in " + file.getValue() + " at offset " + validEnd);
+                }
+                fileChannel.close();
+            }
+        }
+        deleteSegmentsThrough(checkpoint);
+
+        if (!pending.isEmpty()) {
+            log.info("Recovered {} unpersisted ledger entries after sequence {}", pending.size(), checkpoint);
+        }
+    }
+
+    /**
+     * Queue the valid records of one segment and return the offset after the last of them.
+     */
+    private int scan(MappedByteBuffer mapped, long checkpoint) {
+        int position = 0;
+        while (position + HEADER_BYTES <= segmentBytes) {
+            int length = mapped.getInt(position);
+            if (length <= 0 || length > segmentBytes - position - HEADER_BYTES) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            mapped.get(position + HEADER_BYTES, payload);
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            if ((int) crc.getValue() != mapped.getInt(position + 4)) {
+                break;
+            }
+            LedgerEntry entry;
+            try {
+                entry = objectMapper.readValue(payload, LedgerEntry.class);
+            } catch (IOException ex) {
+                break;
+            }
+            if (entry.sequence() > checkpoint) {
+                pending.addLast(entry);
+            }
+            lastSequence = Math.max(lastSequence, entry.sequence());
+            position += HEADER_BYTES + length;
+        }
+        return position;
+    }
+
+    /**
+     * Clear whatever a crash left after the last valid record of the current
+     * segment, so a later, shorter record cannot be followed by stale bytes.
+     */
+    private void zeroTail() {
+        int start = segment.position();
+        int torn = 0;
+        for (int i = start; i < segmentBytes; i++) {
+            if (segment.get(i) != 0) {
+                segment.put(i, (byte) 0);
+                torn++;
+            }
+        }
+        if (torn > 0) {
+            log.warn("Zeroed {} bytes of torn ledger log tail", torn);
+            segment.force();
+        }
+    }
+}
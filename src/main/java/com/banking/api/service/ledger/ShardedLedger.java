@@ -0,0 +1,148 @@
+package com.banking.api.service.ledger;
+
+import com.banking.api.exception.AccountInactiveException;
+import com.banking.api.exception.AccountNotFoundException;
+import com.banking.api.exception.InsufficientFundsException;
+import com.banking.api.exception.InvalidTransferException;
+import com.banking.api.model.Account;
+import com.banking.api.model.Money;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Account balances held in memory, sharded by account number.
+ * 
+ * Writers take striped locks rather than one lock per account, and always
+ * acquire the two stripes of a transfer in ascending stripe order, so two
+ * transfers touching the same pair of accounts in opposite directions can
+ * never deadlock.
+ */
+class ShardedLedger {
+    
+    private final List<Map<String, LedgerAccount>> shards;
+    private final ReentrantLock[] stripes;
+    private final Function<String, Optional<LedgerAccount>> loader;
+    
+    ShardedLedger(int shardCount, int stripeCount, Function<String, Optional<LedgerAccount>> loader) {
+        if (shardCount < 1 || stripeCount < 1) {
+            throw new IllegalArgumentException("Shard and stripe counts must be positive");
+        }
+        this.shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ConcurrentHashMap<>());
+        }
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.loader = loader;
+    }
+    
+    /**
+     * Look up an account, loading it into its shard on first access.
+     */
+    LedgerAccount get(String accountNumber) {
+        Map<String, LedgerAccount> shard = shards.get(indexFor(accountNumber, shards.size()));
+        LedgerAccount account = shard.get(accountNumber);
+        if (account == null) {
+            account = shard.computeIfAbsent(accountNumber, number -> loader.apply(number).orElse(null));
+        }
+        if (account == null) {
+            throw new AccountNotFoundException(accountNumber);
+        }
+        return account;
+    }
+    
+    /**
+     * Look up an account only if it is already in memory. An account that is
+     * not has never been touched by a transfer, so its stored balance is current.
+     */
+    Optional<LedgerAccount> find(String accountNumber) {
+        return Optional.ofNullable(shards.get(indexFor(accountNumber, shards.size())).get(accountNumber));
+    }
+    
+    /**
+     * Move funds between two accounts under their stripe locks.
+     * The journal callback runs after all checks pass but before any balance
+     * changes, so if journalling fails the in-memory state is left untouched.
+     * It is passed the source account's currency.
+     */
+    <T> T transfer(String fromAccountNumber, String toAccountNumber, BigDecimal amount, Function<String, T> journal) {
+        LedgerAccount source = get(fromAccountNumber);
+        LedgerAccount target = get(toAccountNumber);
+        
+        int fromStripe = indexFor(fromAccountNumber, stripes.length);
+        int toStripe = indexFor(toAccountNumber, stripes.length);
+        ReentrantLock first = stripes[Math.min(fromStripe, toStripe)];
+        ReentrantLock second = stripes[Math.max(fromStripe, toStripe)];
+        
+        first.lock();
+        if (second != first) {
+            second.lock();
+        }
+        try {
+            validateAccount(source);
+            validateAccount(target);
+            Money debit = toMoney(amount, source.getCurrency());
+            
+            if (source.getBalance().compareTo(debit) < 0) {
+                throw new InsufficientFundsException("Insufficient funds in account: " + fromAccountNumber);
+            }
+            
+            // Computed before journalling so an overflow cannot leave a journalled but unapplied entry
+            Money sourceBalance = source.getBalance().minus(debit);
+            Money targetBalance = target.getBalance().plus(debit);
+            
+            T result = journal.apply(source.getCurrency());
+            
+            source.setBalance(sourceBalance);
+            target.setBalance(targetBalance);
+            return result;
+        } finally {
+            if (second != first) {
+                second.unlock();
+            }
+            first.unlock();
+        }
+    }
+    
+    /**
+     * Sum of every loaded balance. Only exact while no transfers are in flight.
+     */
+    Money totalBalance() {
+        Money total = Money.zero(0);
+        for (Map<String, LedgerAccount> shard : shards) {
+            for (LedgerAccount account : shard.values()) {
+                total = total.plus(account.getBalance());
+            }
+        }
+        return total;
+    }
+    
+    private static Money toMoney(BigDecimal amount, String currency) {
+        try {
+            return Money.of(amount, currency);
+        } catch (ArithmeticException ex) {
+            throw new InvalidTransferException("Transfer amount " + amount.toPlainString()
+                + " is not a valid " + currency + " amount");
+        }
+    }
+    
+    private void validateAccount(LedgerAccount account) {
+        if (account.getStatus() != Account.AccountStatus.ACTIVE) {
+            throw new AccountInactiveException(account.getAccountNumber());
+        }
+    }
+    
+    private static int indexFor(String accountNumber, int buckets) {
+        int hash = accountNumber.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), buckets);
+    }
+}
@@ -0,0 +1,49 @@
+package com.banking.api.config;
+
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BulkheadDataSourceTest {
+    
+    @Test
+    void testPermitIsHeldUntilConnectionIsClosed() throws Exception {
+        // Arrange
+        DataSource target = mock(DataSource.class);
+        Connection physical = mock(Connection.class);
+        when(target.getConnection()).thenReturn(physical);
+        BulkheadDataSource bulkhead = new BulkheadDataSource(target, 1, 50);
+        
+        // Act & Assert - the only permit is taken, so a second caller times out
+        Connection connection = bulkhead.getConnection();
+        assertEquals(0, bulkhead.availablePermits());
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+        
+        // Closing twice releases once
+        connection.close();
+        connection.close();
+        assertEquals(1, bulkhead.availablePermits());
+        verify(physical, times(1)).close();
+        
+        bulkhead.getConnection().close();
+        assertEquals(1, bulkhead.availablePermits());
+    }
+    
+    @Test
+    void testPermitIsReleasedWhenPoolFails() throws Exception {
+        // Arrange
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        BulkheadDataSource bulkhead = new BulkheadDataSource(target, 1, 50);
+        
+        // Act & Assert
+        assertThrows(SQLException.class, bulkhead::getConnection);
+        assertEquals(1, bulkhead.availablePermits());
+    }
+}
@@ -0,0 +1,86 @@
+package com.banking.api.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CachingAuthenticationProviderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void testSuccessfulCheckIsReusedUntilExpiry() throws Exception {
+        // Arrange
+        DaoAuthenticationProvider delegate = spy(delegate());
+        CachingAuthenticationProvider provider = new CachingAuthenticationProvider(delegate, registry, 200, 100);
+
+        // Act
+        Authentication first = provider.authenticate(credentials("user", "password"));
+        Authentication second = provider.authenticate(credentials("user", "password"));
+
+        // Assert - one BCrypt check, and the cached result carries the same identity
+        verify(delegate, times(1)).authenticate(any());
+        assertTrue(second.isAuthenticated());
+        assertNull(second.getCredentials());
+        assertEquals(first.getName(), second.getName());
+        assertEquals(first.getAuthorities(), second.getAuthorities());
+        assertNotSame(first, second);
+        assertEquals(1.0, registry.counter("banking.auth.cache", "result", "hit").count());
+
+        // Once the entry expires the password is checked again
+        Thread.sleep(250);
+        provider.authenticate(credentials("user", "password"));
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    @Test
+    void testFailedChecksAreNeverCached() {
+        // Arrange
+        DaoAuthenticationProvider delegate = spy(delegate());
+        CachingAuthenticationProvider provider = new CachingAuthenticationProvider(delegate, registry, 60_000, 100);
+        provider.authenticate(credentials("user", "password"));
+
+        // Act & Assert - a wrong password misses the cache and fails every time
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(credentials("user", "wrong")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(credentials("user", "wrong")));
+        verify(delegate, times(3)).authenticate(any());
+        assertEquals(1, provider.size());
+    }
+
+    @Test
+    void testZeroTtlDisablesCache() {
+        // Arrange
+        DaoAuthenticationProvider delegate = spy(delegate());
+        CachingAuthenticationProvider provider = new CachingAuthenticationProvider(delegate, registry, 0, 100);
+
+        // Act
+        provider.authenticate(credentials("admin", "admin"));
+        provider.authenticate(credentials("admin", "admin"));
+
+        // Assert
+        verify(delegate, times(2)).authenticate(any());
+        assertEquals(0, provider.size());
+    }
+
+    private static DaoAuthenticationProvider delegate() {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder();
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider(encoder);
+        provider.setUserDetailsService(new InMemoryUserDetailsManager(
+            User.builder().username("user").password(encoder.encode("password")).roles("USER").build(),
+            User.builder().username("admin").password(encoder.encode("admin")).roles("ADMIN").build()));
+        return provider;
+    }
+
+    private static UsernamePasswordAuthenticationToken credentials(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
@@ -2,23 +2,39 @@ package com.banking.api.controller;
 
 import com.banking.api.dto.AccountDTO;
 import com.banking.api.dto.TransferDTO;
+import com.banking.api.repository.AccountRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithAnonymousUser;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
 @WithMockUser(username = "admin", roles = {"ADMIN"})
 class BankingApiIntegrationTest {
     
@@ -28,6 +44,12 @@ class BankingApiIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
     @Test
     void testCompleteTransferWorkflow() throws Exception {
         // 1. Create source account
@@ -140,4 +162,450 @@ class BankingApiIntegrationTest {
             .andExpect(jsonPath("$.message").value("Insufficient funds in account: " 
                 + sourceAccount.getAccountNumber()));
     }
+    
+    @Test
+    void testCurrencyWithThreeDecimalsIsRejected() throws Exception {
+        // Balances are stored with two decimals, which would round a dinar amount
+        AccountDTO.CreateAccountRequest request = new AccountDTO.CreateAccountRequest(
+            "Dinar Holder", new BigDecimal("10.005"), "KWD"
+        );
+        
+        mockMvc.perform(post("/api/v1/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Currency KWD has 3 decimal places; accounts support at most 2"));
+    }
+    
+    @Test
+    void testBatchTransferAllOrNothingRejectsWholeBatch() throws Exception {
+        String first = createAccount("Batch Payer", "100.00");
+        String second = createAccount("Batch Payee", "0.00");
+        
+        List<TransferDTO.TransferRequest> batch = List.of(
+            new TransferDTO.TransferRequest(first, second, new BigDecimal("60.00"), "Salary 1"),
+            new TransferDTO.TransferRequest(first, second, new BigDecimal("60.00"), "Salary 2")
+        );
+        
+        mockMvc.perform(post("/api/v1/transfers/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.succeeded").value(0))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.results[0].status").value("ROLLED_BACK"))
+            .andExpect(jsonPath("$.results[1].status").value("FAILED"))
+            .andExpect(jsonPath("$.results[1].failureReason").value("Insufficient funds in account: " + first));
+        
+        mockMvc.perform(get("/api/v1/accounts/" + first + "/balance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balance").value(100.00));
+    }
+    
+    @Test
+    void testBatchTransferBestEffortAppliesSuccessfulItems() throws Exception {
+        String first = createAccount("Payroll Source", "100.00");
+        String second = createAccount("Payroll Target", "0.00");
+        
+        String ndjson = objectMapper.writeValueAsString(
+                new TransferDTO.TransferRequest(first, second, new BigDecimal("60.00"), "Salary 1")) + "\n"
+            + objectMapper.writeValueAsString(
+                new TransferDTO.TransferRequest(first, second, new BigDecimal("60.00"), "Salary 2")) + "\n"
+            + objectMapper.writeValueAsString(
+                new TransferDTO.TransferRequest(second, first, new BigDecimal("10.00"), "Refund")) + "\n";
+        
+        mockMvc.perform(post("/api/v1/transfers/batch")
+                .param("mode", "BEST_EFFORT")
+                .contentType("application/x-ndjson")
+                .content(ndjson))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.total").value(3))
+            .andExpect(jsonPath("$.succeeded").value(2))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.results[0].status").value("COMPLETED"))
+            .andExpect(jsonPath("$.results[1].status").value("FAILED"))
+            .andExpect(jsonPath("$.results[2].status").value("COMPLETED"));
+        
+        mockMvc.perform(get("/api/v1/accounts/" + first + "/balance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balance").value(50.00));
+        
+        mockMvc.perform(get("/api/v1/accounts/" + second + "/balance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balance").value(50.00));
+    }
+    
+    @Test
+    void testStreamedBatchRollsBackEarlierChunksWhenALaterItemFails() throws Exception {
+        String source = createAccount("Streamed Payer", "1199.00");
+        String target = createAccount("Streamed Payee", "0.00");
+        
+        // 1200 lines span three chunks; only the last transfer overdraws
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 1200; i++) {
+            ndjson.append(objectMapper.writeValueAsString(
+                new TransferDTO.TransferRequest(source, target, new BigDecimal("1.00"), "Line " + i))).append('\n');
+        }
+        
+        mockMvc.perform(post("/api/v1/transfers/batch")
+                .contentType("application/x-ndjson")
+                .content(ndjson.toString()))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.total").value(1200))
+            .andExpect(jsonPath("$.succeeded").value(0))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.results[0].status").value("ROLLED_BACK"))
+            .andExpect(jsonPath("$.results[1199].index").value(1199))
+            .andExpect(jsonPath("$.results[1199].status").value("FAILED"));
+        
+        mockMvc.perform(get("/api/v1/accounts/" + source + "/balance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balance").value(1199.00));
+        
+        mockMvc.perform(get("/api/v1/accounts/" + target + "/transactions"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.transactions", hasSize(0)));
+        
+        // Without the overdraft every chunk commits
+        mockMvc.perform(post("/api/v1/transfers/batch")
+                .contentType("application/x-ndjson")
+                .content(ndjson.substring(0, ndjson.lastIndexOf("{"))))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.succeeded").value(1199));
+        
+        mockMvc.perform(get("/api/v1/accounts/" + target + "/balance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balance").value(1199.00));
+    }
+    
+    @Test
+    void testBatchBlockedByARowLockIsARetryableConflict() throws Exception {
+        String payer = createAccount("Locked Payer", "100.00");
+        String payee = createAccount("Locked Payee", "0.00");
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        // Another writer holds the payer's row lock past the database's lock timeout
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> holder = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(
+            status -> {
+                accountRepository.findAllForUpdateByAccountNumberIn(List.of(payer));
+                locked.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+        try {
+            assertTrue(locked.await(10, TimeUnit.SECONDS));
+            mockMvc.perform(post("/api/v1/transfers/batch")
+                    .contentType("application/x-ndjson")
+                    .content(objectMapper.writeValueAsString(
+                        new TransferDTO.TransferRequest(payer, payee, new BigDecimal("40.00"), "Blocked")) + "\n"))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Retry-After", "1"));
+        } finally {
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+            executor.shutdown();
+        }
+        
+        mockMvc.perform(get("/api/v1/accounts/" + payer + "/balance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balance").value(100.00));
+    }
+    
+    @Test
+    void testHotAccountSlotsKeepTotalBalance() throws Exception {
+        String merchant = createAccount("Busy Merchant", "0.00");
+        String customer = createAccount("Loyal Customer", "500.00");
+        
+        mockMvc.perform(put("/api/v1/accounts/" + merchant + "/slots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"slots\": 4}"))
+            .andExpect(status().isOk());
+        
+        // Credits land on slots, but the reported balance is the total
+        for (int i = 0; i < 3; i++) {
+            transfer(customer, merchant, "100.00").andExpect(status().isCreated());
+        }
+        mockMvc.perform(get("/api/v1/accounts/" + merchant + "/balance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balance").value(300.00));
+        
+        // Debit larger than the account row alone forces the slots to be swept
+        transfer(merchant, customer, "250.00").andExpect(status().isCreated());
+        mockMvc.perform(get("/api/v1/accounts/" + merchant + "/balance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balance").value(50.00));
+        
+        // Turning the sub-ledger off folds the slots back into the account
+        mockMvc.perform(put("/api/v1/accounts/" + merchant + "/slots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"slots\": 0}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balance").value(50.00));
+        mockMvc.perform(get("/api/v1/accounts/" + customer + "/balance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balance").value(450.00));
+    }
+    
+    @Test
+    void testRetriedTransferWithIdempotencyKeyIsAppliedOnce() throws Exception {
+        String source = createAccount("Retrying Client", "300.00");
+        String target = createAccount("Patient Payee", "0.00");
+        
+        TransferDTO.TransferRequest request = new TransferDTO.TransferRequest(
+            source, target, new BigDecimal("100.00"), "Retried payment"
+        );
+        String idempotencyKey = "retry-" + source;
+        
+        MvcResult first = mockMvc.perform(post("/api/v1/transfers")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated())
+            .andReturn();
+        String transactionId = objectMapper.readValue(
+            first.getResponse().getContentAsString(), TransferDTO.TransferResponse.class
+        ).getTransactionId();
+        
+        mockMvc.perform(post("/api/v1/transfers")
+                .header("Idempotency-Key", idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.transactionId").value(transactionId));
+        
+        mockMvc.perform(get("/api/v1/accounts/" + source + "/balance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balance").value(200.00));
+    }
+    
+    @Test
+    void testAccountListingUsesKeysetPages() throws Exception {
+        createAccount("Page Holder A", "1.00");
+        createAccount("Page Holder B", "2.00");
+        createAccount("Page Holder C", "3.00");
+        
+        MvcResult firstPage = mockMvc.perform(get("/api/v1/accounts").param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(header().string("Link", containsString("rel=\"next\"")))
+            .andReturn();
+        
+        AccountDTO.AccountResponse[] accounts = objectMapper.readValue(
+            firstPage.getResponse().getContentAsString(), AccountDTO.AccountResponse[].class
+        );
+        Long lastId = accounts[1].getId();
+        
+        mockMvc.perform(get("/api/v1/accounts").param("after", lastId.toString()).param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(greaterThan(lastId.intValue())));
+    }
+    
+    @Test
+    void testBulkBalanceLookupReportsMissingAccountsInline() throws Exception {
+        String first = createAccount("Balance Holder A", "10.00");
+        String second = createAccount("Balance Holder B", "20.50");
+        String hot = createAccount("Balance Merchant", "1.00");
+        mockMvc.perform(put("/api/v1/accounts/" + hot + "/slots")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AccountDTO.HotSlotsRequest(4))))
+            .andExpect(status().isOk());
+        // Credited to a slot, so the merchant's balance is only right if the slots are summed
+        mockMvc.perform(post("/api/v1/transfers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                    new TransferDTO.TransferRequest(second, hot, new BigDecimal("5.00"), "Sale"))))
+            .andExpect(status().isCreated());
+        AccountDTO.BulkBalanceRequest request = new AccountDTO.BulkBalanceRequest(
+            List.of(second, "9999-9999-9999", first, hot, second));
+        
+        mockMvc.perform(post("/api/v1/accounts/balances")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.found").value(3))
+            .andExpect(jsonPath("$.notFound").value(1))
+            .andExpect(jsonPath("$.balances.length()").value(4))
+            .andExpect(jsonPath("$.balances['" + first + "'].balance").value(10.00))
+            .andExpect(jsonPath("$.balances['" + second + "'].balance").value(15.50))
+            .andExpect(jsonPath("$.balances['" + hot + "'].balance").value(6.00))
+            .andExpect(jsonPath("$.balances['" + second + "'].currency").value("USD"))
+            .andExpect(jsonPath("$.balances['9999-9999-9999'].found").value(false));
+        
+        mockMvc.perform(post("/api/v1/accounts/balances")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new AccountDTO.BulkBalanceRequest(List.of()))))
+            .andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void testAccountExportStreamsCsv() throws Exception {
+        String accountNumber = createAccount("Export, Holder", "42.00");
+        
+        MvcResult pending = mockMvc.perform(get("/api/v1/accounts/export").param("format", "CSV"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        
+        mockMvc.perform(asyncDispatch(pending))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/csv"))
+            .andExpect(content().string(startsWith("id,accountNumber,")))
+            .andExpect(content().string(containsString(
+                accountNumber + ",\"Export, Holder\",42.00,USD,ACTIVE")));
+    }
+    
+    @Test
+    void testTransactionHistoryMergesBothSidesNewestFirst() throws Exception {
+        String accountA = createAccount("History Holder A", "500.00");
+        String accountB = createAccount("History Holder B", "500.00");
+        
+        transfer(accountA, accountB, "10.00").andExpect(status().isCreated());
+        transfer(accountB, accountA, "20.00").andExpect(status().isCreated());
+        transfer(accountA, accountB, "30.00").andExpect(status().isCreated());
+        
+        MvcResult firstPage = mockMvc.perform(get("/api/v1/accounts/" + accountA + "/transactions")
+                .param("limit", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.transactions.length()").value(2))
+            .andExpect(jsonPath("$.transactions[0].amount").value(30.00))
+            .andExpect(jsonPath("$.transactions[1].amount").value(20.00))
+            .andExpect(jsonPath("$.transactions[1].fromAccountNumber").value(accountB))
+            .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+            .andReturn();
+        
+        String cursor = objectMapper.readValue(firstPage.getResponse().getContentAsString(),
+            TransferDTO.TransactionHistoryResponse.class).getNextCursor();
+        
+        mockMvc.perform(get("/api/v1/accounts/" + accountA + "/transactions")
+                .param("limit", "2")
+                .param("cursor", cursor))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.transactions.length()").value(1))
+            .andExpect(jsonPath("$.transactions[0].amount").value(10.00))
+            .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        
+        mockMvc.perform(get("/api/v1/accounts/" + accountA + "/transactions")
+                .param("from", "2000-01-01T00:00:00")
+                .param("to", "2000-01-02T00:00:00"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.transactions.length()").value(0));
+    }
+    
+    @Test
+    void testPrometheusEndpointExposesTransferStageHistograms() throws Exception {
+        String accountA = createAccount("Metrics Holder A", "100.00");
+        String accountB = createAccount("Metrics Holder B", "100.00");
+        transfer(accountA, accountB, "10.00").andExpect(status().isCreated());
+        
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("banking_transfer_stage_seconds_bucket{")))
+            .andExpect(content().string(containsString("stage=\"commit\"")))
+            .andExpect(content().string(containsString("banking_transfer_status_total{")))
+            .andExpect(content().string(containsString("banking_transfer_lock_waiters")));
+    }
+    
+    @Test
+    void testOptimisticConcurrencyModeHeader() throws Exception {
+        String source = createAccount("Optimistic Sender", "100.00");
+        String target = createAccount("Optimistic Payee", "0.00");
+        TransferDTO.TransferRequest request = new TransferDTO.TransferRequest(
+            source, target, new BigDecimal("60.00"), "Optimistic payment"
+        );
+        
+        mockMvc.perform(post("/api/v1/transfers")
+                .header("X-Concurrency-Mode", "OPTIMISTIC")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.status").value("COMPLETED"));
+        
+        mockMvc.perform(post("/api/v1/transfers")
+                .header("X-Concurrency-Mode", "OPTIMISTIC")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Insufficient funds in account: " + source));
+        
+        mockMvc.perform(get("/api/v1/accounts/" + target + "/balance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balance").value(60.00));
+        mockMvc.perform(get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andExpect(content().string(containsString("banking_transfer_optimistic_attempts_count")));
+    }
+    
+    @Test
+    void testAsyncTransferIsAcceptedThenPolledToCompletion() throws Exception {
+        String source = createAccount("Async Sender", "100.00");
+        String target = createAccount("Async Payee", "0.00");
+        TransferDTO.TransferRequest request = new TransferDTO.TransferRequest(
+            source, target, new BigDecimal("40.00"), "Async payment"
+        );
+        
+        MvcResult accepted = mockMvc.perform(post("/api/v1/transfers/async")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isAccepted())
+            .andExpect(header().exists("Location"))
+            .andExpect(jsonPath("$.status").value("PENDING"))
+            .andReturn();
+        String transactionId = objectMapper.readValue(
+            accepted.getResponse().getContentAsString(), TransferDTO.TransferResponse.class
+        ).getTransactionId();
+        
+        String status = "PENDING";
+        for (int i = 0; i < 200 && status.equals("PENDING"); i++) {
+            Thread.sleep(25);
+            MvcResult polled = mockMvc.perform(get("/api/v1/transfers/" + transactionId))
+                .andExpect(status().isOk())
+                .andReturn();
+            status = objectMapper.readValue(
+                polled.getResponse().getContentAsString(), TransferDTO.TransferResponse.class
+            ).getStatus();
+        }
+        
+        assertEquals("COMPLETED", status);
+        mockMvc.perform(get("/api/v1/accounts/" + target + "/balance"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.balance").value(40.00));
+    }
+    
+    @Test
+    @WithAnonymousUser
+    void testHealthEndpointNeedsNoCredentials() throws Exception {
+        mockMvc.perform(get("/api/v1/health"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("UP"));
+    }
+    
+    private ResultActions transfer(String from, String to, String amount) throws Exception {
+        TransferDTO.TransferRequest request = new TransferDTO.TransferRequest(
+            from, to, new BigDecimal(amount), "Integration test transfer"
+        );
+        return mockMvc.perform(post("/api/v1/transfers")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(objectMapper.writeValueAsString(request)));
+    }
+    
+    private String createAccount(String holderName, String initialBalance) throws Exception {
+        AccountDTO.CreateAccountRequest request = new AccountDTO.CreateAccountRequest(
+            holderName, new BigDecimal(initialBalance), "USD"
+        );
+        
+        MvcResult result = mockMvc.perform(post("/api/v1/accounts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isCreated())
+            .andReturn();
+        
+        return objectMapper.readValue(
+            result.getResponse().getContentAsString(),
+            AccountDTO.AccountResponse.class
+        ).getAccountNumber();
+    }
 }
@@ -0,0 +1,180 @@
+package com.banking.api.controller;
+
+import com.banking.api.BankingApiApplication;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Opt-in load test comparing platform-thread and virtual-thread request handling.
+ *
+ * Starts the application twice on a random port, once per mode, and drives it
+ * over real HTTP with a fixed number of concurrent clients: 80% balance reads
+ * and 20% transfers between random accounts. Prints throughput and latency
+ * percentiles for each mode. Run with
+ *
+ *   mvn test -Dtest=VirtualThreadLoadTest -Dbenchmark.load.seconds=30 [-Dbenchmark.load.clients=1000]
+ *
+ * Skipped unless benchmark.load.seconds is set.
+ */
+@EnabledIfSystemProperty(named = "benchmark.load.seconds", matches = "\\d+")
+class VirtualThreadLoadTest {
+    
+    private static final int ACCOUNTS = 200;
+    private static final Pattern ACCOUNT_NUMBER = Pattern.compile("\"accountNumber\":\"([^\"]+)\"");
+    private static final String AUTHORIZATION = "Basic " + Base64.getEncoder()
+        .encodeToString("admin:admin".getBytes(StandardCharsets.UTF_8));
+    
+    private final HttpClient client = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        int seconds = Integer.getInteger("benchmark.load.seconds");
+        int clients = Integer.getInteger("benchmark.load.clients", 1000);
+        
+        Result platform = run(false, seconds, clients);
+        Result virtual = run(true, seconds, clients);
+        
+        System.out.printf("%d clients, %ds per mode%n", clients, seconds);
+        System.out.println(platform.describe("platform"));
+        System.out.println(virtual.describe("virtual "));
+        assertTrue(platform.completed() > 0 && virtual.completed() > 0);
+    }
+    
+    private Result run(boolean virtualThreads, int seconds, int clients) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BankingApiApplication.class)
+                .logStartupInfo(false)
+                .run("--server.port=0",
+                    "--spring.threads.virtual.enabled=" + virtualThreads,
+                    "--spring.datasource.url=jdbc:h2:mem:loadtest" + virtualThreads,
+                    "--spring.jpa.show-sql=false",
+                    "--logging.level.com.banking.api=OFF",
+                    "--logging.level.org.hibernate=OFF",
+                    "--logging.level.org.hibernate.SQL=OFF")) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            
+            List<String> accounts = new ArrayList<>();
+            for (int i = 0; i < ACCOUNTS; i++) {
+                String body = send(post(baseUrl + "/api/v1/accounts",
+                    "{\"accountHolderName\":\"Load Holder " + i + "\",\"initialBalance\":1000000.00,\"currency\":\"USD\"}"))
+                    .body();
+                Matcher matcher = ACCOUNT_NUMBER.matcher(body);
+                assertTrue(matcher.find(), body);
+                accounts.add(matcher.group(1));
+            }
+            
+            long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+            AtomicLong errors = new AtomicLong();
+            List<Future<long[]>> results = new ArrayList<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < clients; c++) {
+                    results.add(executor.submit(() -> drive(baseUrl, accounts, deadline, errors)));
+                }
+            }
+            
+            List<long[]> perClient = new ArrayList<>();
+            for (Future<long[]> result : results) {
+                perClient.add(result.get());
+            }
+            long[] latencies = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(latencies, errors.get(), seconds);
+        }
+    }
+    
+    private long[] drive(String baseUrl, List<String> accounts, long deadline, AtomicLong errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] latencies = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            String from = accounts.get(random.nextInt(accounts.size()));
+            HttpRequest request;
+            if (random.nextInt(5) == 0) {
+                String to = accounts.get(random.nextInt(accounts.size()));
+                if (to.equals(from)) {
+                    continue;
+                }
+                request = post(baseUrl + "/api/v1/transfers", "{\"fromAccountNumber\":\"" + from
+                    + "\",\"toAccountNumber\":\"" + to + "\",\"amount\":1.00,\"description\":\"Load\"}");
+            } else {
+                request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/accounts/" + from + "/balance"))
+                    .header("Authorization", AUTHORIZATION)
+                    .GET()
+                    .build();
+            }
+            
+            long started = System.nanoTime();
+            try {
+                int status = send(request).statusCode();
+                if (status >= 300) {
+                    errors.incrementAndGet();
+                    continue;
+                }
+            } catch (Exception ex) {
+                errors.incrementAndGet();
+                continue;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - started;
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+    
+    private HttpRequest post(String url, String json) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .header("Authorization", AUTHORIZATION)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+    
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private record Result(long[] sortedLatencies, long errors, int seconds) {
+        
+        long completed() {
+            return sortedLatencies.length;
+        }
+        
+        String describe(String mode) {
+            return String.format("  %s  %8.1f req/s  p50 %7.1f ms  p99 %7.1f ms  max %7.1f ms  errors %d",
+                mode, (double) completed() / seconds, percentile(0.50), percentile(0.99),
+                percentile(1.0), errors);
+        }
+        
+        private double percentile(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
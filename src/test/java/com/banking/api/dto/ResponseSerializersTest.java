@@ -0,0 +1,68 @@
+package com.banking.api.dto;
+
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseSerializersTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    void testTimestampsMatchLocalDateTimeToString() throws Exception {
+        List<LocalDateTime> timestamps = List.of(
+            LocalDateTime.of(2024, 1, 2, 3, 4),
+            LocalDateTime.of(2024, 1, 2, 3, 4, 5),
+            LocalDateTime.of(2024, 12, 31, 23, 59, 0, 1_000_000),
+            LocalDateTime.of(2024, 12, 31, 23, 59, 0, 120_000),
+            LocalDateTime.of(2024, 12, 31, 23, 59, 59, 123_456_789),
+            LocalDateTime.of(999, 1, 1, 0, 0, 0, 5),
+            LocalDateTime.of(12345, 6, 7, 8, 9));
+
+        for (LocalDateTime timestamp : timestamps) {
+            TransferDTO.TransferResponse response = new TransferDTO.TransferResponse(
+                "TXN-1", "1111-1111-1111", "2222-2222-2222", new BigDecimal("250.00"),
+                "USD", "COMPLETED", "Rent", timestamp);
+
+            assertEquals("\"" + timestamp + "\"",
+                objectMapper.readTree(objectMapper.writeValueAsString(response)).get("timestamp").toString());
+        }
+    }
+
+    @Test
+    void testTransferResponseMatchesBeanLayout() throws Exception {
+        // Arrange - description is null and a value needs escaping
+        TransferDTO.TransferResponse response = new TransferDTO.TransferResponse(
+            "TXN-1", "1111-\"1111\"", "2222-2222-2222", new BigDecimal("250.00"),
+            "USD", "COMPLETED", null, LocalDateTime.of(2024, 3, 4, 5, 6, 7, 8_000_000));
+
+        // Act
+        String json = objectMapper.writeValueAsString(response);
+
+        // Assert
+        assertEquals("{\"transactionId\":\"TXN-1\",\"fromAccountNumber\":\"1111-\\\"1111\\\"\","
+            + "\"toAccountNumber\":\"2222-2222-2222\",\"amount\":250.00,\"currency\":\"USD\","
+            + "\"status\":\"COMPLETED\",\"description\":null,\"timestamp\":\"2024-03-04T05:06:07.008\"}", json);
+        assertEquals(response, objectMapper.readValue(json, TransferDTO.TransferResponse.class));
+    }
+
+    @Test
+    void testBalanceResponseMatchesReflectiveSerializer() throws Exception {
+        ObjectMapper reflective = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(MapperFeature.USE_ANNOTATIONS)
+            .build();
+
+        for (AccountDTO.BalanceResponse response : List.of(
+                new AccountDTO.BalanceResponse("1234-5678-9012", new BigDecimal("1000.00"), "USD"),
+                new AccountDTO.BalanceResponse(null, null, null))) {
+            assertEquals(reflective.writeValueAsString(response), objectMapper.writeValueAsString(response));
+        }
+    }
+}
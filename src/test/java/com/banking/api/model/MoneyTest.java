@@ -0,0 +1,76 @@
+package com.banking.api.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void testAmountsUseTheCurrencyMinorUnit() {
+        assertEquals(new Money(1234, 2), Money.of(new BigDecimal("12.34"), "USD"));
+        assertEquals(new Money(1200, 2), Money.of(new BigDecimal("12"), "USD"));
+        assertEquals(new Money(500, 0), Money.of(new BigDecimal("500"), "JPY"));
+        assertEquals(new Money(1005, 3), Money.of(new BigDecimal("1.005"), "KWD"));
+        assertEquals(2, Money.scaleOf("NOT-A-CURRENCY"));
+    }
+
+    @Test
+    void testAmountsAreNeverRounded() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("12.345"), "USD"));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.5"), "JPY"));
+        assertEquals(new Money(1230, 2), Money.of(new BigDecimal("12.3000"), "USD"));
+    }
+
+    @Test
+    void testArithmeticIsExact() {
+        // Arrange
+        Money balance = Money.of(new BigDecimal("100.10"), "USD");
+        Money amount = Money.of(new BigDecimal("0.20"), "USD");
+
+        // Act & Assert
+        assertEquals(new BigDecimal("99.90"), balance.minus(amount).toBigDecimal());
+        assertEquals(new BigDecimal("100.30"), balance.plus(amount).toBigDecimal());
+        assertEquals(new BigDecimal("-0.20"), amount.negate().toBigDecimal());
+        assertTrue(balance.compareTo(amount) > 0);
+    }
+
+    @Test
+    void testMixedScalesUseTheLargerScale() {
+        Money dollars = new Money(5, 0);
+        Money cents = new Money(25, 2);
+
+        assertEquals(new Money(525, 2), dollars.plus(cents));
+        assertEquals(new Money(475, 2), dollars.minus(cents));
+        assertEquals(0, new Money(500, 2).compareTo(dollars));
+        assertThrows(ArithmeticException.class, () -> cents.withScale(0));
+    }
+
+    @Test
+    void testOverflowThrowsInsteadOfWrapping() {
+        Money max = new Money(Long.MAX_VALUE, 2);
+        Money min = new Money(Long.MIN_VALUE, 2);
+        Money cent = new Money(1, 2);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(cent));
+        assertThrows(ArithmeticException.class, () -> min.minus(cent));
+        assertThrows(ArithmeticException.class, min::negate);
+        assertThrows(ArithmeticException.class, () -> max.withScale(3));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e17"), "USD"));
+        // Comparing across scales must not overflow either
+        assertTrue(max.compareTo(new Money(1, 0)) > 0);
+    }
+
+    @Test
+    void testConverterRoundTripsThroughDecimalColumn() {
+        MoneyConverter converter = new MoneyConverter();
+        Money balance = Money.of(new BigDecimal("1000.00"), "USD");
+
+        assertEquals(new BigDecimal("1000.00"), converter.convertToDatabaseColumn(balance));
+        assertEquals(balance, converter.convertToEntityAttribute(new BigDecimal("1000.00")));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
@@ -0,0 +1,67 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:accountpooldb",
+    // Every account needs a block reservation, and there are fewer connections than creators
+    "banking.accounts.number-block-size=1",
+    "spring.datasource.hikari.maximum-pool-size=2",
+    "spring.datasource.hikari.connection-timeout=1000",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+class AccountCreationPoolTest {
+
+    private static final int CREATORS = 8;
+    private static final int ACCOUNTS_PER_CREATOR = 20;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    void testReservationsDoNotStarveThePool() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(CREATORS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+
+        // Act - a creator holding a connection while queued on the allocator would time out here
+        for (int c = 0; c < CREATORS; c++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                List<String> numbers = new ArrayList<>();
+                for (int i = 0; i < ACCOUNTS_PER_CREATOR; i++) {
+                    numbers.add(accountService.createAccount(new AccountDTO.CreateAccountRequest(
+                        "Pool Holder", new BigDecimal("10.00"), "USD")).getAccountNumber());
+                }
+                return numbers;
+            }));
+        }
+        start.countDown();
+        Set<String> created = new HashSet<>();
+        for (Future<List<String>> result : results) {
+            created.addAll(result.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(CREATORS * ACCOUNTS_PER_CREATOR, created.size());
+    }
+}
@@ -0,0 +1,96 @@
+package com.banking.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountLanesTest {
+    
+    private static final int ACCOUNTS = 1_000;
+    private static final int CLIENTS = 4;
+    private static final int TRANSFERS = 1_000_000;
+    private static final int WINDOW = 2_000;
+    private static final long OPENING_BALANCE = 10_000;
+    
+    @Test
+    void testMillionRandomTransfersConserveBalances() throws Exception {
+        // Arrange - plain longs: the lanes are the only thing keeping writers apart
+        String[] accountNumbers = new String[ACCOUNTS];
+        long[] balances = new long[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumbers[i] = String.format("%04d-0000-%04d", i, i * 7 % 10_000);
+            balances[i] = OPENING_BALANCE;
+        }
+        // Owners per account; more than one at a time means the lanes leaked
+        AtomicIntegerArray owners = new AtomicIntegerArray(ACCOUNTS);
+        AtomicLong applied = new AtomicLong();
+        AtomicLong overlaps = new AtomicLong();
+        
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        List<Future<?>> submitted = new ArrayList<>();
+        
+        // Act
+        try (AccountLanes lanes = new AccountLanes(16, "test-lane-")) {
+            for (int c = 0; c < CLIENTS; c++) {
+                long seed = c;
+                submitted.add(clients.submit(() -> {
+                    SplittableRandom random = new SplittableRandom(seed);
+                    List<CompletableFuture<Boolean>> window = new ArrayList<>(WINDOW);
+                    for (int i = 0; i < TRANSFERS / CLIENTS; i++) {
+                        int from = random.nextInt(ACCOUNTS);
+                        int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                        long amount = 1 + random.nextInt(500);
+                        window.add(lanes.submit(accountNumbers[from], accountNumbers[to], () -> {
+                            if (owners.incrementAndGet(from) != 1 | owners.incrementAndGet(to) != 1) {
+                                overlaps.incrementAndGet();
+                            }
+                            try {
+                                if (balances[from] < amount) {
+                                    return false;
+                                }
+                                balances[from] -= amount;
+                                balances[to] += amount;
+                                applied.incrementAndGet();
+                                return true;
+                            } finally {
+                                owners.decrementAndGet(from);
+                                owners.decrementAndGet(to);
+                            }
+                        }));
+                        if (window.size() == WINDOW) {
+                            window.forEach(CompletableFuture::join);
+                            window.clear();
+                        }
+                    }
+                    window.forEach(CompletableFuture::join);
+                }));
+            }
+            for (Future<?> client : submitted) {
+                client.get(5, TimeUnit.MINUTES);
+            }
+        } finally {
+            clients.shutdown();
+        }
+        
+        // Assert
+        assertEquals(0, overlaps.get(), "two transfers owned the same account at once");
+        assertTrue(applied.get() > TRANSFERS / 2, "most transfers should have had funds");
+        long total = 0;
+        for (long balance : balances) {
+            assertTrue(balance >= 0);
+            total += balance;
+        }
+        assertEquals(ACCOUNTS * OPENING_BALANCE, total);
+    }
+}
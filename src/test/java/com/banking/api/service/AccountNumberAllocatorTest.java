@@ -0,0 +1,127 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.exception.BankingException;
+import com.banking.api.repository.AccountRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:accountnumberdb",
+    // Small blocks so the tests cross many reservations
+    "banking.accounts.number-block-size=7",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=INFO",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class AccountNumberAllocatorTest {
+
+    @Autowired
+    private AccountNumberAllocator allocator;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testNumbersCarryALuhnCheckDigit() {
+        assertEquals("1000-0000-0008", AccountNumberAllocator.format(AccountNumberAllocator.FIRST_SERIAL));
+        assertTrue(AccountNumberAllocator.isValid("1000-0000-0016"));
+        assertFalse(AccountNumberAllocator.isValid("1000-0000-0017"));
+        assertFalse(AccountNumberAllocator.isValid("1000-0000-001"));
+        assertEquals(3, AccountNumberAllocator.luhnCheckDigit("7992739871"));
+    }
+
+    @Test
+    void testConcurrentAllocationsNeverCollide() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<String>>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> {
+                List<String> numbers = new ArrayList<>();
+                for (int j = 0; j < 50; j++) {
+                    numbers.addAll(allocator.allocate(1 + j % 5));
+                }
+                return numbers;
+            }));
+        }
+        Set<String> seen = new HashSet<>();
+        int total = 0;
+        for (Future<List<String>> result : results) {
+            for (String number : result.get(30, TimeUnit.SECONDS)) {
+                assertTrue(AccountNumberAllocator.isValid(number), number);
+                seen.add(number);
+                total++;
+            }
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(total, seen.size());
+    }
+
+    @Test
+    void testBulkCreateInsertsInBatches() {
+        // Arrange
+        List<AccountDTO.CreateAccountRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            requests.add(new AccountDTO.CreateAccountRequest("Bulk Holder " + i, new BigDecimal("10.00"), "USD"));
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        List<AccountDTO.AccountResponse> created = accountService.createAccounts(requests);
+
+        // Assert - 200 rows, but only a handful of statements: inserts, id fetches and block reservations
+        assertEquals(200, created.size());
+        assertEquals(200, statistics.getEntityInsertCount());
+        assertTrue(statistics.getPrepareStatementCount() < 50,
+            "expected batched inserts, got " + statistics.getPrepareStatementCount() + " statements");
+        assertEquals(200, created.stream().map(AccountDTO.AccountResponse::getAccountNumber).distinct().count());
+        for (AccountDTO.AccountResponse account : created) {
+            assertTrue(AccountNumberAllocator.isValid(account.getAccountNumber()));
+            assertNotNull(account.getId());
+        }
+        assertEquals(0, new BigDecimal("10.00").compareTo(
+            accountService.getBalance(created.get(199).getAccountNumber()).getBalance()));
+    }
+
+    @Test
+    void testBulkCreateIsAllOrNothing() {
+        // Arrange - the last request cannot be represented in USD
+        long before = accountRepository.count();
+        List<AccountDTO.CreateAccountRequest> requests = List.of(
+            new AccountDTO.CreateAccountRequest("Valid Holder", new BigDecimal("10.00"), "USD"),
+            new AccountDTO.CreateAccountRequest("Invalid Holder", new BigDecimal("10.001"), "USD"));
+
+        // Act & Assert
+        assertThrows(BankingException.class, () -> accountService.createAccounts(requests));
+        assertEquals(before, accountRepository.count());
+    }
+}
@@ -0,0 +1,76 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:readpathdb")
+class AccountServiceConcurrencyTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testBalanceReadsDoNotBlockWhileTransferHoldsRowLock() throws Exception {
+        // Arrange
+        String accountNumber = accountService.createAccount(
+            new AccountDTO.CreateAccountRequest("Lock Holder", new BigDecimal("1000.00"), "USD")
+        ).getAccountNumber();
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // Simulate a transfer holding the pessimistic row lock
+        Future<?> holder = executor.submit(() -> new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> {
+                accountRepository.findByAccountNumber(accountNumber).orElseThrow();
+                locked.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+
+        try {
+            assertTrue(locked.await(5, TimeUnit.SECONDS), "lock holder never acquired the row");
+
+            // Act & Assert - every read completes while the row is still locked
+            for (int i = 0; i < 20; i++) {
+                AccountDTO.BalanceResponse balance = assertTimeoutPreemptively(Duration.ofMillis(500),
+                    () -> accountService.getBalance(accountNumber));
+                assertEquals(0, new BigDecimal("1000.00").compareTo(balance.getBalance()));
+
+                AccountDTO.AccountResponse account = assertTimeoutPreemptively(Duration.ofMillis(500),
+                    () -> accountService.getAccount(accountNumber));
+                assertEquals(accountNumber, account.getAccountNumber());
+            }
+            assertFalse(holder.isDone(), "reads must have overlapped the held lock");
+        } finally {
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+            executor.shutdown();
+        }
+    }
+}
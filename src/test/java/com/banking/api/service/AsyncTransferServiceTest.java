@@ -0,0 +1,138 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:asyncdb",
+    "banking.transfer.async.partitions=4",
+    "banking.transfer.async.queue-capacity=10"
+})
+class AsyncTransferServiceTest {
+    
+    @Autowired
+    private AsyncTransferService asyncTransferService;
+    
+    @Autowired
+    private TransferService transferService;
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private TransferWebhookNotifier webhookNotifier;
+    
+    @Test
+    void testTransfersFromOneAccountRunInSubmissionOrder() throws Exception {
+        // Arrange - the source can cover exactly three of the ten transfers
+        String source = openAccount("100.00");
+        List<String> payees = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            payees.add(openAccount("0.00"));
+        }
+        
+        // Act
+        List<String> transactionIds = new ArrayList<>();
+        for (String payee : payees) {
+            TransferDTO.TransferResponse accepted = asyncTransferService.submit(
+                new TransferDTO.TransferRequest(source, payee, new BigDecimal("30.00"), "Ordered"), null, null);
+            assertEquals("PENDING", accepted.getStatus());
+            transactionIds.add(accepted.getTransactionId());
+        }
+        
+        // Assert - the first three accepted are the three that completed
+        for (int i = 0; i < transactionIds.size(); i++) {
+            assertEquals(i < 3 ? "COMPLETED" : "FAILED", awaitFinal(transactionIds.get(i)).getStatus());
+        }
+        assertEquals(0, new BigDecimal("10.00").compareTo(accountService.getBalance(source).getBalance()));
+    }
+    
+    @Test
+    void testCallbackReceivesFinalResult() throws Exception {
+        // Arrange
+        String source = openAccount("50.00");
+        String payee = openAccount("0.00");
+        String callbackUrl = "https://client.example/hooks/" + source;
+        
+        // Act
+        String transactionId = asyncTransferService.submit(
+            new TransferDTO.TransferRequest(source, payee, new BigDecimal("20.00"), "Callback"),
+            "async-callback-" + source, callbackUrl).getTransactionId();
+        awaitFinal(transactionId);
+        
+        // Assert
+        List<TransferDTO.WebhookDelivery> deliveries = awaitDeliveries(callbackUrl);
+        assertEquals(1, deliveries.size());
+        assertEquals(transactionId, deliveries.get(0).getPayload().getTransactionId());
+        assertEquals("COMPLETED", deliveries.get(0).getPayload().getStatus());
+    }
+    
+    @Test
+    void testPendingRowsAreResubmittedOnStartup() throws Exception {
+        // Arrange - more transfers accepted before a restart than one partition's queue holds
+        String source = openAccount("100.00");
+        String payee = openAccount("0.00");
+        String callbackUrl = "https://client.example/hooks/restart-" + source;
+        List<String> transactionIds = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            Transaction pending = TransferService.buildTransaction("TXN-RESTART" + i,
+                new TransferDTO.TransferRequest(source, payee, new BigDecimal("4.00"), "Survivor " + i),
+                TransferService.NO_CURRENCY, null, Transaction.TransactionStatus.PENDING, null);
+            pending.setCallbackUrl(callbackUrl);
+            transactionIds.add(transactionRepository.save(pending).getTransactionId());
+        }
+        
+        // Act
+        asyncTransferService.resubmitPending();
+        
+        // Assert - none was failed for lack of queue space, and the stored callback URL was used
+        for (String transactionId : transactionIds) {
+            assertEquals("COMPLETED", awaitFinal(transactionId).getStatus());
+        }
+        assertEquals(0, new BigDecimal("100.00").compareTo(accountService.getBalance(payee).getBalance()));
+        assertEquals(25, awaitDeliveries(callbackUrl, 25).size());
+    }
+    
+    private String openAccount(String balance) {
+        return accountService.createAccount(
+            new AccountDTO.CreateAccountRequest("Async Holder", new BigDecimal(balance), "USD")
+        ).getAccountNumber();
+    }
+    
+    private TransferDTO.TransferResponse awaitFinal(String transactionId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        TransferDTO.TransferResponse status = transferService.getTransactionStatus(transactionId);
+        while ("PENDING".equals(status.getStatus()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = transferService.getTransactionStatus(transactionId);
+        }
+        return status;
+    }
+    
+    private List<TransferDTO.WebhookDelivery> awaitDeliveries(String callbackUrl) throws InterruptedException {
+        return awaitDeliveries(callbackUrl, 1);
+    }
+    
+    private List<TransferDTO.WebhookDelivery> awaitDeliveries(String callbackUrl, int count)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (webhookNotifier.deliveriesTo(callbackUrl).size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        return webhookNotifier.deliveriesTo(callbackUrl);
+    }
+}
@@ -0,0 +1,184 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:balancecachedb",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+class BalanceCacheTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private BatchTransferService batchTransferService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testBalanceIsNeverStaleAfterCommittedTransfer() {
+        // Arrange - both balances cached before the first transfer
+        String from = createAccount("1000.00");
+        String to = createAccount("0.00");
+        accountService.getBalance(from);
+        accountService.getBalance(to);
+
+        for (int i = 0; i < 20; i++) {
+            // Act
+            transferService.executeTransfer(new TransferDTO.TransferRequest(from, to, new BigDecimal("10.00"), null));
+
+            // Assert - twice, so the second read is served from the refilled cache
+            BigDecimal moved = new BigDecimal("10.00").multiply(BigDecimal.valueOf(i + 1));
+            for (int read = 0; read < 2; read++) {
+                assertBalance(new BigDecimal("1000.00").subtract(moved), from);
+                assertBalance(moved, to);
+            }
+        }
+    }
+
+    @Test
+    void testBatchTransferInvalidatesEveryAccount() {
+        // Arrange
+        String first = createAccount("500.00");
+        String second = createAccount("500.00");
+        String third = createAccount("500.00");
+        List.of(first, second, third).forEach(accountService::getBalance);
+
+        // Act
+        batchTransferService.executeBatch(List.of(
+            new TransferDTO.TransferRequest(first, second, new BigDecimal("100.00"), null),
+            new TransferDTO.TransferRequest(second, third, new BigDecimal("300.00"), null)
+        ), TransferDTO.BatchMode.ALL_OR_NOTHING);
+
+        // Assert
+        assertBalance(new BigDecimal("400.00"), first);
+        assertBalance(new BigDecimal("300.00"), second);
+        assertBalance(new BigDecimal("800.00"), third);
+    }
+
+    @Test
+    void testRolledBackTransferNeverReachesCache() {
+        // Arrange
+        String from = createAccount("1000.00");
+        String to = createAccount("0.00");
+        accountService.getBalance(from);
+
+        // Act - the transfer joins an outer transaction that rolls back; reads inside it bypass the cache
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            transferService.executeTransfer(new TransferDTO.TransferRequest(from, to, new BigDecimal("250.00"), null));
+            assertEquals(0, new BigDecimal("750.00").compareTo(accountService.getBalance(from).getBalance()));
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertBalance(new BigDecimal("1000.00"), from);
+        assertBalance(new BigDecimal("0.00"), to);
+    }
+
+    @Test
+    void testConcurrentReadersNeverCacheStaleBalance() throws Exception {
+        // Arrange - readers keep refilling the cache while transfers commit
+        List<String> accounts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            accounts.add(createAccount("1000.00"));
+        }
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService readers = Executors.newFixedThreadPool(4);
+        List<Future<?>> reads = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            reads.add(readers.submit(() -> {
+                while (running.get()) {
+                    accounts.forEach(accountService::getBalance);
+                }
+            }));
+        }
+
+        try {
+            for (int i = 0; i < 200; i++) {
+                // Act
+                int from = ThreadLocalRandom.current().nextInt(accounts.size());
+                int to = (from + 1 + ThreadLocalRandom.current().nextInt(accounts.size() - 1)) % accounts.size();
+                try {
+                    transferService.executeTransfer(new TransferDTO.TransferRequest(
+                        accounts.get(from), accounts.get(to), new BigDecimal("7.00"), null));
+                } catch (RuntimeException ex) {
+                    // Insufficient funds is fine; the balances must still match
+                }
+
+                // Assert - whatever the readers cached, a read after the commit sees the database
+                for (String account : accounts) {
+                    assertBalance(databaseBalance(account), account);
+                }
+            }
+        } finally {
+            running.set(false);
+            readers.shutdown();
+        }
+        for (Future<?> read : reads) {
+            read.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testHitsAndMissesAreCounted() {
+        // Arrange
+        String account = createAccount("10.00");
+        accountService.getBalance(account);
+        double hitsBefore = meterRegistry.get("banking.balance.cache").tag("result", "hit").counter().count();
+        double missesBefore = meterRegistry.get("banking.balance.cache").tag("result", "miss").counter().count();
+
+        // Act
+        accountService.getBalance(account);
+        accountService.getBalance(account);
+
+        // Assert
+        assertEquals(hitsBefore + 2, meterRegistry.get("banking.balance.cache").tag("result", "hit").counter().count());
+        assertEquals(missesBefore, meterRegistry.get("banking.balance.cache").tag("result", "miss").counter().count());
+    }
+
+    private String createAccount(String balance) {
+        return accountService.createAccount(
+            new AccountDTO.CreateAccountRequest("Cached", new BigDecimal(balance), "USD")
+        ).getAccountNumber();
+    }
+
+    private BigDecimal databaseBalance(String accountNumber) {
+        return accountRepository.findSnapshotByAccountNumber(accountNumber).orElseThrow().getBalance().toBigDecimal();
+    }
+
+    private void assertBalance(BigDecimal expected, String accountNumber) {
+        BigDecimal actual = accountService.getBalance(accountNumber).getBalance();
+        assertEquals(0, expected.compareTo(actual), "balance of " + accountNumber + " was " + actual);
+    }
+}
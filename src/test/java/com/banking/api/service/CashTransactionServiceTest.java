@@ -0,0 +1,165 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.AccountNotFoundException;
+import com.banking.api.exception.InsufficientFundsException;
+import com.banking.api.exception.InvalidTransferException;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.TransactionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:cashdb",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class CashTransactionServiceTest {
+
+    @Autowired
+    private CashTransactionService cashTransactionService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testDepositAndWithdrawal() {
+        // Arrange
+        String account = createAccount("Cash Holder", "100.00");
+
+        // Act
+        TransferDTO.TransferResponse deposit = cashTransactionService.deposit(account, request("40.00"));
+        TransferDTO.TransferResponse withdrawal = cashTransactionService.withdraw(account, request("25.50"));
+
+        // Assert
+        assertEquals(new BigDecimal("114.50"), accountService.getBalance(account).getBalance());
+        assertEquals("COMPLETED", deposit.getStatus());
+        assertEquals("CASH", deposit.getFromAccountNumber());
+        assertEquals(account, deposit.getToAccountNumber());
+        assertEquals(account, withdrawal.getFromAccountNumber());
+        assertEquals("CASH", withdrawal.getToAccountNumber());
+        assertEquals(Transaction.TransactionType.WITHDRAWAL,
+            transactionRepository.findByTransactionId(withdrawal.getTransactionId()).orElseThrow().getType());
+    }
+
+    @Test
+    void testSuccessfulWithdrawalIsTwoStatements() {
+        // Arrange - the first call also takes a block of transaction ids from the sequence
+        String account = createAccount("Counted Holder", "500.00");
+        cashTransactionService.withdraw(account, request("1.00"));
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        cashTransactionService.withdraw(account, request("75.00"));
+
+        // Assert - the guarded UPDATE and the transaction INSERT
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(new BigDecimal("424.00"), accountService.getBalance(account).getBalance());
+    }
+
+    @Test
+    void testRejectedWithdrawalLeavesBalanceAndRecordsFailure() {
+        // Arrange
+        String account = createAccount("Short Holder", "20.00");
+
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class,
+            () -> cashTransactionService.withdraw(account, request("20.01")));
+        AccountDTO.CashRequest euros = request("5.00");
+        euros.setCurrency("EUR");
+        assertThrows(InvalidTransferException.class, () -> cashTransactionService.deposit(account, euros));
+        assertThrows(AccountNotFoundException.class,
+            () -> cashTransactionService.deposit("0000-0000-0000", request("5.00")));
+
+        assertEquals(new BigDecimal("20.00"), accountService.getBalance(account).getBalance());
+        assertEquals(2, transactionRepository.findAll().stream()
+            .filter(transaction -> transaction.getStatus() == Transaction.TransactionStatus.FAILED)
+            .filter(transaction -> transaction.getFromAccountNumber().equals(account)
+                || transaction.getToAccountNumber().equals(account))
+            .count());
+    }
+
+    @Test
+    void testConcurrentWithdrawalsNeverOverdraw() throws Exception {
+        // Arrange - 50 withdrawals of 10.00 against 200.00
+        String account = createAccount("Contended Holder", "200.00");
+
+        // Act
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            results.add(executor.submit(() -> {
+                try {
+                    cashTransactionService.withdraw(account, request("10.00"));
+                    return true;
+                } catch (InsufficientFundsException ex) {
+                    return false;
+                }
+            }));
+        }
+        int succeeded = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(30, TimeUnit.SECONDS)) {
+                succeeded++;
+            }
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(20, succeeded);
+        assertEquals(new BigDecimal("0.00"), accountService.getBalance(account).getBalance());
+    }
+
+    @Test
+    void testHotAccountWithdrawalSweepsSlots() {
+        // Arrange - deposits to a hot account land in its slots, not on the row
+        String account = createAccount("Hot Holder", "0.00");
+        hotAccountService.configureSlots(account, 4);
+        for (int i = 0; i < 4; i++) {
+            cashTransactionService.deposit(account, request("25.00"));
+        }
+
+        // Act
+        cashTransactionService.withdraw(account, request("60.00"));
+
+        // Assert
+        assertEquals(0, new BigDecimal("40.00").compareTo(accountService.getBalance(account).getBalance()));
+        assertThrows(InsufficientFundsException.class,
+            () -> cashTransactionService.withdraw(account, request("40.01")));
+        assertEquals(0, new BigDecimal("40.00").compareTo(accountService.getBalance(account).getBalance()));
+    }
+
+    private static AccountDTO.CashRequest request(String amount) {
+        return new AccountDTO.CashRequest(new BigDecimal(amount), "USD", "Cash");
+    }
+
+    private String createAccount(String holderName, String initialBalance) {
+        return accountService.createAccount(new AccountDTO.CreateAccountRequest(
+            holderName, new BigDecimal(initialBalance), "USD")).getAccountNumber();
+    }
+}
@@ -0,0 +1,161 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.InsufficientFundsException;
+import com.banking.api.exception.InvalidTransferException;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.TransactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotentTransferServiceTest {
+    
+    @Mock
+    private TransferEngine transferEngine;
+    
+    @Mock
+    private OptimisticTransferService optimisticTransferService;
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    private IdempotentTransferService idempotentTransferService;
+    
+    private TransferDTO.TransferRequest request;
+    private TransferDTO.TransferResponse response;
+    
+    @BeforeEach
+    void setUp() {
+        idempotentTransferService = new IdempotentTransferService(transferEngine, optimisticTransferService, transactionRepository,
+            TransferDTO.ConcurrencyMode.PESSIMISTIC, 100, 60, 5000);
+        
+        request = new TransferDTO.TransferRequest(
+            "1111-1111-1111",
+            "2222-2222-2222",
+            new BigDecimal("100.00"),
+            "Test transfer"
+        );
+        response = new TransferDTO.TransferResponse(
+            "TXN-12345678", "1111-1111-1111", "2222-2222-2222", new BigDecimal("100.00"),
+            "USD", "COMPLETED", "Test transfer", LocalDateTime.now()
+        );
+    }
+    
+    @Test
+    void testRepeatedKeyIsAnsweredFromCache() {
+        // Arrange
+        when(transactionRepository.findByIdempotencyKey("key-1")).thenReturn(Optional.empty());
+        when(transferEngine.executeTransfer(request, "key-1")).thenReturn(response);
+        
+        // Act
+        TransferDTO.TransferResponse first = idempotentTransferService.executeTransfer(request, "key-1");
+        TransferDTO.TransferResponse second = idempotentTransferService.executeTransfer(request, "key-1");
+        
+        // Assert - the retry never reaches the engine or the database
+        assertSame(first, second);
+        verify(transferEngine, times(1)).executeTransfer(request, "key-1");
+        verify(transactionRepository, times(1)).findByIdempotencyKey("key-1");
+    }
+    
+    @Test
+    void testConcurrentDuplicatesWaitForFirstResult() throws Exception {
+        // Arrange
+        CountDownLatch engineEntered = new CountDownLatch(1);
+        CountDownLatch releaseEngine = new CountDownLatch(1);
+        when(transactionRepository.findByIdempotencyKey("key-2")).thenReturn(Optional.empty());
+        when(transferEngine.executeTransfer(request, "key-2")).thenAnswer(invocation -> {
+            engineEntered.countDown();
+            releaseEngine.await(5, TimeUnit.SECONDS);
+            return response;
+        });
+        
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<TransferDTO.TransferResponse>> results = new ArrayList<>();
+        
+        // Act
+        results.add(executor.submit(() -> idempotentTransferService.executeTransfer(request, "key-2")));
+        assertTrue(engineEntered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 7; i++) {
+            results.add(executor.submit(() -> idempotentTransferService.executeTransfer(request, "key-2")));
+        }
+        releaseEngine.countDown();
+        
+        // Assert
+        for (Future<TransferDTO.TransferResponse> result : results) {
+            assertEquals("TXN-12345678", result.get(5, TimeUnit.SECONDS).getTransactionId());
+        }
+        executor.shutdown();
+        verify(transferEngine, times(1)).executeTransfer(any(), anyString());
+    }
+    
+    @Test
+    void testStoredTransactionAnswersKeyAfterCacheMiss() {
+        // Arrange
+        Transaction stored = new Transaction();
+        stored.setTransactionId("TXN-STORED01");
+        stored.setFromAccountNumber("1111-1111-1111");
+        stored.setToAccountNumber("2222-2222-2222");
+        stored.setAmount(new BigDecimal("100.0"));
+        stored.setCurrency("USD");
+        stored.setStatus(Transaction.TransactionStatus.COMPLETED);
+        stored.setTimestamp(LocalDateTime.now());
+        when(transactionRepository.findByIdempotencyKey("key-3")).thenReturn(Optional.of(stored));
+        
+        // Act
+        TransferDTO.TransferResponse result = idempotentTransferService.executeTransfer(request, "key-3");
+        
+        // Assert
+        assertEquals("TXN-STORED01", result.getTransactionId());
+        verify(transferEngine, never()).executeTransfer(any(), anyString());
+    }
+    
+    @Test
+    void testFailedTransferCanBeRetriedWithSameKey() {
+        // Arrange
+        when(transactionRepository.findByIdempotencyKey("key-4")).thenReturn(Optional.empty());
+        when(transferEngine.executeTransfer(request, "key-4"))
+            .thenThrow(new InsufficientFundsException("Insufficient funds in account: 1111-1111-1111"))
+            .thenReturn(response);
+        
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class,
+            () -> idempotentTransferService.executeTransfer(request, "key-4"));
+        assertEquals("TXN-12345678", idempotentTransferService.executeTransfer(request, "key-4").getTransactionId());
+    }
+    
+    @Test
+    void testKeyReusedForDifferentTransferIsRejected() {
+        // Arrange
+        when(transactionRepository.findByIdempotencyKey("key-5")).thenReturn(Optional.empty());
+        when(transferEngine.executeTransfer(request, "key-5")).thenReturn(response);
+        idempotentTransferService.executeTransfer(request, "key-5");
+        
+        TransferDTO.TransferRequest different = new TransferDTO.TransferRequest(
+            "1111-1111-1111", "2222-2222-2222", new BigDecimal("999.00"), "Other transfer"
+        );
+        
+        // Act & Assert
+        assertThrows(InvalidTransferException.class,
+            () -> idempotentTransferService.executeTransfer(different, "key-5"));
+    }
+}
@@ -0,0 +1,222 @@
+package com.banking.api.service;
+
+import com.banking.api.controller.BatchTransferController;
+import com.banking.api.controller.HotAccountController;
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.JournalDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.InsufficientFundsException;
+import com.banking.api.model.Account;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.BalanceSnapshotRepository;
+import com.banking.api.repository.JournalEntryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "banking.transfer.engine=event-sourced",
+    // Snapshots are taken by the tests themselves
+    "banking.journal.snapshot-interval-ms=3600000",
+    "banking.journal.snapshot-min-tail=5",
+    "spring.datasource.url=jdbc:h2:mem:journaldb",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+class JournalTransferServiceTest {
+
+    private static final int WRITERS = 32;
+    private static final int TRANSFERS_PER_WRITER = 100;
+    private static final int ACCOUNTS = 8;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private TransferEngine transferEngine;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JournalBalanceService journalBalanceService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JournalEntryRepository journalEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testTransferAppendsEntriesWithoutTouchingTheBalanceColumn() {
+        // Arrange
+        assertInstanceOf(JournalTransferService.class, transferEngine);
+        String from = createAccount("Journal Source");
+        String to = createAccount("Journal Target");
+
+        // Act
+        transferEngine.executeTransfer(new TransferDTO.TransferRequest(from, to, new BigDecimal("250.00"), "Rent"));
+
+        // Assert
+        assertEquals(new BigDecimal("750.00"), accountService.getBalance(from).getBalance());
+        assertEquals(new BigDecimal("1250.00"), accountService.getBalance(to).getBalance());
+        assertEquals(OPENING_BALANCE, accountRepository.findSnapshotByAccountNumber(from)
+            .map(Account::getBalance).orElseThrow().toBigDecimal());
+        assertEquals(0, new BigDecimal("-250.00").compareTo(journalEntryRepository.sumAmountAfter(from, 0)));
+    }
+
+    @Test
+    void testOverdraftIsRejectedAgainstTheDerivedBalance() {
+        // Arrange
+        String from = createAccount("Journal Overdraft");
+        String to = createAccount("Journal Payee");
+        transferEngine.executeTransfer(new TransferDTO.TransferRequest(from, to, new BigDecimal("900.00"), null));
+
+        // Act & Assert - the balance column still says 1000, the journal says 100
+        assertThrows(InsufficientFundsException.class, () -> transferEngine.executeTransfer(
+            new TransferDTO.TransferRequest(from, to, new BigDecimal("200.00"), null)));
+        assertEquals(new BigDecimal("100.00"), accountService.getBalance(from).getBalance());
+    }
+
+    @Test
+    void testMoneyIsConservedAcrossSnapshotsAndRebuild() throws Exception {
+        // Arrange
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumbers.add(createAccount("Journal Holder " + i));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+
+        // Act - concurrent writers, with snapshots taken while they run
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_WRITER; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    try {
+                        transferEngine.executeTransfer(new TransferDTO.TransferRequest(accountNumbers.get(from),
+                            accountNumbers.get(to), BigDecimal.valueOf(random.nextInt(1, 200)), "Stress transfer"));
+                    } catch (InsufficientFundsException ex) {
+                        // Expected when a random walk drains an account
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        int snapshots = 0;
+        while (!writers.stream().allMatch(Future::isDone)) {
+            snapshots += journalBalanceService.takeSnapshots();
+            Thread.sleep(10);
+        }
+        for (Future<?> writer : writers) {
+            writer.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+        snapshots += journalBalanceService.takeSnapshots();
+
+        // Assert - derived balances conserve the total and never go negative
+        Map<String, BigDecimal> derived = new HashMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (String accountNumber : accountNumbers) {
+            BigDecimal balance = accountService.getBalance(accountNumber).getBalance();
+            assertTrue(balance.signum() >= 0);
+            derived.put(accountNumber, balance);
+            total = total.add(balance);
+        }
+        assertTrue(snapshots > 0);
+        assertEquals(0, OPENING_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total));
+
+        // Assert - the bulk lookup derives the same balances in one query per chunk
+        AccountDTO.BulkBalanceResponse bulk = accountService.getBalances(accountNumbers);
+        for (String accountNumber : accountNumbers) {
+            assertEquals(0, derived.get(accountNumber).compareTo(bulk.getBalances().get(accountNumber).getBalance()));
+        }
+
+        // Assert - replaying the whole journal agrees with every snapshot
+        JournalDTO.RebuildResponse rebuilt = journalBalanceService.rebuild(4);
+        assertTrue(rebuilt.getAccounts() >= ACCOUNTS);
+        assertEquals(0, rebuilt.getCorrected());
+        for (String accountNumber : accountNumbers) {
+            assertEquals(0, derived.get(accountNumber).compareTo(
+                balanceSnapshotRepository.findById(accountNumber).orElseThrow().getBalance().toBigDecimal()));
+        }
+    }
+
+    @Test
+    void testAccountListingsDeriveBalancesPerPage() throws Exception {
+        // Arrange
+        String first = createAccount("Journal Page 1");
+        String second = createAccount("Journal Page 2");
+        String third = createAccount("Journal Page 3");
+        transferEngine.executeTransfer(new TransferDTO.TransferRequest(first, second, new BigDecimal("100.00"), null));
+        transferEngine.executeTransfer(new TransferDTO.TransferRequest(second, third, new BigDecimal("30.00"), null));
+        long afterId = accountService.getAccount(first).getId() - 1;
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        List<AccountDTO.AccountResponse> page = accountService.getAllAccounts(afterId, 3);
+        long pageStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        ByteArrayOutputStream export = new ByteArrayOutputStream();
+        accountService.exportAccounts(AccountDTO.ExportFormat.CSV, export);
+        long exportStatements = statistics.getPrepareStatementCount();
+
+        // Assert - the accounts, then one grouped journal query for all of them
+        assertEquals(2, pageStatements);
+        assertEquals(List.of(first, second, third),
+            page.stream().map(AccountDTO.AccountResponse::getAccountNumber).toList());
+        assertEquals(0, new BigDecimal("900.00").compareTo(page.get(0).getBalance()));
+        assertEquals(0, new BigDecimal("1070.00").compareTo(page.get(1).getBalance()));
+        assertEquals(0, new BigDecimal("1030.00").compareTo(page.get(2).getBalance()));
+        assertEquals(2, exportStatements);
+        assertTrue(export.toString(StandardCharsets.UTF_8).contains("," + second + ",Journal Page 2,1070.00,"));
+    }
+
+    @Test
+    void testBalanceColumnWritersAreNotMapped() {
+        // Batch transfers and hot slots would update accounts.balance behind the journal's back
+        assertTrue(applicationContext.getBeansOfType(BatchTransferService.class).isEmpty());
+        assertTrue(applicationContext.getBeansOfType(BatchTransferController.class).isEmpty());
+        assertTrue(applicationContext.getBeansOfType(HotAccountController.class).isEmpty());
+    }
+
+    private String createAccount(String holder) {
+        return accountService.createAccount(new AccountDTO.CreateAccountRequest(holder, OPENING_BALANCE, "USD"))
+            .getAccountNumber();
+    }
+}
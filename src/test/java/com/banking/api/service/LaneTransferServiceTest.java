@@ -0,0 +1,178 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.InsufficientFundsException;
+import com.banking.api.exception.TransferConflictException;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "banking.transfer.engine=lanes",
+    "banking.lanes.count=4",
+    "spring.datasource.url=jdbc:h2:mem:lanesdb",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+class LaneTransferServiceTest {
+
+    private static final int WRITERS = 8;
+    private static final int TRANSFERS_PER_WRITER = 60;
+    private static final int BATCHES = 30;
+    private static final int ACCOUNTS = 6;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private TransferEngine transferEngine;
+
+    @Autowired
+    private BatchTransferService batchTransferService;
+
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void testTransferRunsOnTheLanes() {
+        // Arrange
+        assertInstanceOf(LaneTransferService.class, transferEngine);
+        String from = createAccount("Lane Source");
+        String to = createAccount("Lane Target");
+
+        // Act
+        transferEngine.executeTransfer(new TransferDTO.TransferRequest(from, to, new BigDecimal("250.00"), "Rent"));
+
+        // Assert
+        assertEquals(new BigDecimal("750.00"), accountService.getBalance(from).getBalance());
+        assertEquals(new BigDecimal("1250.00"), accountService.getBalance(to).getBalance());
+        assertThrows(InsufficientFundsException.class, () -> transferEngine.executeTransfer(
+            new TransferDTO.TransferRequest(from, to, new BigDecimal("750.01"), null)));
+    }
+
+    @Test
+    void testMoneyIsConservedWithWritersOutsideTheLanes() throws Exception {
+        // Arrange - one hot account, so some transfers also leave the lanes' fast path
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumbers.add(createAccount("Lane Holder " + i));
+        }
+        hotAccountService.configureSlots(accountNumbers.get(0), 4);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger batched = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        // Act - random transfers through the lanes...
+        for (int w = 0; w < WRITERS; w++) {
+            workers.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_WRITER; i++) {
+                    try {
+                        transferEngine.executeTransfer(randomTransfer(accountNumbers, random));
+                        completed.incrementAndGet();
+                    } catch (InsufficientFundsException | TransferConflictException ex) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        // ...while best-effort batches lock and update the same rows directly
+        workers.add(executor.submit(() -> {
+            start.await();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int b = 0; b < BATCHES; b++) {
+                List<TransferDTO.TransferRequest> batch = new ArrayList<>();
+                for (int i = 0; i < 5; i++) {
+                    batch.add(randomTransfer(accountNumbers, random));
+                }
+                batched.addAndGet(batchTransferService.executeBatch(batch, TransferDTO.BatchMode.BEST_EFFORT)
+                    .getSucceeded());
+            }
+            return null;
+        }));
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        // Assert - every outcome is accounted for and both kinds of writer got through
+        assertEquals(WRITERS * TRANSFERS_PER_WRITER, completed.get() + rejected.get());
+        assertTrue(completed.get() > 0);
+        assertTrue(batched.get() > 0);
+
+        // Assert - no balance went negative and the total is unchanged
+        BigDecimal total = BigDecimal.ZERO;
+        Map<String, BigDecimal> balances = new HashMap<>();
+        for (String accountNumber : accountNumbers) {
+            BigDecimal balance = accountService.getBalance(accountNumber).getBalance();
+            assertTrue(balance.signum() >= 0, accountNumber + " went negative: " + balance);
+            assertTrue(accountRepository.findSnapshotByAccountNumber(accountNumber).orElseThrow()
+                .getBalance().signum() >= 0);
+            balances.put(accountNumber, balance);
+            total = total.add(balance);
+        }
+        assertEquals(0, OPENING_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)).compareTo(total));
+
+        // Assert - each balance is exactly what its completed transaction rows say, so no update was lost
+        Map<String, BigDecimal> replayed = new HashMap<>();
+        accountNumbers.forEach(accountNumber -> replayed.put(accountNumber, OPENING_BALANCE));
+        long completedRows = 0;
+        for (Transaction transaction : transactionRepository.findAll()) {
+            if (transaction.getStatus() != Transaction.TransactionStatus.COMPLETED
+                    || !accountNumbers.contains(transaction.getFromAccountNumber())) {
+                continue;
+            }
+            completedRows++;
+            replayed.merge(transaction.getFromAccountNumber(), transaction.getAmount().negate(), BigDecimal::add);
+            replayed.merge(transaction.getToAccountNumber(), transaction.getAmount(), BigDecimal::add);
+        }
+        assertEquals(completed.get() + batched.get(), completedRows);
+        for (String accountNumber : accountNumbers) {
+            assertEquals(0, replayed.get(accountNumber).compareTo(balances.get(accountNumber)), accountNumber);
+        }
+    }
+
+    private static TransferDTO.TransferRequest randomTransfer(List<String> accountNumbers, ThreadLocalRandom random) {
+        int from = random.nextInt(accountNumbers.size());
+        int to = (from + 1 + random.nextInt(accountNumbers.size() - 1)) % accountNumbers.size();
+        return new TransferDTO.TransferRequest(accountNumbers.get(from), accountNumbers.get(to),
+            BigDecimal.valueOf(random.nextInt(1, 300)), "Lane stress");
+    }
+
+    private String createAccount(String holder) {
+        return accountService.createAccount(new AccountDTO.CreateAccountRequest(holder, OPENING_BALANCE, "USD"))
+            .getAccountNumber();
+    }
+}
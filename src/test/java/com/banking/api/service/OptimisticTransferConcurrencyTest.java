@@ -0,0 +1,108 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.InsufficientFundsException;
+import com.banking.api.exception.TransferConflictException;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:optimisticdb",
+    "banking.transfer.optimistic.max-attempts=50",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+class OptimisticTransferConcurrencyTest {
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private OptimisticTransferService optimisticTransferService;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Test
+    void testContendedTransfersConserveMoney() throws Exception {
+        // Arrange - four accounts shared by eight threads, so versions collide constantly
+        List<String> accounts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            accounts.add(accountService.createAccount(
+                new AccountDTO.CreateAccountRequest("Optimistic " + i, new BigDecimal("1000.00"), "USD")
+            ).getAccountNumber());
+        }
+        BigDecimal totalBefore = total(accounts);
+        
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger insufficient = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        
+        // Act
+        for (int t = 0; t < 8; t++) {
+            workers.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 40; i++) {
+                    int from = random.nextInt(accounts.size());
+                    int to = (from + 1 + random.nextInt(accounts.size() - 1)) % accounts.size();
+                    TransferDTO.TransferRequest request = new TransferDTO.TransferRequest(
+                        accounts.get(from), accounts.get(to), new BigDecimal(random.nextInt(1, 300)), "load");
+                    try {
+                        optimisticTransferService.executeTransfer(request, null);
+                        completed.incrementAndGet();
+                    } catch (InsufficientFundsException ex) {
+                        insufficient.incrementAndGet();
+                    } catch (TransferConflictException ex) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(120, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        // Assert - every outcome is accounted for and no money was created or lost
+        assertEquals(320, completed.get() + insufficient.get() + conflicts.get());
+        assertTrue(completed.get() > 0);
+        assertEquals(0, totalBefore.compareTo(total(accounts)));
+        for (String accountNumber : accounts) {
+            assertTrue(accountRepository.findSnapshotByAccountNumber(accountNumber).orElseThrow()
+                .getBalance().signum() >= 0);
+        }
+        long completedRows = transactionRepository.findAll().stream()
+            .filter(transaction -> accounts.contains(transaction.getFromAccountNumber()))
+            .filter(transaction -> transaction.getStatus() == Transaction.TransactionStatus.COMPLETED)
+            .count();
+        assertEquals(completed.get(), completedRows);
+    }
+    
+    private BigDecimal total(List<String> accounts) {
+        return accounts.stream()
+            .map(accountNumber -> accountRepository.findSnapshotByAccountNumber(accountNumber).orElseThrow())
+            .map(account -> account.getBalance().toBigDecimal())
+            .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
@@ -0,0 +1,156 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.InsufficientFundsException;
+import com.banking.api.exception.TransferConflictException;
+import com.banking.api.model.Account;
+import com.banking.api.model.Money;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.AccountVersion;
+import com.banking.api.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticTransferServiceTest {
+    
+    private static final List<String> ACCOUNTS = List.of("1111-1111-1111", "2222-2222-2222");
+    
+    @Mock
+    private AccountRepository accountRepository;
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    @Mock
+    private TransferService transferService;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private OptimisticTransferService optimisticTransferService;
+    
+    private TransferDTO.TransferRequest request;
+    
+    @BeforeEach
+    void setUp() {
+        optimisticTransferService = new OptimisticTransferService(accountRepository, transactionRepository,
+            transferService, new TransferMetrics(meterRegistry), new BalanceCache(meterRegistry, 100), transactionManager, 3, 0, 0);
+        request = new TransferDTO.TransferRequest(
+            "1111-1111-1111",
+            "2222-2222-2222",
+            new BigDecimal("100.00"),
+            "Test transfer"
+        );
+    }
+    
+    @Test
+    void testConflictIsRetriedAgainstFreshVersions() {
+        // Arrange - the first attempt reads version 1 and loses the race, the second reads version 2
+        when(accountRepository.findVersionsByAccountNumberIn(ACCOUNTS))
+            .thenReturn(List.of(snapshot("1111-1111-1111", "1000.00", 1), snapshot("2222-2222-2222", "500.00", 1)))
+            .thenReturn(List.of(snapshot("1111-1111-1111", "900.00", 2), snapshot("2222-2222-2222", "500.00", 1)));
+        when(accountRepository.applyTransferIfUnchanged(eq("1111-1111-1111"), eq(new BigDecimal("-100.00")), eq(1L),
+                eq("2222-2222-2222"), eq(new BigDecimal("100.00")), eq(1L), any(LocalDateTime.class)))
+            .thenReturn(1);
+        when(accountRepository.applyTransferIfUnchanged(eq("1111-1111-1111"), eq(new BigDecimal("-100.00")), eq(2L),
+                eq("2222-2222-2222"), eq(new BigDecimal("100.00")), eq(1L), any(LocalDateTime.class)))
+            .thenReturn(2);
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArguments()[0]);
+        
+        // Act
+        TransferDTO.TransferResponse response = optimisticTransferService.executeTransfer(request, "key-1");
+        
+        // Assert
+        assertEquals("COMPLETED", response.getStatus());
+        verify(transactionManager, times(1)).rollback(any());
+        verify(transactionRepository, times(1)).save(any(Transaction.class));
+        assertEquals(1.0, meterRegistry.get("banking.transfer.optimistic.retries").counter().count());
+        assertEquals(2.0, meterRegistry.get("banking.transfer.optimistic.attempts").summary().totalAmount());
+    }
+    
+    @Test
+    void testExhaustedRetriesFailWithConflictAndWriteNothing() {
+        // Arrange - every attempt loses the race
+        when(accountRepository.findVersionsByAccountNumberIn(ACCOUNTS))
+            .thenReturn(List.of(snapshot("1111-1111-1111", "1000.00", 1), snapshot("2222-2222-2222", "500.00", 1)));
+        when(accountRepository.applyTransferIfUnchanged(anyString(), any(), anyLong(), anyString(), any(), anyLong(),
+                any(LocalDateTime.class)))
+            .thenReturn(0);
+        
+        // Act & Assert
+        assertThrows(TransferConflictException.class,
+            () -> optimisticTransferService.executeTransfer(request, "key-2"));
+        verify(accountRepository, times(3)).applyTransferIfUnchanged(anyString(), any(), anyLong(), anyString(),
+            any(), anyLong(), any(LocalDateTime.class));
+        verify(transactionRepository, never()).save(any(Transaction.class));
+        assertEquals(1.0, meterRegistry.get("banking.transfer.optimistic.exhausted").counter().count());
+    }
+    
+    @Test
+    void testInsufficientFundsCommitsFailedRowWithoutRetrying() {
+        // Arrange
+        when(accountRepository.findVersionsByAccountNumberIn(ACCOUNTS))
+            .thenReturn(List.of(snapshot("1111-1111-1111", "50.00", 1), snapshot("2222-2222-2222", "500.00", 1)));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(i -> i.getArguments()[0]);
+        
+        // Act & Assert
+        assertThrows(InsufficientFundsException.class,
+            () -> optimisticTransferService.executeTransfer(request, "key-3"));
+        ArgumentCaptor<Transaction> saved = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository).save(saved.capture());
+        assertEquals(Transaction.TransactionStatus.FAILED, saved.getValue().getStatus());
+        assertNull(saved.getValue().getIdempotencyKey());
+        verify(transactionManager).commit(any());
+        verify(accountRepository, never()).applyTransferIfUnchanged(anyString(), any(), anyLong(), anyString(),
+            any(), anyLong(), any(LocalDateTime.class));
+    }
+    
+    @Test
+    void testHotAccountIsHandedToPessimisticEngine() {
+        // Arrange
+        TransferDTO.TransferResponse response = new TransferDTO.TransferResponse(
+            "TXN-12345678", "1111-1111-1111", "2222-2222-2222", new BigDecimal("100.00"),
+            "USD", "COMPLETED", "Test transfer", LocalDateTime.now()
+        );
+        when(accountRepository.findVersionsByAccountNumberIn(ACCOUNTS))
+            .thenReturn(List.of(snapshot("1111-1111-1111", "1000.00", 1),
+                new Snapshot("2222-2222-2222", Money.of(new BigDecimal("500.00")), "USD",
+                    Account.AccountStatus.ACTIVE, 8, 1L)));
+        when(transferService.executeTransfer(request, "key-4")).thenReturn(response);
+        
+        // Act & Assert
+        assertSame(response, optimisticTransferService.executeTransfer(request, "key-4"));
+        verify(accountRepository, never()).applyTransferIfUnchanged(anyString(), any(), anyLong(), anyString(),
+            any(), anyLong(), any(LocalDateTime.class));
+    }
+    
+    private static AccountVersion snapshot(String accountNumber, String balance, long version) {
+        return new Snapshot(accountNumber, Money.of(new BigDecimal(balance)), "USD", Account.AccountStatus.ACTIVE, 0,
+            version);
+    }
+    
+    private record Snapshot(String getAccountNumber, Money getBalance, String getCurrency,
+                            Account.AccountStatus getStatus, int getHotSlots, Long getVersion) implements AccountVersion {
+    }
+}
@@ -0,0 +1,253 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.ScheduledTransferDTO;
+import com.banking.api.exception.InvalidTransferException;
+import com.banking.api.model.ScheduledTransfer;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.TransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    // Dispatch is driven by the tests themselves
+    "banking.scheduler.poll-interval-ms=0",
+    "banking.scheduler.batch-size=4",
+    // Long enough that a deferred occurrence never comes due again during the run
+    "banking.scheduler.retry-backoff-base-ms=3600000",
+    "banking.scheduler.retry-backoff-max-ms=3600000",
+    "spring.datasource.url=jdbc:h2:mem:scheduleddb",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+class ScheduledTransferServiceTest {
+
+    @Autowired
+    private ScheduledTransferService scheduledTransferService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void testOccurrencesAreCountedFromTheStart() {
+        // Monthly from the 31st comes back to the 31st after a short month
+        ScheduledTransfer monthly = schedule(ScheduledTransfer.Frequency.MONTHLY, null,
+            LocalDateTime.of(2025, 1, 31, 9, 0), null);
+        LocalDateTime february = ScheduledTransferService.nextOccurrence(monthly, LocalDateTime.of(2025, 1, 31, 9, 0));
+        assertEquals(LocalDateTime.of(2025, 2, 28, 9, 0), february);
+        assertEquals(LocalDateTime.of(2025, 3, 31, 9, 0), ScheduledTransferService.nextOccurrence(monthly, february));
+
+        // Weekdays at 09:00, starting on a Friday
+        ScheduledTransfer cron = schedule(ScheduledTransfer.Frequency.CRON, "0 0 9 * * MON-FRI",
+            LocalDateTime.of(2025, 1, 3, 9, 0), null);
+        assertEquals(LocalDateTime.of(2025, 1, 6, 9, 0),
+            ScheduledTransferService.nextOccurrence(cron, LocalDateTime.of(2025, 1, 3, 9, 0)));
+
+        // Nothing after the end time
+        ScheduledTransfer daily = schedule(ScheduledTransfer.Frequency.DAILY, null,
+            LocalDateTime.of(2025, 1, 1, 9, 0), LocalDateTime.of(2025, 1, 3, 9, 0));
+        assertEquals(LocalDateTime.of(2025, 1, 3, 9, 0),
+            ScheduledTransferService.nextOccurrence(daily, LocalDateTime.of(2025, 1, 2, 9, 0)));
+        assertNull(ScheduledTransferService.nextOccurrence(daily, LocalDateTime.of(2025, 1, 3, 9, 0)));
+    }
+
+    @Test
+    void testConcurrentDispatchersRunEachOccurrenceOnce() throws Exception {
+        // Arrange - more due schedules than one batch, all out of the same account
+        String from = createAccount("Standing Order Source", "1000.00");
+        String to = createAccount("Standing Order Target", "0.00");
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(scheduledTransferService.create(request(from, to, "10.00",
+                ScheduledTransfer.Frequency.ONCE, LocalDateTime.now().minusMinutes(1))).getId());
+        }
+
+        // Act - four dispatchers racing, as after a restart on several nodes
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(executor.submit(scheduledTransferService::dispatch));
+        }
+        int ran = 0;
+        for (Future<Integer> result : results) {
+            ran += result.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(10, ran);
+        assertEquals(0, scheduledTransferService.dispatch());
+        assertEquals(new BigDecimal("900.00"), accountService.getBalance(from).getBalance());
+        assertEquals(new BigDecimal("100.00"), accountService.getBalance(to).getBalance());
+        for (Long id : ids) {
+            ScheduledTransferDTO.ScheduledTransferResponse schedule = scheduledTransferService.get(id);
+            assertEquals("COMPLETED", schedule.getStatus());
+            assertEquals(1, schedule.getRunCount());
+            assertTrue(transactionRepository.findByTransactionId(schedule.getLastTransactionId()).isPresent());
+        }
+    }
+
+    @Test
+    void testOverdueRecurringTransferRunsOnceAndMovesOn() {
+        // Arrange - a daily order whose last three occurrences were missed
+        String from = createAccount("Daily Source", "100.00");
+        String to = createAccount("Daily Target", "0.00");
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(3).minusMinutes(1);
+        Long id = scheduledTransferService.create(request(from, to, "5.00",
+            ScheduledTransfer.Frequency.DAILY, start)).getId();
+
+        // Act
+        scheduledTransferService.dispatch();
+        scheduledTransferService.dispatch();
+
+        // Assert
+        ScheduledTransferDTO.ScheduledTransferResponse schedule = scheduledTransferService.get(id);
+        assertEquals("ACTIVE", schedule.getStatus());
+        assertEquals(1, schedule.getRunCount());
+        assertEquals(start.plusDays(4), schedule.getNextRunAt());
+        assertEquals(new BigDecimal("95.00"), accountService.getBalance(from).getBalance());
+    }
+
+    @Test
+    void testFailedTransferConsumesItsOccurrence() {
+        // Arrange
+        String from = createAccount("Empty Source", "1.00");
+        String to = createAccount("Empty Target", "0.00");
+        Long id = scheduledTransferService.create(request(from, to, "50.00",
+            ScheduledTransfer.Frequency.ONCE, LocalDateTime.now().minusMinutes(1))).getId();
+
+        // Act
+        scheduledTransferService.dispatch();
+
+        // Assert - recorded on the schedule and as a FAILED transaction, not retried
+        ScheduledTransferDTO.ScheduledTransferResponse schedule = scheduledTransferService.get(id);
+        assertEquals("COMPLETED", schedule.getStatus());
+        assertEquals(1, schedule.getFailureCount());
+        assertTrue(schedule.getLastFailureReason().contains("Insufficient funds"));
+        assertTrue(transactionRepository.findAll().stream()
+            .anyMatch(transaction -> transaction.getStatus() == Transaction.TransactionStatus.FAILED
+                && transaction.getFromAccountNumber().equals(from)));
+        assertEquals(0, scheduledTransferService.dispatch());
+        assertEquals(new BigDecimal("1.00"), accountService.getBalance(from).getBalance());
+    }
+
+    @Test
+    void testUnexpectedFailuresAreDeferredInsteadOfStarvingLaterSchedules() {
+        // Arrange - a full batch of occurrences whose idempotency keys are already taken, so their
+        // transfers fail on the unique index, due ahead of one that can run
+        String from = createAccount("Broken Source", "100.00");
+        String to = createAccount("Broken Target", "0.00");
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> broken = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Long id = scheduledTransferService.create(request(from, to, "5.00",
+                ScheduledTransfer.Frequency.ONCE, now.minusMinutes(10 - i))).getId();
+            transactionRepository.save(takenKey(from, to, "scheduled-" + id + "-1"));
+            broken.add(id);
+        }
+        Long healthy = scheduledTransferService.create(request(from, to, "5.00",
+            ScheduledTransfer.Frequency.ONCE, now.minusMinutes(1))).getId();
+
+        // Act
+        scheduledTransferService.dispatch();
+        scheduledTransferService.dispatch();
+
+        // Assert - the broken ones are pushed back with the error recorded, and the healthy one ran
+        for (Long id : broken) {
+            ScheduledTransferDTO.ScheduledTransferResponse schedule = scheduledTransferService.get(id);
+            assertEquals("ACTIVE", schedule.getStatus());
+            assertEquals(0, schedule.getRunCount());
+            assertTrue(schedule.getNextRunAt().isAfter(LocalDateTime.now()));
+            assertNotNull(schedule.getLastFailureReason());
+            scheduledTransferService.cancel(id);
+        }
+        assertEquals("COMPLETED", scheduledTransferService.get(healthy).getStatus());
+        assertEquals(new BigDecimal("95.00"), accountService.getBalance(from).getBalance());
+    }
+
+    @Test
+    void testFutureAndCancelledSchedulesDoNotRun() {
+        // Arrange
+        String from = createAccount("Future Source", "100.00");
+        String to = createAccount("Future Target", "0.00");
+        Long future = scheduledTransferService.create(request(from, to, "5.00",
+            ScheduledTransfer.Frequency.ONCE, LocalDateTime.now().plusDays(1))).getId();
+        Long cancelled = scheduledTransferService.create(request(from, to, "5.00",
+            ScheduledTransfer.Frequency.WEEKLY, LocalDateTime.now().minusMinutes(1))).getId();
+
+        // Act
+        assertEquals("CANCELLED", scheduledTransferService.cancel(cancelled).getStatus());
+        scheduledTransferService.dispatch();
+
+        // Assert
+        assertEquals(0, scheduledTransferService.get(future).getRunCount());
+        assertEquals(0, scheduledTransferService.get(cancelled).getRunCount());
+        assertEquals(new BigDecimal("100.00"), accountService.getBalance(from).getBalance());
+    }
+
+    @Test
+    void testCronScheduleNeedsAValidExpression() {
+        String from = createAccount("Cron Source", "100.00");
+        String to = createAccount("Cron Target", "0.00");
+        ScheduledTransferDTO.CreateRequest request = request(from, to, "5.00",
+            ScheduledTransfer.Frequency.CRON, LocalDateTime.now());
+
+        request.setCronExpression("every weekday");
+        assertThrows(InvalidTransferException.class, () -> scheduledTransferService.create(request));
+
+        request.setCronExpression("0 0 9 * * MON-FRI");
+        LocalDateTime nextRunAt = scheduledTransferService.create(request).getNextRunAt();
+        assertEquals(9, nextRunAt.getHour());
+        assertTrue(nextRunAt.getDayOfWeek().getValue() <= 5);
+    }
+
+    private ScheduledTransferDTO.CreateRequest request(String from, String to, String amount,
+                                                       ScheduledTransfer.Frequency frequency, LocalDateTime startAt) {
+        return new ScheduledTransferDTO.CreateRequest(from, to, new BigDecimal(amount), "Standing order",
+            frequency, null, startAt, null);
+    }
+
+    private static ScheduledTransfer schedule(ScheduledTransfer.Frequency frequency, String cronExpression,
+                                              LocalDateTime startAt, LocalDateTime endAt) {
+        ScheduledTransfer schedule = new ScheduledTransfer();
+        schedule.setFrequency(frequency);
+        schedule.setCronExpression(cronExpression);
+        schedule.setStartAt(startAt);
+        schedule.setEndAt(endAt);
+        return schedule;
+    }
+
+    private static Transaction takenKey(String from, String to, String idempotencyKey) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("TXN-" + idempotencyKey);
+        transaction.setIdempotencyKey(idempotencyKey);
+        transaction.setFromAccountNumber(from);
+        transaction.setToAccountNumber(to);
+        transaction.setAmount(new BigDecimal("5.00"));
+        transaction.setCurrency("USD");
+        transaction.setStatus(Transaction.TransactionStatus.FAILED);
+        transaction.setType(Transaction.TransactionType.TRANSFER);
+        return transaction;
+    }
+
+    private String createAccount(String holderName, String initialBalance) {
+        return accountService.createAccount(new AccountDTO.CreateAccountRequest(
+            holderName, new BigDecimal(initialBalance), "USD")).getAccountNumber();
+    }
+}
@@ -0,0 +1,181 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.model.Account;
+import com.banking.api.model.Money;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.TransactionBatchWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Opt-in benchmark for account history on a large transactions table.
+ *
+ * Compares the single from = ? OR to = ? query the history used to need with
+ * the split, index-ordered queries behind TransactionHistoryService. Run with
+ *
+ *   mvn test -Dtest=TransactionHistoryBenchmarkTest -Dbenchmark.history.rows=10000000 -DargLine=-Xmx8g
+ *
+ * Skipped unless benchmark.history.rows is set.
+ */
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:historybenchdb",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+@EnabledIfSystemProperty(named = "benchmark.history.rows", matches = "\\d+")
+class TransactionHistoryBenchmarkTest {
+
+    private static final int LOAD_CHUNK = 100_000;
+    private static final int ROWS_PER_ACCOUNT = 1_000;
+    private static final int PAGE_SIZE = 100;
+    private static final int SAMPLES = 200;
+
+    // Settlement-style account on one side of roughly 1 in 10 transfers
+    private static final String HOT_ACCOUNT = "9999-0000-0000";
+
+    private static final String OR_QUERY =
+        "SELECT id FROM transactions WHERE from_account_number = ? OR to_account_number = ? " +
+        "ORDER BY timestamp DESC, id DESC LIMIT " + PAGE_SIZE;
+
+    @Autowired
+    private TransactionHistoryService transactionHistoryService;
+
+    @Autowired
+    private TransactionBatchWriter transactionBatchWriter;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void benchmarkHistoryPageOnLargeTable() {
+        long rows = Long.getLong("benchmark.history.rows");
+        int accounts = (int) Math.max(2, rows / ROWS_PER_ACCOUNT);
+        load(rows, accounts);
+
+        Random random = new Random(7);
+        List<String> probes = new ArrayList<>();
+        probes.add(HOT_ACCOUNT);
+        for (int i = 0; i < 9; i++) {
+            probes.add(accountNumber(random.nextInt(accounts)));
+        }
+        for (String accountNumber : probes) {
+            createAccount(accountNumber);
+        }
+
+        System.out.println("EXPLAIN OR query:\n" + explain(OR_QUERY, probes.get(1)));
+        System.out.println("EXPLAIN outgoing side:\n" + explain(
+            "SELECT id FROM transactions WHERE from_account_number = ? AND timestamp < '9999-01-01' " +
+            "ORDER BY timestamp DESC, id DESC LIMIT " + PAGE_SIZE, probes.get(1)));
+
+        // Both approaches must return the same first page
+        for (String accountNumber : probes) {
+            List<Long> expected = jdbcTemplate.queryForList(OR_QUERY, Long.class, accountNumber, accountNumber);
+            List<String> actual = transactionHistoryService
+                .getHistory(accountNumber, null, null, null, PAGE_SIZE).getTransactions().stream()
+                .map(TransferDTO.TransferResponse::getTransactionId)
+                .toList();
+            List<String> expectedIds = expected.stream()
+                .map(id -> jdbcTemplate.queryForObject(
+                    "SELECT transaction_id FROM transactions WHERE id = ?", String.class, id))
+                .toList();
+            assertEquals(expectedIds, actual);
+        }
+
+        long[] orTimings = new long[SAMPLES];
+        long[] splitTimings = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            String accountNumber = probes.get(i % probes.size());
+
+            long start = System.nanoTime();
+            jdbcTemplate.queryForList(OR_QUERY, Long.class, accountNumber, accountNumber);
+            orTimings[i] = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            transactionHistoryService.getHistory(accountNumber, null, null, null, PAGE_SIZE);
+            splitTimings[i] = System.nanoTime() - start;
+        }
+
+        System.out.printf("History page of %d over %,d rows (%d samples)%n", PAGE_SIZE, rows, SAMPLES);
+        System.out.printf("  OR query    p50 %8.2f ms  p99 %8.2f ms%n",
+            percentile(orTimings, 0.50), percentile(orTimings, 0.99));
+        System.out.printf("  split query p50 %8.2f ms  p99 %8.2f ms%n",
+            percentile(splitTimings, 0.50), percentile(splitTimings, 0.99));
+    }
+
+    private void load(long rows, int accounts) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.now().minusYears(1);
+        long loaded = 0;
+        while (loaded < rows) {
+            int size = (int) Math.min(LOAD_CHUNK, rows - loaded);
+            List<Transaction> chunk = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                long sequence = loaded + i;
+                int from = random.nextInt(accounts);
+                int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+                Transaction transaction = new Transaction();
+                transaction.setTransactionId("TXN-" + Long.toHexString(sequence).toUpperCase());
+                transaction.setFromAccountNumber(random.nextInt(10) == 0 ? HOT_ACCOUNT : accountNumber(from));
+                transaction.setToAccountNumber(accountNumber(to));
+                transaction.setAmount(BigDecimal.valueOf(random.nextInt(1, 10_000), 2));
+                transaction.setCurrency("USD");
+                transaction.setStatus(Transaction.TransactionStatus.COMPLETED);
+                transaction.setType(Transaction.TransactionType.TRANSFER);
+                transaction.setTimestamp(start.plusNanos(sequence * 3_000_000L));
+                chunk.add(transaction);
+            }
+            transactionTemplate.executeWithoutResult(status -> transactionBatchWriter.insertAll(chunk));
+            loaded += size;
+        }
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    private void createAccount(String accountNumber) {
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setAccountHolderName("Benchmark " + accountNumber);
+        account.setBalance(Money.zero(2));
+        account.setCurrency("USD");
+        account.setStatus(Account.AccountStatus.ACTIVE);
+        accountRepository.save(account);
+    }
+
+    private String explain(String sql, String accountNumber) {
+        String bound = sql.replace("?", "'" + accountNumber + "'");
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + bound, String.class));
+    }
+
+    private static String accountNumber(int index) {
+        return String.format("%04d-%04d-0000", index / 10_000, index % 10_000);
+    }
+
+    private static double percentile(long[] timings, double percentile) {
+        long[] sorted = timings.clone();
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,94 @@
+package com.banking.api.service;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.InsufficientFundsException;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.TransactionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:statementcountdb",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class TransferServiceStatementCountTest {
+
+    @Autowired
+    private TransferEngine transferEngine;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private String source;
+    private String destination;
+
+    @BeforeEach
+    void setUp() {
+        source = createAccount("Statement Source", "500.00");
+        destination = createAccount("Statement Destination", "100.00");
+        // Transaction ids come from the sequence in blocks; draw one before counting
+        transferEngine.executeTransfer(new TransferDTO.TransferRequest(createAccount("Warm-up Source", "1.00"),
+            createAccount("Warm-up Destination", "0.00"), new BigDecimal("1.00"), "Warm-up"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testTransferIsThreeStatements() {
+        // Act
+        TransferDTO.TransferResponse response = transferEngine.executeTransfer(
+            new TransferDTO.TransferRequest(source, destination, new BigDecimal("75.00"), "Counted"));
+
+        // Assert - SELECT ... FOR UPDATE, UPDATE of both rows, INSERT of the transaction
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals("COMPLETED", response.getStatus());
+        assertEquals(0, new BigDecimal("425.00").compareTo(balance(source)));
+        assertEquals(0, new BigDecimal("175.00").compareTo(balance(destination)));
+    }
+
+    @Test
+    void testFailedTransferCommitsOneFailedRecord() {
+        // Act
+        assertThrows(InsufficientFundsException.class, () -> transferEngine.executeTransfer(
+            new TransferDTO.TransferRequest(source, destination, new BigDecimal("900.00"), "Too much")));
+
+        // Assert - SELECT ... FOR UPDATE and the FAILED INSERT; balances untouched
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, new BigDecimal("500.00").compareTo(balance(source)));
+        assertTrue(transactionRepository.findAll().stream().anyMatch(transaction ->
+            transaction.getStatus() == Transaction.TransactionStatus.FAILED
+                && source.equals(transaction.getFromAccountNumber())));
+    }
+
+    private BigDecimal balance(String accountNumber) {
+        return accountRepository.findSnapshotByAccountNumber(accountNumber).orElseThrow().getBalance().toBigDecimal();
+    }
+
+    private String createAccount(String holderName, String initialBalance) {
+        return accountService.createAccount(
+            new AccountDTO.CreateAccountRequest(holderName, new BigDecimal(initialBalance), "USD")
+        ).getAccountNumber();
+    }
+}
@@ -3,22 +3,30 @@ package com.banking.api.service;
 import com.banking.api.dto.TransferDTO;
 import com.banking.api.exception.*;
 import com.banking.api.model.Account;
+import com.banking.api.model.Money;
 import com.banking.api.model.Transaction;
 import com.banking.api.repository.AccountRepository;
 import com.banking.api.repository.TransactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +38,20 @@ class TransferServiceTest {
     @Mock
     private TransactionRepository transactionRepository;
     
+    @Mock
+    private HotAccountService hotAccountService;
+    
+    @Mock
+    private EntityManager entityManager;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Spy
+    private TransferMetrics transferMetrics = new TransferMetrics(meterRegistry);
+    
+    @Spy
+    private BalanceCache balanceCache = new BalanceCache(meterRegistry, 100);
+    
     @InjectMocks
     private TransferService transferService;
     
@@ -41,14 +63,14 @@ class TransferServiceTest {
         sourceAccount = new Account();
         sourceAccount.setAccountNumber("1111-1111-1111");
         sourceAccount.setAccountHolderName("John Doe");
-        sourceAccount.setBalance(new BigDecimal("1000.00"));
-        sourceAccount.setCurrency("USD");
+        sourceAccount.setBalance(Money.of(new BigDecimal("1000.00")));
+        sourceAccount.setCurrency("EUR");
         sourceAccount.setStatus(Account.AccountStatus.ACTIVE);
         
         destinationAccount = new Account();
         destinationAccount.setAccountNumber("2222-2222-2222");
         destinationAccount.setAccountHolderName("Jane Smith");
-        destinationAccount.setBalance(new BigDecimal("500.00"));
+        destinationAccount.setBalance(Money.of(new BigDecimal("500.00")));
         destinationAccount.setCurrency("USD");
         destinationAccount.setStatus(Account.AccountStatus.ACTIVE);
     }
@@ -63,24 +85,28 @@ class TransferServiceTest {
             "Test transfer"
         );
         
-        when(accountRepository.findByAccountNumber("1111-1111-1111"))
-            .thenReturn(Optional.of(sourceAccount));
-        when(accountRepository.findByAccountNumber("2222-2222-2222"))
-            .thenReturn(Optional.of(destinationAccount));
+        when(accountRepository.findAllForUpdateByAccountNumberIn(List.of("1111-1111-1111", "2222-2222-2222")))
+            .thenReturn(List.of(sourceAccount, destinationAccount));
+        when(accountRepository.applyTransfer(eq("1111-1111-1111"), eq(new BigDecimal("-100.00")),
+                eq("2222-2222-2222"), eq(new BigDecimal("100.00")), any(LocalDateTime.class)))
+            .thenReturn(2);
         when(transactionRepository.save(any(Transaction.class)))
             .thenAnswer(i -> i.getArguments()[0]);
         
         // Act
         TransferDTO.TransferResponse response = transferService.executeTransfer(request);
         
-        // Assert
+        // Assert - one locking read, one UPDATE for both legs, one INSERT with the final status
         assertNotNull(response);
         assertEquals("COMPLETED", response.getStatus());
-        assertEquals(new BigDecimal("900.00"), sourceAccount.getBalance());
-        assertEquals(new BigDecimal("600.00"), destinationAccount.getBalance());
         
-        verify(accountRepository, times(2)).save(any(Account.class));
-        verify(transactionRepository, times(2)).save(any(Transaction.class));
+        verify(accountRepository, never()).save(any(Account.class));
+        ArgumentCaptor<Transaction> saved = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository, times(1)).save(saved.capture());
+        assertEquals(Transaction.TransactionStatus.COMPLETED, saved.getValue().getStatus());
+        assertEquals(sourceAccount.getCurrency(), saved.getValue().getCurrency());
+        assertEquals(1.0, meterRegistry.get("banking.transfer.status").tag("status", "COMPLETED").counter().count());
+        assertEquals(1, meterRegistry.get("banking.transfer.stage").tag("stage", "lock").timer().count());
     }
     
     @Test
@@ -93,10 +119,8 @@ class TransferServiceTest {
             "Test transfer"
         );
         
-        when(accountRepository.findByAccountNumber("1111-1111-1111"))
-            .thenReturn(Optional.of(sourceAccount));
-        when(accountRepository.findByAccountNumber("2222-2222-2222"))
-            .thenReturn(Optional.of(destinationAccount));
+        when(accountRepository.findAllForUpdateByAccountNumberIn(List.of("1111-1111-1111", "2222-2222-2222")))
+            .thenReturn(List.of(sourceAccount, destinationAccount));
         when(transactionRepository.save(any(Transaction.class)))
             .thenAnswer(i -> i.getArguments()[0]);
         
@@ -105,7 +129,13 @@ class TransferServiceTest {
             transferService.executeTransfer(request);
         });
         
-        verify(accountRepository, never()).save(any(Account.class));
+        verify(accountRepository, never()).applyTransfer(anyString(), any(), anyString(), any(), any());
+        ArgumentCaptor<Transaction> saved = ArgumentCaptor.forClass(Transaction.class);
+        verify(transactionRepository, times(1)).save(saved.capture());
+        assertEquals(Transaction.TransactionStatus.FAILED, saved.getValue().getStatus());
+        assertEquals(1.0, meterRegistry.get("banking.transfer.failures")
+            .tag("reason", "InsufficientFundsException").counter().count());
+        assertEquals(1.0, meterRegistry.get("banking.transfer.status").tag("status", "FAILED").counter().count());
     }
     
     @Test
@@ -136,10 +166,8 @@ class TransferServiceTest {
             "Test transfer"
         );
         
-        when(accountRepository.findByAccountNumber("1111-1111-1111"))
-            .thenReturn(Optional.of(sourceAccount));
-        when(accountRepository.findByAccountNumber("2222-2222-2222"))
-            .thenReturn(Optional.of(destinationAccount));
+        when(accountRepository.findAllForUpdateByAccountNumberIn(List.of("1111-1111-1111", "2222-2222-2222")))
+            .thenReturn(List.of(sourceAccount, destinationAccount));
         when(transactionRepository.save(any(Transaction.class)))
             .thenAnswer(i -> i.getArguments()[0]);
         
@@ -159,10 +187,8 @@ class TransferServiceTest {
             "Test transfer"
         );
         
-        when(accountRepository.findByAccountNumber("1111-1111-1111"))
-            .thenReturn(Optional.of(sourceAccount));
-        when(accountRepository.findByAccountNumber("9999-9999-9999"))
-            .thenReturn(Optional.empty());
+        when(accountRepository.findAllForUpdateByAccountNumberIn(List.of("1111-1111-1111", "9999-9999-9999")))
+            .thenReturn(List.of(sourceAccount));
         when(transactionRepository.save(any(Transaction.class)))
             .thenAnswer(i -> i.getArguments()[0]);
         
@@ -171,4 +197,36 @@ class TransferServiceTest {
             transferService.executeTransfer(request);
         });
     }
+    
+    @Test
+    void testTransferToHotAccountCreditsSlotWithoutLockingRow() {
+        // Arrange
+        destinationAccount.setHotSlots(4);
+        TransferDTO.TransferRequest request = new TransferDTO.TransferRequest(
+            "1111-1111-1111",
+            "2222-2222-2222",
+            new BigDecimal("100.00"),
+            "Merchant payment"
+        );
+        
+        when(hotAccountService.slotCount("2222-2222-2222")).thenReturn(4);
+        when(hotAccountService.credit("2222-2222-2222", new BigDecimal("100.00"))).thenReturn(true);
+        when(accountRepository.findAllForUpdateByAccountNumberIn(List.of("1111-1111-1111")))
+            .thenReturn(List.of(sourceAccount));
+        when(accountRepository.findSnapshotByAccountNumber("2222-2222-2222"))
+            .thenReturn(Optional.of(destinationAccount));
+        when(transactionRepository.save(any(Transaction.class)))
+            .thenAnswer(i -> i.getArguments()[0]);
+        
+        // Act
+        TransferDTO.TransferResponse response = transferService.executeTransfer(request);
+        
+        // Assert
+        assertEquals("COMPLETED", response.getStatus());
+        
+        verify(accountRepository).adjustBalance(eq("1111-1111-1111"), eq(new BigDecimal("-100.00")),
+            any(LocalDateTime.class));
+        verify(accountRepository, never()).adjustBalance(eq("2222-2222-2222"), any(), any());
+        verify(accountRepository, never()).applyTransfer(anyString(), any(), anyString(), any(), any());
+    }
 }
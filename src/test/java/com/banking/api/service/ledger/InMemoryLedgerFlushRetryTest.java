@@ -0,0 +1,176 @@
+package com.banking.api.service.ledger;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.InvalidTransferException;
+import com.banking.api.model.Transaction;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.TransactionRepository;
+import com.banking.api.service.AccountService;
+import com.banking.api.service.TransferEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "banking.transfer.engine=in-memory",
+    // Flushes are driven by the test itself
+    "banking.ledger.flush-interval-ms=3600000",
+    "spring.datasource.url=jdbc:h2:mem:ledgerretrydb",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+class InMemoryLedgerFlushRetryTest {
+
+    @TempDir
+    static Path walDir;
+
+    @DynamicPropertySource
+    static void ledgerProperties(DynamicPropertyRegistry registry) {
+        registry.add("banking.ledger.wal-dir", () -> walDir.toString());
+    }
+
+    @Autowired
+    private TransferEngine transferEngine;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void testBatchCommittedBeforeFailedCheckpointIsNotStoredTwice() throws Exception {
+        // Arrange - a non-empty directory where the checkpoint's temp file goes makes the checkpoint fail
+        InMemoryLedgerTransferService ledgerService = assertInstanceOf(InMemoryLedgerTransferService.class, transferEngine);
+        String from = createAccount("Retry Source");
+        String to = createAccount("Retry Target");
+        Path blocker = Files.createDirectories(walDir.resolve("ledger.checkpoint.tmp").resolve("blocker"));
+        TransferDTO.TransferResponse response = transferEngine.executeTransfer(
+            new TransferDTO.TransferRequest(from, to, new BigDecimal("250.00"), "Retried"));
+
+        // Act - the batch commits, the checkpoint fails and the batch is requeued
+        assertThrows(UncheckedIOException.class, () -> ledgerService.flushPending(false));
+        assertTrue(transactionRepository.findByTransactionId(response.getTransactionId()).isPresent());
+        Files.delete(blocker);
+        Files.delete(blocker.getParent());
+        ledgerService.flushPending(false);
+
+        // Assert - stored once, balances moved once, and in the accounts' currency
+        assertEquals(1, transactionRepository.findAll().stream()
+            .filter(transaction -> transaction.getFromAccountNumber().equals(from)).count());
+        Transaction stored = transactionRepository.findByTransactionId(response.getTransactionId()).orElseThrow();
+        assertEquals("EUR", stored.getCurrency());
+        assertEquals("EUR", response.getCurrency());
+        assertEquals(0, new BigDecimal("750.00").compareTo(balance(from)));
+        assertEquals(0, new BigDecimal("1250.00").compareTo(balance(to)));
+    }
+
+    @Test
+    void testRepeatedIdempotencyKeyReplaysTheUnflushedTransfer() {
+        // Arrange
+        InMemoryLedgerTransferService ledgerService = assertInstanceOf(InMemoryLedgerTransferService.class, transferEngine);
+        String from = createAccount("Replay Source");
+        String to = createAccount("Replay Target");
+        TransferDTO.TransferRequest request = new TransferDTO.TransferRequest(from, to, new BigDecimal("250.00"), "Once");
+        TransferDTO.TransferResponse first = transferEngine.executeTransfer(request, "ledger-replay-key");
+
+        // Act - the same key again, before and after the first transfer is flushed
+        TransferDTO.TransferResponse pending = transferEngine.executeTransfer(request, "ledger-replay-key");
+        ledgerService.flushPending(false);
+        TransferDTO.TransferResponse stored = transferEngine.executeTransfer(request, "ledger-replay-key");
+
+        // Assert - one transfer, and the key cannot be reused for another one
+        assertEquals(first.getTransactionId(), pending.getTransactionId());
+        assertEquals(first.getTransactionId(), stored.getTransactionId());
+        assertThrows(InvalidTransferException.class, () -> transferEngine.executeTransfer(
+            new TransferDTO.TransferRequest(from, to, new BigDecimal("1.00"), null), "ledger-replay-key"));
+        assertEquals(first.getTransactionId(),
+            transactionRepository.findByIdempotencyKey("ledger-replay-key").orElseThrow().getTransactionId());
+        assertEquals(0, new BigDecimal("750.00").compareTo(balance(from)));
+        assertEquals(0, new BigDecimal("1250.00").compareTo(balance(to)));
+    }
+
+    @Test
+    void testKeyTakenBeforeFlushDoesNotBlockLaterFlushes() {
+        // Arrange - another writer commits the key while the entry is still unflushed
+        InMemoryLedgerTransferService ledgerService = assertInstanceOf(InMemoryLedgerTransferService.class, transferEngine);
+        String from = createAccount("Taken Source");
+        String to = createAccount("Taken Target");
+        TransferDTO.TransferResponse journalled = transferEngine.executeTransfer(
+            new TransferDTO.TransferRequest(from, to, new BigDecimal("250.00"), "Journalled"), "ledger-taken-key");
+        transactionRepository.save(outsideTransaction(from, to, "ledger-taken-key"));
+
+        // Act
+        ledgerService.flushPending(false);
+        TransferDTO.TransferResponse later = transferEngine.executeTransfer(
+            new TransferDTO.TransferRequest(from, to, new BigDecimal("100.00"), "Later"));
+        ledgerService.flushPending(false);
+
+        // Assert - the journalled transfer is stored without the key and the queue keeps draining
+        Transaction stored = transactionRepository.findByTransactionId(journalled.getTransactionId()).orElseThrow();
+        assertNull(stored.getIdempotencyKey());
+        assertTrue(transactionRepository.findByTransactionId(later.getTransactionId()).isPresent());
+        assertEquals(0, new BigDecimal("650.00").compareTo(balance(from)));
+        assertEquals(0, new BigDecimal("1350.00").compareTo(balance(to)));
+    }
+
+    @Test
+    void testAccountReadsSeeTransfersBeforeTheyAreFlushed() {
+        // Arrange - reads before the transfer would leave a cached balance behind
+        String from = createAccount("Unflushed Source");
+        String to = createAccount("Unflushed Target");
+        accountService.getBalance(from);
+        accountService.getBalance(to);
+
+        // Act - nothing is flushed, so the accounts table still holds the opening balances
+        transferEngine.executeTransfer(new TransferDTO.TransferRequest(from, to, new BigDecimal("250.00"), "Unflushed"));
+
+        // Assert
+        assertEquals(0, new BigDecimal("1000.00").compareTo(balance(from)));
+        assertEquals(0, new BigDecimal("750.00").compareTo(accountService.getBalance(from).getBalance()));
+        assertEquals(0, new BigDecimal("1250.00").compareTo(accountService.getBalance(to).getBalance()));
+        assertEquals(0, new BigDecimal("750.00").compareTo(accountService.getAccount(from).getBalance()));
+        AccountDTO.BulkBalanceResponse bulk = accountService.getBalances(List.of(from, to));
+        assertEquals(0, new BigDecimal("750.00").compareTo(bulk.getBalances().get(from).getBalance()));
+        assertEquals(0, new BigDecimal("1250.00").compareTo(bulk.getBalances().get(to).getBalance()));
+    }
+
+    private static Transaction outsideTransaction(String from, String to, String idempotencyKey) {
+        Transaction transaction = new Transaction();
+        transaction.setTransactionId("TXN-OUTSIDE");
+        transaction.setIdempotencyKey(idempotencyKey);
+        transaction.setFromAccountNumber(from);
+        transaction.setToAccountNumber(to);
+        transaction.setAmount(new BigDecimal("250.00"));
+        transaction.setCurrency("EUR");
+        transaction.setStatus(Transaction.TransactionStatus.FAILED);
+        transaction.setType(Transaction.TransactionType.TRANSFER);
+        transaction.setTimestamp(LocalDateTime.now());
+        return transaction;
+    }
+
+    private BigDecimal balance(String accountNumber) {
+        return accountRepository.findSnapshotByAccountNumber(accountNumber).orElseThrow().getBalance().toBigDecimal();
+    }
+
+    private String createAccount(String holderName) {
+        return accountService.createAccount(new AccountDTO.CreateAccountRequest(
+            holderName, new BigDecimal("1000.00"), "EUR")).getAccountNumber();
+    }
+}
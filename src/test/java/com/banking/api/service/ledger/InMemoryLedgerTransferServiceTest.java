@@ -0,0 +1,119 @@
+package com.banking.api.service.ledger;
+
+import com.banking.api.dto.AccountDTO;
+import com.banking.api.dto.TransferDTO;
+import com.banking.api.exception.InsufficientFundsException;
+import com.banking.api.model.Account;
+import com.banking.api.repository.AccountRepository;
+import com.banking.api.repository.TransactionRepository;
+import com.banking.api.service.AccountService;
+import com.banking.api.service.TransferEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "banking.transfer.engine=in-memory",
+    "banking.ledger.wal-dir=target/ledger-wal-${random.uuid}",
+    "spring.datasource.url=jdbc:h2:mem:ledgerdb",
+    "spring.jpa.show-sql=false",
+    "logging.level.org.hibernate.SQL=INFO"
+})
+class InMemoryLedgerTransferServiceTest {
+
+    private static final int WRITERS = 64;
+    private static final int TRANSFERS_PER_WRITER = 250;
+    private static final int ACCOUNTS = 16;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private TransferEngine transferEngine;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Test
+    void testMoneyIsConservedUnderConcurrentWriters() throws Exception {
+        // Arrange
+        InMemoryLedgerTransferService ledgerService = assertInstanceOf(InMemoryLedgerTransferService.class, transferEngine);
+
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumbers.add(accountService.createAccount(
+                new AccountDTO.CreateAccountRequest("Ledger Holder " + i, OPENING_BALANCE, "USD")
+            ).getAccountNumber());
+        }
+        BigDecimal expectedTotal = OPENING_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS));
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+        List<Future<?>> writers = new ArrayList<>();
+
+        // Act - 64 writers move random amounts between random pairs
+        for (int w = 0; w < WRITERS; w++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_WRITER; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    TransferDTO.TransferRequest request = new TransferDTO.TransferRequest(
+                        accountNumbers.get(from),
+                        accountNumbers.get(to),
+                        BigDecimal.valueOf(random.nextInt(1, 200)),
+                        "Stress transfer"
+                    );
+                    try {
+                        transferEngine.executeTransfer(request);
+                        completed.incrementAndGet();
+                    } catch (InsufficientFundsException ex) {
+                        // Expected when a random walk drains an account
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        // Assert - in-memory balances conserve the total and never go negative
+        assertEquals(0, expectedTotal.compareTo(ledgerService.totalLedgerBalance()));
+        for (String accountNumber : accountNumbers) {
+            assertTrue(ledgerService.ledgerBalance(accountNumber).signum() >= 0);
+        }
+
+        // Assert - once flushed, the database agrees with the ledger
+        ledgerService.flushPending(false);
+        BigDecimal databaseTotal = BigDecimal.ZERO;
+        for (String accountNumber : accountNumbers) {
+            Account account = accountRepository.findSnapshotByAccountNumber(accountNumber).orElseThrow();
+            assertEquals(0, ledgerService.ledgerBalance(accountNumber).compareTo(account.getBalance().toBigDecimal()));
+            databaseTotal = databaseTotal.add(account.getBalance().toBigDecimal());
+        }
+        assertEquals(0, expectedTotal.compareTo(databaseTotal));
+        assertEquals(completed.get(), transactionRepository.count());
+    }
+}
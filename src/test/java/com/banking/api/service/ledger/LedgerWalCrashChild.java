@@ -0,0 +1,57 @@
+package com.banking.api.service.ledger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Child process for LedgerWriteAheadLogTest: appends from several threads,
+ * printing each sequence once it is durable, and checkpoints drained batches
+ * as the flusher would, until the test kills it.
+ */
+public class LedgerWalCrashChild {
+
+    public static void main(String[] args) throws Exception {
+        LedgerWriteAheadLog wal = new LedgerWriteAheadLog(Path.of(args[0]), new ObjectMapper().findAndRegisterModules(),
+            Integer.parseInt(args[1]));
+        PrintStream out = System.out;
+
+        for (int t = 0; t < 4; t++) {
+            int writer = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; ; i++) {
+                        LedgerEntry entry = wal.append("TXN-" + writer + "-" + i, null, "A", "B",
+                            BigDecimal.ONE, "USD", null);
+                        wal.awaitDurable(entry.sequence());
+                        synchronized (out) {
+                            out.println("ACK " + entry.sequence());
+                            out.flush();
+                        }
+                    }
+                } catch (Exception ex) {
+                    ex.printStackTrace();
+                }
+            });
+            thread.start();
+        }
+
+        // Stand-in for the flusher: drain a batch, "persist" it, checkpoint it
+        while (true) {
+            List<LedgerEntry> batch = wal.drain(50);
+            if (!batch.isEmpty()) {
+                long sequence = batch.get(batch.size() - 1).sequence();
+                wal.sync();
+                wal.checkpoint(sequence);
+                synchronized (out) {
+                    out.println("CHECKPOINT " + sequence);
+                    out.flush();
+                }
+            }
+            Thread.sleep(5);
+        }
+    }
+}
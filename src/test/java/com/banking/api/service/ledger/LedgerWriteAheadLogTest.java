@@ -0,0 +1,167 @@
+package com.banking.api.service.ledger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LedgerWriteAheadLogTest {
+
+    private static final int SEGMENT_BYTES = 4096;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecoversEntriesAfterCheckpointAcrossSegments() throws Exception {
+        // Arrange - enough entries to roll several segments
+        try (LedgerWriteAheadLog wal = open()) {
+            for (int i = 1; i <= 100; i++) {
+                append(wal, i);
+            }
+            wal.sync();
+            wal.drain(40);
+            wal.checkpoint(40);
+        }
+
+        // Act
+        try (LedgerWriteAheadLog recovered = open()) {
+            // Assert - exactly the entries after the checkpoint, in order
+            List<LedgerEntry> pending = recovered.drain(Integer.MAX_VALUE);
+            assertEquals(60, pending.size());
+            for (int i = 0; i < pending.size(); i++) {
+                assertEquals(41 + i, pending.get(i).sequence());
+            }
+            assertTrue(recovered.segmentCount() > 1);
+            assertEquals(101, append(recovered, 101).sequence());
+        }
+    }
+
+    @Test
+    void testCheckpointDeletesSegmentsItCovers() throws Exception {
+        try (LedgerWriteAheadLog wal = open()) {
+            for (int i = 1; i <= 100; i++) {
+                append(wal, i);
+            }
+            int before = wal.segmentCount();
+
+            wal.checkpoint(100);
+
+            assertTrue(before > 1);
+            assertEquals(1, wal.segmentCount());
+            assertEquals(1, segmentFiles().size());
+        }
+    }
+
+    @Test
+    void testTornRecordIsDiscarded() throws Exception {
+        // Arrange - ten entries, then corrupt the last byte of the last record as a crash mid-write would
+        try (LedgerWriteAheadLog wal = open()) {
+            for (int i = 1; i <= 10; i++) {
+                append(wal, i);
+            }
+        }
+        Path last = segmentFiles().get(segmentFiles().size() - 1);
+        try (RandomAccessFile file = new RandomAccessFile(last.toFile(), "rw")) {
+            long offset = lastNonZeroByte(file);
+            file.seek(offset);
+            int original = file.read();
+            file.seek(offset);
+            file.write(original ^ 0xFF);
+        }
+
+        // Act
+        try (LedgerWriteAheadLog recovered = open()) {
+            // Assert - the torn record is gone and its sequence is reused
+            assertEquals(9, recovered.drain(Integer.MAX_VALUE).size());
+            assertEquals(10, append(recovered, 10).sequence());
+        }
+        try (LedgerWriteAheadLog reopened = open()) {
+            assertEquals(10, reopened.drain(Integer.MAX_VALUE).size());
+        }
+    }
+
+    @Test
+    void testKilledProcessLosesNoAcknowledgedEntry() throws Exception {
+        // Arrange - a child JVM appending and checkpointing until it is killed
+        Process child = new ProcessBuilder(
+            Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            "-cp", System.getProperty("java.class.path"),
+            LedgerWalCrashChild.class.getName(), directory.toString(), Integer.toString(SEGMENT_BYTES))
+            .redirectErrorStream(true)
+            .start();
+
+        List<Long> acknowledged = new ArrayList<>();
+        long checkpoint = 0;
+        try (BufferedReader output = new BufferedReader(
+                new InputStreamReader(child.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while (acknowledged.size() < 2000 && (line = output.readLine()) != null) {
+                if (line.startsWith("ACK ")) {
+                    acknowledged.add(Long.parseLong(line.substring(4)));
+                } else if (line.startsWith("CHECKPOINT ")) {
+                    checkpoint = Long.parseLong(line.substring(11));
+                }
+            }
+            // Act - kill it mid-batch, with appends and a flush in flight
+            child.destroyForcibly();
+            assertTrue(child.waitFor(30, TimeUnit.SECONDS));
+        }
+        assertEquals(2000, acknowledged.size(), "child exited early");
+
+        // Assert - recovery resumes after a checkpoint at least as new as the last one seen,
+        // without gaps, and still holds every acknowledged entry past it
+        try (LedgerWriteAheadLog recovered = open()) {
+            List<LedgerEntry> pending = recovered.drain(Integer.MAX_VALUE);
+            long first = pending.isEmpty() ? Long.MAX_VALUE : pending.get(0).sequence();
+            assertTrue(first > checkpoint);
+            for (int i = 1; i < pending.size(); i++) {
+                assertEquals(pending.get(i - 1).sequence() + 1, pending.get(i).sequence());
+            }
+            long lastPending = pending.isEmpty() ? first - 1 : pending.get(pending.size() - 1).sequence();
+            for (long sequence : acknowledged) {
+                assertTrue(sequence < first || sequence <= lastPending, "lost acknowledged entry " + sequence);
+            }
+        }
+    }
+
+    private LedgerWriteAheadLog open() throws Exception {
+        return new LedgerWriteAheadLog(directory, objectMapper, SEGMENT_BYTES);
+    }
+
+    private LedgerEntry append(LedgerWriteAheadLog wal, int i) throws Exception {
+        return wal.append("TXN-" + i, null, "1111-2222-3333", "4444-5555-6666", BigDecimal.valueOf(i), "USD",
+            "Entry " + i);
+    }
+
+    private List<Path> segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".wal")).sorted().toList();
+        }
+    }
+
+    private long lastNonZeroByte(RandomAccessFile file) throws Exception {
+        for (long offset = file.length() - 1; offset >= 0; offset--) {
+            file.seek(offset);
+            if (file.read() != 0) {
+                return offset;
+            }
+        }
+        throw new IllegalStateException("Segment is empty");
+    }
+}